@@ -32,4 +32,33 @@ public @interface App {
 
     Class<?>[] modules() default {};
 
+    /**
+     * Reduced graphs for secondary processes. App injector builds graph of the process it runs in
+     * and falls back to the full graph in every other process.
+     */
+    Process[] processes() default {};
+
+    /**
+     * App graph of one process. Only {@code modules} are created and only {@code children} can be
+     * injected in it.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target({})
+    @interface Process {
+
+        /**
+         * Process name as in {@code android:process}. Names that start with {@code :} match any
+         * process with that suffix.
+         */
+        String name();
+
+        Class<?>[] modules() default {};
+
+        /**
+         * {@code @Rondel} classes with App parent that are injected in this process.
+         */
+        Class<?>[] children() default {};
+
+    }
+
 }
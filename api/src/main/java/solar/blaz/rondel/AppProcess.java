@@ -0,0 +1,94 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Name of the current process used by App injectors generated for {@link App#processes()}. Name
+ * is read from {@code /proc/self/cmdline} the first time it is needed. Apps that already know it,
+ * for example from {@code Application.getProcessName()}, can set it before App is injected.
+ */
+public final class AppProcess {
+
+    private static volatile String name;
+
+    private AppProcess() {
+        // no instances
+    }
+
+    public static String getName() {
+        String current = name;
+        if (current == null) {
+            current = readName();
+            name = current;
+        }
+        return current;
+    }
+
+    /**
+     * Sets current process name. {@code null} reads it again from the system.
+     */
+    public static void setName(String name) {
+        AppProcess.name = name;
+    }
+
+    /**
+     * Whether current process is {@code process} declared in {@link App.Process#name()}.
+     */
+    public static boolean is(String process) {
+        String current = getName();
+        if (process.startsWith(":")) {
+            return current.endsWith(process);
+        } else {
+            return current.equals(process);
+        }
+    }
+
+    private static String readName() {
+        InputStream in = null;
+        try {
+            in = new FileInputStream("/proc/self/cmdline");
+            byte[] buffer = new byte[256];
+            int length = 0;
+            int read;
+            while (length < buffer.length && (read = in.read(buffer, length, buffer.length - length)) > 0) {
+                length += read;
+            }
+
+            // arguments are separated with 0, first one is process name
+            int end = 0;
+            while (end < length && buffer[end] != 0) {
+                end++;
+            }
+            return new String(buffer, 0, end, "UTF-8").trim();
+        } catch (IOException e) {
+            return "";
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException ignored) {
+                    // nothing to do
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel;
+
+/**
+ * Loads classes listed by {@code Rondel<App>Preload} generated with {@code rondel.preload}
+ * processor option, so they are already loaded and verified when main thread needs them. Start it
+ * as early as possible, for example from {@code Application.attachBaseContext}:
+ *
+ * <pre><code>
+ * ClassPreloader.start(getClassLoader(), RondelMyAppPreload.getClassNames());
+ * </code></pre>
+ *
+ * <p>Classes are loaded without being initialized, so no static initializer runs on the
+ * background thread. Classes that can not be found, for example because they were renamed by
+ * ProGuard, are skipped.
+ */
+public final class ClassPreloader {
+
+    private ClassPreloader() {
+        // no instances
+    }
+
+    /**
+     * Starts daemon thread that loads {@code classNames} in order.
+     */
+    public static Thread start(final ClassLoader loader, final String[] classNames) {
+        Thread thread = new Thread(new Runnable() {
+            @Override public void run() {
+                preload(loader, classNames);
+            }
+        }, "rondel-preload");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Loads {@code classNames} in order on calling thread and returns number of classes found.
+     */
+    public static int preload(ClassLoader loader, String[] classNames) {
+        int loaded = 0;
+        for (String className : classNames) {
+            try {
+                Class.forName(className, false, loader);
+                loaded++;
+            } catch (ClassNotFoundException ignored) {
+                // renamed or not generated
+            } catch (LinkageError ignored) {
+                // main thread will report it when it loads the class
+            }
+        }
+        return loaded;
+    }
+
+}
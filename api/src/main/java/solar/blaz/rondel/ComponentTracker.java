@@ -0,0 +1,150 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel;
+
+import java.lang.annotation.Annotation;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Weakly tracks components that generated injectors create when they are generated with
+ * {@code rondel.track} processor option. Components are grouped by their scope annotation.
+ *
+ * <p>Component whose target was garbage collected while the component itself is still reachable
+ * is reported by {@link #findLeaks()}. Run garbage collection before checking, otherwise targets
+ * that are no longer used may not be collected yet.
+ */
+public final class ComponentTracker {
+
+    private static final ReferenceQueue<RondelComponent> queue = new ReferenceQueue<RondelComponent>();
+    private static final Map<Class<? extends Annotation>, List<TrackedComponent>> components =
+            new LinkedHashMap<Class<? extends Annotation>, List<TrackedComponent>>();
+
+    private ComponentTracker() {
+        // no instances
+    }
+
+    public static void track(RondelComponent component, Object target, Class<? extends Annotation> scope) {
+        synchronized (components) {
+            purge();
+
+            List<TrackedComponent> scoped = components.get(scope);
+            if (scoped == null) {
+                scoped = new ArrayList<TrackedComponent>();
+                components.put(scope, scoped);
+            }
+            scoped.add(new TrackedComponent(component, target, scope, queue));
+        }
+    }
+
+    /**
+     * Number of components of {@code scope} that were not garbage collected yet.
+     */
+    public static int getLiveCount(Class<? extends Annotation> scope) {
+        synchronized (components) {
+            purge();
+
+            List<TrackedComponent> scoped = components.get(scope);
+            return scoped != null ? scoped.size() : 0;
+        }
+    }
+
+    public static Map<Class<? extends Annotation>, Integer> getLiveCounts() {
+        synchronized (components) {
+            purge();
+
+            Map<Class<? extends Annotation>, Integer> counts = new LinkedHashMap<Class<? extends Annotation>, Integer>();
+            for (Map.Entry<Class<? extends Annotation>, List<TrackedComponent>> entry : components.entrySet()) {
+                if (!entry.getValue().isEmpty()) {
+                    counts.put(entry.getKey(), entry.getValue().size());
+                }
+            }
+            return counts;
+        }
+    }
+
+    /**
+     * Components of {@code scope} that were not garbage collected yet, oldest first.
+     */
+    public static List<TrackedComponent> getLive(Class<? extends Annotation> scope) {
+        synchronized (components) {
+            purge();
+
+            List<TrackedComponent> scoped = components.get(scope);
+            if (scoped == null) {
+                return Collections.emptyList();
+            } else {
+                return new ArrayList<TrackedComponent>(scoped);
+            }
+        }
+    }
+
+    /**
+     * Components that are still reachable although their target was garbage collected.
+     */
+    public static List<TrackedComponent> findLeaks() {
+        synchronized (components) {
+            purge();
+
+            List<TrackedComponent> leaks = new ArrayList<TrackedComponent>();
+            for (List<TrackedComponent> scoped : components.values()) {
+                for (TrackedComponent component : scoped) {
+                    if (component.isLeaking()) {
+                        leaks.add(component);
+                    }
+                }
+            }
+            return leaks;
+        }
+    }
+
+    public static void clear() {
+        synchronized (components) {
+            components.clear();
+            while (queue.poll() != null) {
+                // drain
+            }
+        }
+    }
+
+    private static void purge() {
+        Reference<? extends RondelComponent> reference = queue.poll();
+        if (reference == null) {
+            return;
+        }
+
+        while (queue.poll() != null) {
+            // drain, collected entries are removed below
+        }
+
+        for (List<TrackedComponent> scoped : components.values()) {
+            Iterator<TrackedComponent> iterator = scoped.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().get() == null) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+}
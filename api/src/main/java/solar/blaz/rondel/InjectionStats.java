@@ -0,0 +1,206 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counters of components built and injects for every injected class, collected by injectors
+ * generated with {@code rondel.stats} processor option. Every injector holds its own {@link Slot},
+ * so updating counters needs no lookup and no lock. Call {@link #snapshot()} to read them.
+ *
+ * <p>Inject latency is counted in coarse buckets with upper bounds of 10&micro;s, 100&micro;s, 1ms, 10ms and
+ * 100ms. Last bucket counts everything slower. Reading the clock costs more than the counters, so
+ * only every {@link #SAMPLE_INTERVAL}th inject of a thread stripe is timed. Builds and injects are
+ * always counted, buckets count only timed injects.
+ */
+public final class InjectionStats {
+
+    private static final long[] BOUNDS = { 10000L, 100000L, 1000000L, 10000000L, 100000000L };
+
+    /**
+     * Number of latency buckets.
+     */
+    public static final int BUCKETS = BOUNDS.length + 1;
+
+    /**
+     * One of this many injects is timed and counted in latency buckets.
+     */
+    public static final int SAMPLE_INTERVAL = 16;
+
+    /**
+     * Value of {@link Slot#start()} for injects that are not timed.
+     */
+    public static final long NOT_SAMPLED = Long.MIN_VALUE;
+
+    // counters are striped by thread and every stripe is on its own cache line
+    private static final int STRIPES = 8;
+    private static final int STRIDE = 16;
+    private static final int BUILDS = 0;
+    private static final int INJECTS = 1;
+    private static final int HISTOGRAM = 2;
+
+    private static final List<Slot> slots = new CopyOnWriteArrayList<Slot>();
+
+    private InjectionStats() {
+        // no instances
+    }
+
+    /**
+     * Creates slot for {@code target}. Called once by generated injector when it is loaded.
+     */
+    public static Slot register(Class<?> target) {
+        Slot slot = new Slot(target);
+        slots.add(slot);
+        return slot;
+    }
+
+    /**
+     * Returns current counters of every injector that was used so far. Counters are read one by
+     * one, so snapshot taken during injection may count a build without its inject.
+     */
+    public static List<Snapshot> snapshot() {
+        List<Snapshot> snapshots = new ArrayList<Snapshot>(slots.size());
+        for (Slot slot : slots) {
+            snapshots.add(slot.snapshot());
+        }
+        return Collections.unmodifiableList(snapshots);
+    }
+
+    /**
+     * Upper bound of latency bucket in nanoseconds, {@link Long#MAX_VALUE} for the last bucket.
+     */
+    public static long getBucketBound(int bucket) {
+        return bucket < BOUNDS.length ? BOUNDS[bucket] : Long.MAX_VALUE;
+    }
+
+    private static int bucket(long nanos) {
+        for (int i = 0; i < BOUNDS.length; i++) {
+            if (nanos < BOUNDS[i]) {
+                return i;
+            }
+        }
+        return BOUNDS.length;
+    }
+
+    public static final class Slot {
+
+        private final Class<?> target;
+        private final AtomicLongArray counters = new AtomicLongArray(STRIPES * STRIDE);
+
+        Slot(Class<?> target) {
+            this.target = target;
+        }
+
+        public void built() {
+            counters.incrementAndGet(stripe() + BUILDS);
+        }
+
+        /**
+         * Start time of inject that is timed, {@link #NOT_SAMPLED} for others. Pass it to
+         * {@link #injected(long)}.
+         */
+        public long start() {
+            if ((counters.get(stripe() + INJECTS) & (SAMPLE_INTERVAL - 1)) == 0) {
+                return System.nanoTime();
+            }
+            return NOT_SAMPLED;
+        }
+
+        public void injected(long start) {
+            int stripe = stripe();
+            counters.incrementAndGet(stripe + INJECTS);
+            if (start != NOT_SAMPLED) {
+                counters.incrementAndGet(stripe + HISTOGRAM + bucket(System.nanoTime() - start));
+            }
+        }
+
+        private static int stripe() {
+            return ((int) Thread.currentThread().getId() & (STRIPES - 1)) * STRIDE;
+        }
+
+        Snapshot snapshot() {
+            long builds = 0;
+            long injects = 0;
+            long[] histogram = new long[BUCKETS];
+            for (int stripe = 0; stripe < STRIPES * STRIDE; stripe += STRIDE) {
+                builds += counters.get(stripe + BUILDS);
+                injects += counters.get(stripe + INJECTS);
+                for (int i = 0; i < BUCKETS; i++) {
+                    histogram[i] += counters.get(stripe + HISTOGRAM + i);
+                }
+            }
+            return new Snapshot(target, builds, injects, histogram);
+        }
+
+    }
+
+    public static final class Snapshot {
+
+        private final Class<?> target;
+        private final long builds;
+        private final long injects;
+        private final long[] histogram;
+
+        Snapshot(Class<?> target, long builds, long injects, long[] histogram) {
+            this.target = target;
+            this.builds = builds;
+            this.injects = injects;
+            this.histogram = histogram;
+        }
+
+        public Class<?> getTarget() {
+            return target;
+        }
+
+        public long getBuilds() {
+            return builds;
+        }
+
+        public long getInjects() {
+            return injects;
+        }
+
+        /**
+         * Number of timed injects in latency bucket, see {@link InjectionStats#getBucketBound(int)}.
+         */
+        public long getCount(int bucket) {
+            return histogram[bucket];
+        }
+
+        @Override public String toString() {
+            StringBuilder builder = new StringBuilder()
+                    .append(target.getName())
+                    .append(" builds=").append(builds)
+                    .append(" injects=").append(injects)
+                    .append(" histogram=[");
+            for (int i = 0; i < histogram.length; i++) {
+                if (i > 0) {
+                    builder.append(", ");
+                }
+                builder.append(histogram[i]);
+            }
+            return builder.append(']').toString();
+        }
+
+    }
+
+}
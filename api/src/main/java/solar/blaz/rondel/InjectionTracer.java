@@ -0,0 +1,43 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Receives callbacks from generated injectors when they are generated with {@code rondel.trace}
+ * processor option. Without the option generated code does not call tracer at all.
+ *
+ * <p>Callbacks are invoked on the thread that injects, so implementations should return quickly.
+ */
+public interface InjectionTracer {
+
+    /**
+     * Called before parent component is resolved and component for {@code target} is built.
+     */
+    void beginBuild(Class<?> target, Class<? extends Annotation> scope);
+
+    void endBuild(Class<?> target, Class<? extends Annotation> scope);
+
+    /**
+     * Called before members of {@code target} are injected.
+     */
+    void beginInject(Class<?> target, Class<? extends Annotation> scope);
+
+    void endInject(Class<?> target, Class<? extends Annotation> scope);
+
+}
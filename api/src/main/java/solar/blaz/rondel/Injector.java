@@ -0,0 +1,45 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel;
+
+/**
+ * Static entry point for injecting any {@link Rondel} or {@link App} annotated instance without
+ * knowing its generated injector. Registry is installed by generated App injector, so App has to
+ * be injected before anything else.
+ */
+public final class Injector {
+
+    private static volatile InjectorRegistry registry;
+
+    private Injector() {
+        // no instances
+    }
+
+    public static void setRegistry(InjectorRegistry registry) {
+        Injector.registry = registry;
+    }
+
+    public static RondelComponent inject(Object target) {
+        InjectorRegistry registry = Injector.registry;
+        if (registry == null) {
+            throw new IllegalStateException("No injector registry installed. "
+                    + "Enable rondel.registry processor option and inject App first.");
+        }
+        return registry.inject(target);
+    }
+
+}
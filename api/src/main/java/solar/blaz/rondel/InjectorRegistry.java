@@ -0,0 +1,32 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel;
+
+/**
+ * Maps injected instances to their generated injectors. Implementation is generated by the
+ * processor when {@code rondel.registry} option is set.
+ */
+public interface InjectorRegistry {
+
+    /**
+     * Injects instance with its generated injector.
+     *
+     * @throws IllegalArgumentException if there is no injector for instance type
+     */
+    RondelComponent inject(Object target);
+
+}
@@ -0,0 +1,92 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package solar.blaz.rondel;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Module instances that tests use instead of the ones generated injectors would create. Overrides
+ * belong to an App instance, so tests with their own App can run in parallel in the same JVM.
+ *
+ * <p>Generated injectors check {@link #isActive()} first, so there is no lookup when no overrides
+ * are set. Overrides are kept until {@link #clear(Object)} or until the App is garbage collected.
+ * Module that references its App keeps the App reachable, clear such overrides explicitly.
+ */
+public final class ModuleOverrides {
+
+    private static final Map<Object, Map<Class<?>, Object>> overrides = new WeakHashMap<Object, Map<Class<?>, Object>>();
+    private static volatile boolean active;
+
+    private ModuleOverrides() {
+        // no instances
+    }
+
+    /**
+     * Injectors started from {@code app} will use {@code module} wherever they need module of
+     * {@code type}.
+     */
+    public static <T> void set(Object app, Class<T> type, T module) {
+        if (app == null) {
+            throw new IllegalArgumentException("App is null");
+        }
+
+        synchronized (overrides) {
+            Map<Class<?>, Object> modules = overrides.get(app);
+            if (modules == null) {
+                modules = new HashMap<Class<?>, Object>();
+                overrides.put(app, modules);
+            }
+            modules.put(type, module);
+            active = true;
+        }
+    }
+
+    public static <T> T get(Object app, Class<T> type) {
+        synchronized (overrides) {
+            Map<Class<?>, Object> modules = overrides.get(app);
+            return modules != null ? type.cast(modules.get(type)) : null;
+        }
+    }
+
+    /**
+     * Returns true if any App has overrides set.
+     */
+    public static boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Removes all overrides of {@code app}.
+     */
+    public static void clear(Object app) {
+        synchronized (overrides) {
+            overrides.remove(app);
+            active = !overrides.isEmpty();
+        }
+    }
+
+    public static void clearAll() {
+        synchronized (overrides) {
+            overrides.clear();
+            active = false;
+        }
+    }
+
+}
@@ -36,4 +36,18 @@ public @interface Rondel {
 
     Class<?> scope() default Void.class;
 
+    /**
+     * All instances of the view under one parent component share single component. It is weakly
+     * cached on the parent component, so it is dropped with it or when no view holds it anymore.
+     * Every instance is still injected. Only supported on views.
+     */
+    boolean shared() default false;
+
+    /**
+     * Order of generated classes in preload list generated with {@code rondel.preload} option.
+     * Classes of components with higher priority are loaded first, App is always loaded before
+     * everything else.
+     */
+    int startupPriority() default 0;
+
 }
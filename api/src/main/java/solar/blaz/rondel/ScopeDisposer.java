@@ -0,0 +1,127 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package solar.blaz.rondel;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Collects {@link Closeable} scoped instances of one component in the order they were created and
+ * closes them in reverse order when the component is released.
+ *
+ * <p>Generated injectors create a disposer for components whose modules provide scoped
+ * {@code Closeable} instances and register it with {@link #register(RondelComponent, ScopeDisposer)}.
+ * Call generated {@code release(component)} or {@link #release(RondelComponent)} when owner of
+ * the component is destroyed.
+ */
+public final class ScopeDisposer {
+
+    private static final Map<RondelComponent, ScopeDisposer> disposers = new WeakHashMap<RondelComponent, ScopeDisposer>();
+
+    private final List<Closeable> closeables = new ArrayList<Closeable>();
+    private boolean released;
+
+    public static void register(RondelComponent component, ScopeDisposer disposer) {
+        synchronized (disposers) {
+            disposers.put(component, disposer);
+        }
+    }
+
+    /**
+     * Closes scoped instances of {@code component}. Does nothing when component has no disposer or
+     * was already released.
+     */
+    public static void release(RondelComponent component) {
+        ScopeDisposer disposer;
+        synchronized (disposers) {
+            disposer = disposers.remove(component);
+        }
+
+        if (disposer != null) {
+            disposer.release();
+        }
+    }
+
+    /**
+     * Registers {@code instance} if it is {@link Closeable}. Instance created after disposer was
+     * released is closed right away.
+     */
+    public <T> T add(T instance) {
+        if (instance instanceof Closeable) {
+            boolean closeNow;
+            synchronized (closeables) {
+                closeNow = released;
+                if (!closeNow) {
+                    closeables.add((Closeable) instance);
+                }
+            }
+
+            if (closeNow) {
+                close((Closeable) instance);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Closes registered instances, last created first. All instances are closed even if some of
+     * them fail, first failure is thrown afterwards.
+     */
+    public void release() {
+        List<Closeable> toClose;
+        synchronized (closeables) {
+            released = true;
+            toClose = new ArrayList<Closeable>(closeables);
+            closeables.clear();
+        }
+
+        RuntimeException failure = null;
+        for (int i = toClose.size() - 1; i >= 0; i--) {
+            try {
+                close(toClose.get(i));
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    public boolean isReleased() {
+        synchronized (closeables) {
+            return released;
+        }
+    }
+
+    private static void close(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to close " + closeable, e);
+        }
+    }
+
+}
@@ -0,0 +1,227 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * {@link InjectionTracer} that keeps events in a ring buffer allocated up front and writes them in
+ * Chrome trace event format, so they can be opened in {@code chrome://tracing} or Perfetto.
+ * Recording does not allocate. When buffer is full, oldest events are overwritten. Threads of
+ * recorded events are referenced until their events are overwritten or {@link #clear()} is called.
+ *
+ * <pre>
+ * TraceRecorder recorder = new TraceRecorder(4096);
+ * Tracing.setTracer(recorder);
+ * ...
+ * recorder.writeTo(writer);
+ * </pre>
+ *
+ * Startup profile for {@code rondel.startupProfile} processor option is written with
+ * {@link #writeProfileTo(Writer)} after a cold start.
+ *
+ * Injectors call recorder only when they are generated with {@code rondel.trace} processor option.
+ */
+public final class TraceRecorder implements InjectionTracer {
+
+    private static final byte BEGIN_BUILD = 0;
+    private static final byte END_BUILD = 1;
+    private static final byte BEGIN_INJECT = 2;
+    private static final byte END_INJECT = 3;
+
+    private final int capacity;
+    private final long start = System.nanoTime();
+
+    private final long[] times;
+    private final byte[] types;
+    private final Class<?>[] targets;
+    private final Class<?>[] scopes;
+    private final Thread[] threads;
+
+    private long count;
+
+    public TraceRecorder(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity has to be positive");
+        }
+
+        this.capacity = capacity;
+        times = new long[capacity];
+        types = new byte[capacity];
+        targets = new Class<?>[capacity];
+        scopes = new Class<?>[capacity];
+        threads = new Thread[capacity];
+    }
+
+    @Override public void beginBuild(Class<?> target, Class<? extends Annotation> scope) {
+        record(BEGIN_BUILD, target, scope);
+    }
+
+    @Override public void endBuild(Class<?> target, Class<? extends Annotation> scope) {
+        record(END_BUILD, target, scope);
+    }
+
+    @Override public void beginInject(Class<?> target, Class<? extends Annotation> scope) {
+        record(BEGIN_INJECT, target, scope);
+    }
+
+    @Override public void endInject(Class<?> target, Class<? extends Annotation> scope) {
+        record(END_INJECT, target, scope);
+    }
+
+    private void record(byte type, Class<?> target, Class<?> scope) {
+        long time = System.nanoTime();
+        Thread thread = Thread.currentThread(); // name is read when writing, getName() allocates on JVM
+
+        synchronized (this) {
+            int index = (int) (count % capacity);
+            times[index] = time;
+            types[index] = type;
+            targets[index] = target;
+            scopes[index] = scope;
+            threads[index] = thread;
+            count++;
+        }
+    }
+
+    /**
+     * Number of events in the buffer.
+     */
+    public synchronized int size() {
+        return (int) Math.min(count, capacity);
+    }
+
+    /**
+     * Number of events that were overwritten because buffer was full.
+     */
+    public synchronized long getDropped() {
+        return Math.max(0, count - capacity);
+    }
+
+    public synchronized void clear() {
+        for (int i = 0; i < capacity; i++) {
+            targets[i] = null;
+            scopes[i] = null;
+            threads[i] = null;
+        }
+        count = 0;
+    }
+
+    /**
+     * Writes recorded events as trace event JSON object. Events are written from oldest to newest.
+     * Timestamps are in microseconds since the recorder was created.
+     */
+    public synchronized void writeTo(Writer writer) throws IOException {
+        int size = size();
+        int first = (int) ((count - size) % capacity);
+
+        writer.write("{\"traceEvents\":[");
+
+        Set<Thread> written = new HashSet<Thread>();
+        boolean separator = false;
+        for (int i = 0; i < size; i++) {
+            int index = (first + i) % capacity;
+
+            if (written.add(threads[index])) {
+                if (separator) {
+                    writer.write(',');
+                }
+                writer.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":0,\"tid\":");
+                writer.write(Long.toString(threads[index].getId()));
+                writer.write(",\"args\":{\"name\":\"");
+                writeEscaped(writer, threads[index].getName());
+                writer.write("\"}}");
+                separator = true;
+            }
+
+            if (separator) {
+                writer.write(',');
+            }
+            writeEvent(writer, index);
+            separator = true;
+        }
+
+        writer.write("],\"displayTimeUnit\":\"ms\",\"otherData\":{\"dropped\":");
+        writer.write(Long.toString(getDropped()));
+        writer.write("}}");
+        writer.flush();
+    }
+
+    /**
+     * Writes binary names of recorded component targets, one per line, in the order their components
+     * were first built. Record a cold start and pass the file to {@code rondel.startupProfile}
+     * processor option.
+     */
+    public synchronized void writeProfileTo(Writer writer) throws IOException {
+        int size = size();
+        int first = (int) ((count - size) % capacity);
+
+        Set<Class<?>> written = new HashSet<Class<?>>();
+        for (int i = 0; i < size; i++) {
+            int index = (first + i) % capacity;
+            if (types[index] == BEGIN_BUILD && written.add(targets[index])) {
+                writer.write(targets[index].getName());
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeEvent(Writer writer, int index) throws IOException {
+        byte type = types[index];
+        boolean build = type == BEGIN_BUILD || type == END_BUILD;
+        boolean begin = type == BEGIN_BUILD || type == BEGIN_INJECT;
+
+        writer.write("{\"name\":\"");
+        writeEscaped(writer, targets[index].getName());
+        writer.write(build ? " build" : " inject");
+        writer.write("\",\"cat\":\"");
+        writer.write(build ? "rondel.build" : "rondel.inject");
+        writer.write("\",\"ph\":\"");
+        writer.write(begin ? 'B' : 'E');
+        writer.write("\",\"ts\":");
+        long micros = (times[index] - start) / 1000;
+        writer.write(Long.toString(micros));
+        writer.write(",\"pid\":0,\"tid\":");
+        writer.write(Long.toString(threads[index].getId()));
+        if (scopes[index] != null) {
+            writer.write(",\"args\":{\"scope\":\"");
+            writeEscaped(writer, scopes[index].getSimpleName());
+            writer.write("\"}");
+        }
+        writer.write('}');
+    }
+
+    private static void writeEscaped(Writer writer, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c < 0x20) {
+                writer.write(String.format("\\u%04x", (int) c));
+            } else {
+                writer.write(c);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * Holds {@link InjectionTracer} that is used by generated injectors.
+ */
+public final class Tracing {
+
+    private static final InjectionTracer NO_OP = new NoOpTracer();
+
+    private static volatile InjectionTracer tracer = NO_OP;
+
+    private Tracing() {
+        // no instances
+    }
+
+    /**
+     * Sets tracer that receives injection callbacks. Passing {@code null} disables tracing.
+     */
+    public static void setTracer(InjectionTracer tracer) {
+        Tracing.tracer = tracer != null ? tracer : NO_OP;
+    }
+
+    public static InjectionTracer getTracer() {
+        return tracer;
+    }
+
+    private static final class NoOpTracer implements InjectionTracer {
+
+        @Override public void beginBuild(Class<?> target, Class<? extends Annotation> scope) {
+        }
+
+        @Override public void endBuild(Class<?> target, Class<? extends Annotation> scope) {
+        }
+
+        @Override public void beginInject(Class<?> target, Class<? extends Annotation> scope) {
+        }
+
+        @Override public void endInject(Class<?> target, Class<? extends Annotation> scope) {
+        }
+
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel;
+
+import java.lang.annotation.Annotation;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * Component registered with {@link ComponentTracker}. Component and its target are only weakly
+ * referenced, so holding on to this object does not keep either of them alive.
+ */
+public final class TrackedComponent extends WeakReference<RondelComponent> {
+
+    private final WeakReference<Object> target;
+    private final Class<?> targetClass;
+    private final Class<? extends Annotation> scope;
+    private final long createdAt;
+
+    TrackedComponent(RondelComponent component, Object target, Class<? extends Annotation> scope,
+            ReferenceQueue<RondelComponent> queue) {
+        super(component, queue);
+        this.target = new WeakReference<Object>(target);
+        this.targetClass = target.getClass();
+        this.scope = scope;
+        this.createdAt = System.nanoTime();
+    }
+
+    public Class<?> getTargetClass() {
+        return targetClass;
+    }
+
+    public Class<? extends Annotation> getScope() {
+        return scope;
+    }
+
+    /**
+     * Time since component was created in milliseconds.
+     */
+    public long getAgeMillis() {
+        return (System.nanoTime() - createdAt) / 1000000L;
+    }
+
+    public boolean isTargetCollected() {
+        return target.get() == null;
+    }
+
+    /**
+     * Component is still reachable while its target was already collected. Only meaningful after
+     * garbage collection has run.
+     */
+    public boolean isLeaking() {
+        return isTargetCollected() && get() != null;
+    }
+
+    @Override public String toString() {
+        return targetClass.getName() + " @" + scope.getSimpleName() + " (" + getAgeMillis() + " ms"
+                + (isLeaking() ? ", leaking" : "") + ")";
+    }
+
+}
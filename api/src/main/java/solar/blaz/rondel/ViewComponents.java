@@ -0,0 +1,70 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package solar.blaz.rondel;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Components published on views, so that views can find component of a Fragment they are
+ * inflated in. Generated {@code publish(fragment)} of a fragment injector puts fragment's component
+ * on its root view and view injectors look it up walking up the view hierarchy.
+ *
+ * <p>Both view and component are weakly referenced, entry goes away with the fragment.
+ */
+public final class ViewComponents {
+
+    private static final Map<Object, WeakReference<RondelComponent>> components =
+            new WeakHashMap<Object, WeakReference<RondelComponent>>();
+
+    private ViewComponents() {
+        // no instances
+    }
+
+    public static void publish(Object view, RondelComponent component) {
+        if (view == null) {
+            throw new IllegalStateException("Fragment has no view yet. Publish component from onViewCreated.");
+        }
+
+        synchronized (components) {
+            components.put(view, new WeakReference<RondelComponent>(component));
+        }
+    }
+
+    public static void unpublish(Object view) {
+        synchronized (components) {
+            components.remove(view);
+        }
+    }
+
+    /**
+     * Component published on {@code view} or {@code null}. Parents of the view are not checked.
+     */
+    public static RondelComponent get(Object view) {
+        synchronized (components) {
+            if (components.isEmpty()) {
+                return null;
+            }
+
+            WeakReference<RondelComponent> reference = components.get(view);
+            return reference != null ? reference.get() : null;
+        }
+    }
+
+}
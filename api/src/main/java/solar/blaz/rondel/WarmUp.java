@@ -0,0 +1,143 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs tasks on an executor so that every task starts only after tasks it depends on are done.
+ * Tasks without pending dependencies run in parallel. Used by {@code Rondel<App>WarmUp} generated
+ * with {@code rondel.warmUp} processor option to create App singletons before they are needed.
+ *
+ * <p>Failed task does not stop the others, its dependents still run and create what they need
+ * themselves. First failure is available from {@link #getFailure()}.
+ */
+public final class WarmUp {
+
+    /**
+     * Runs task with given index. Called on executor thread.
+     */
+    public interface Task {
+        void run(int index);
+    }
+
+    private final Executor executor;
+    private final Task task;
+    private final int[][] dependents;
+    private final AtomicIntegerArray pending;
+    private final CountDownLatch done;
+    private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+    private WarmUp(Executor executor, int[][] dependencies, Task task) {
+        this.executor = executor;
+        this.task = task;
+        this.done = new CountDownLatch(dependencies.length);
+        this.pending = new AtomicIntegerArray(dependencies.length);
+        this.dependents = invert(dependencies);
+
+        for (int i = 0; i < dependencies.length; i++) {
+            pending.set(i, dependencies[i].length);
+        }
+    }
+
+    /**
+     * Starts running {@code task} for every index of {@code dependencies}. {@code dependencies[i]}
+     * lists indexes of tasks that have to be done before task {@code i} starts.
+     */
+    public static WarmUp start(Executor executor, int[][] dependencies, Task task) {
+        WarmUp warmUp = new WarmUp(executor, dependencies, task);
+        for (int i = 0; i < dependencies.length; i++) {
+            if (dependencies[i].length == 0) {
+                warmUp.submit(i);
+            }
+        }
+        return warmUp;
+    }
+
+    /**
+     * Waits until all tasks are done.
+     */
+    public void await() throws InterruptedException {
+        done.await();
+    }
+
+    /**
+     * Waits until all tasks are done or {@code timeout} passes. Returns {@code true} if all tasks are done.
+     */
+    public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+        return done.await(timeout, unit);
+    }
+
+    public boolean isDone() {
+        return done.getCount() == 0;
+    }
+
+    /**
+     * First exception thrown by any task or {@code null}.
+     */
+    public Throwable getFailure() {
+        return failure.get();
+    }
+
+    private void submit(final int index) {
+        executor.execute(new Runnable() {
+            @Override public void run() {
+                try {
+                    task.run(index);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    done.countDown();
+                    for (int dependent : dependents[index]) {
+                        if (pending.decrementAndGet(dependent) == 0) {
+                            submit(dependent);
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    private static int[][] invert(int[][] dependencies) {
+        List<List<Integer>> dependents = new ArrayList<List<Integer>>(dependencies.length);
+        for (int i = 0; i < dependencies.length; i++) {
+            dependents.add(new ArrayList<Integer>());
+        }
+        for (int i = 0; i < dependencies.length; i++) {
+            for (int dependency : dependencies[i]) {
+                dependents.get(dependency).add(i);
+            }
+        }
+
+        int[][] result = new int[dependencies.length][];
+        for (int i = 0; i < result.length; i++) {
+            List<Integer> list = dependents.get(i);
+            result[i] = new int[list.size()];
+            for (int j = 0; j < list.size(); j++) {
+                result[i][j] = list.get(j);
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,64 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inject of App, Activity and Service with one module each.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ComponentBenchmark {
+
+    private BenchApp app;
+    private BenchActivity activity;
+    private BenchService service;
+
+    @Setup
+    public void setUp() {
+        app = new BenchApp();
+        activity = new BenchActivity(app);
+        service = new BenchService();
+        service.attach(app);
+    }
+
+    @Benchmark
+    public Object app() {
+        return RondelBenchApp.inject(app);
+    }
+
+    @Benchmark
+    public Object activity() {
+        return RondelBenchActivity.inject(activity);
+    }
+
+    @Benchmark
+    public Object service() {
+        return RondelBenchService.inject(service);
+    }
+
+}
@@ -0,0 +1,37 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.benchmark;
+
+import android.app.Fragment;
+
+import javax.inject.Inject;
+
+import solar.blaz.rondel.ComponentProvider;
+import solar.blaz.rondel.Rondel;
+
+@Rondel(parent = Fragment3.class)
+public class Fragment4 extends Fragment implements ComponentProvider {
+
+    @Inject Object object;
+
+    RondelFragment4Component component;
+
+    @Override public RondelFragment4Component getComponent() {
+        return component;
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inject of fragment at {@code depth}, every fragment above it has its own component.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FragmentBenchmark {
+
+    @Param({"1", "2", "3", "4", "5"})
+    public int depth;
+
+    private Fragment1 fragment1;
+    private Fragment2 fragment2;
+    private Fragment3 fragment3;
+    private Fragment4 fragment4;
+    private Fragment5 fragment5;
+
+    @Setup
+    public void setUp() {
+        BenchActivity activity = new BenchActivity(new BenchApp());
+
+        fragment1 = new Fragment1();
+        fragment1.attach(activity, null);
+        fragment1.component = RondelFragment1.inject(fragment1);
+
+        fragment2 = new Fragment2();
+        fragment2.attach(activity, fragment1);
+        fragment2.component = RondelFragment2.inject(fragment2);
+
+        fragment3 = new Fragment3();
+        fragment3.attach(activity, fragment2);
+        fragment3.component = RondelFragment3.inject(fragment3);
+
+        fragment4 = new Fragment4();
+        fragment4.attach(activity, fragment3);
+        fragment4.component = RondelFragment4.inject(fragment4);
+
+        fragment5 = new Fragment5();
+        fragment5.attach(activity, fragment4);
+        fragment5.component = RondelFragment5.inject(fragment5);
+    }
+
+    @Benchmark
+    public Object inject() {
+        switch (depth) {
+            case 1:
+                return RondelFragment1.inject(fragment1);
+            case 2:
+                return RondelFragment2.inject(fragment2);
+            case 3:
+                return RondelFragment3.inject(fragment3);
+            case 4:
+                return RondelFragment4.inject(fragment4);
+            default:
+                return RondelFragment5.inject(fragment5);
+        }
+    }
+
+}
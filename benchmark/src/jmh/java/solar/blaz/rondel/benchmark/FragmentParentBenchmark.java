@@ -0,0 +1,83 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.benchmark;
+
+import android.app.Fragment;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inject of fragment that has {@code hops - 1} plain fragments between itself and its parent. {@code sibling}
+ * injects fragment under the same host, {@code alternating} switches between two hosts on every call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FragmentParentBenchmark {
+
+    @Param({"1", "10"})
+    public int hops;
+
+    private NestedFragment first;
+    private NestedFragment second;
+    private boolean useSecond;
+
+    @Setup
+    public void setUp() {
+        BenchActivity activity = new BenchActivity(new BenchApp());
+        first = nest(activity);
+        second = nest(activity);
+    }
+
+    private NestedFragment nest(BenchActivity activity) {
+        HostFragment host = new HostFragment();
+        host.attach(activity, null);
+        host.component = RondelHostFragment.inject(host);
+
+        Fragment parent = host;
+        for (int i = 1; i < hops; i++) {
+            Fragment fragment = new Fragment();
+            fragment.attach(activity, parent);
+            parent = fragment;
+        }
+
+        NestedFragment nested = new NestedFragment();
+        nested.attach(activity, parent);
+        return nested;
+    }
+
+    @Benchmark
+    public Object sibling() {
+        return RondelNestedFragment.inject(first);
+    }
+
+    @Benchmark
+    public Object alternating() {
+        useSecond = !useSecond;
+        return RondelNestedFragment.inject(useSecond ? second : first);
+    }
+
+}
@@ -0,0 +1,36 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.benchmark;
+
+import android.app.Fragment;
+
+import solar.blaz.rondel.ComponentProvider;
+import solar.blaz.rondel.Rondel;
+
+/**
+ * Parent of {@link NestedFragment}, there can be any number of plain fragments between them.
+ */
+@Rondel(parent = BenchActivity.class)
+public class HostFragment extends Fragment implements ComponentProvider {
+
+    RondelHostFragmentComponent component;
+
+    @Override public RondelHostFragmentComponent getComponent() {
+        return component;
+    }
+
+}
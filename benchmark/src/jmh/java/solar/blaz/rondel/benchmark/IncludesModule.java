@@ -0,0 +1,45 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.benchmark;
+
+import dagger.Module;
+
+@Module(includes = {
+        StatelessModules.Module01.class,
+        StatelessModules.Module02.class,
+        StatelessModules.Module03.class,
+        StatelessModules.Module04.class,
+        StatelessModules.Module05.class,
+        StatelessModules.Module06.class,
+        StatelessModules.Module07.class,
+        StatelessModules.Module08.class,
+        StatelessModules.Module09.class,
+        StatelessModules.Module10.class,
+        StatelessModules.Module11.class,
+        StatelessModules.Module12.class,
+        StatelessModules.Module13.class,
+        StatelessModules.Module14.class,
+        StatelessModules.Module15.class,
+        StatelessModules.Module16.class,
+        StatelessModules.Module17.class,
+        StatelessModules.Module18.class,
+        StatelessModules.Module19.class,
+        StatelessModules.Module20.class
+})
+public class IncludesModule {
+
+}
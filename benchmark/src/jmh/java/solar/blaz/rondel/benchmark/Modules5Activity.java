@@ -0,0 +1,40 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.benchmark;
+
+import android.app.Activity;
+
+import javax.inject.Inject;
+
+import solar.blaz.rondel.Rondel;
+
+@Rondel(modules = {
+        StatelessModules.Module01.class,
+        StatelessModules.Module02.class,
+        StatelessModules.Module03.class,
+        StatelessModules.Module04.class,
+        StatelessModules.Module05.class
+})
+public class Modules5Activity extends Activity {
+
+    @Inject StatelessModules.Module01Value value01;
+    @Inject StatelessModules.Module02Value value02;
+    @Inject StatelessModules.Module03Value value03;
+    @Inject StatelessModules.Module04Value value04;
+    @Inject StatelessModules.Module05Value value05;
+
+}
@@ -0,0 +1,85 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inject of Activity with 0 to 20 stateless modules. {@code stateful20} has 20 modules that hold the activity and
+ * {@code includes20} 20 stateless modules included by a single module. Activities inject a binding of every module,
+ * so the modules are used. Run with {@code -prof gc} for allocations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ModulesBenchmark {
+
+    @Param({"0", "5", "10", "20", "stateful20", "includes20"})
+    public String modules;
+
+    private Modules0Activity modules0;
+    private Modules5Activity modules5;
+    private Modules10Activity modules10;
+    private Modules20Activity modules20;
+    private ModulesStatefulActivity stateful;
+    private ModulesIncludesActivity includes;
+
+    @Setup
+    public void setUp() {
+        BenchApp app = new BenchApp();
+
+        modules0 = new Modules0Activity();
+        modules0.attach(app);
+        modules5 = new Modules5Activity();
+        modules5.attach(app);
+        modules10 = new Modules10Activity();
+        modules10.attach(app);
+        modules20 = new Modules20Activity();
+        modules20.attach(app);
+        stateful = new ModulesStatefulActivity();
+        stateful.attach(app);
+        includes = new ModulesIncludesActivity();
+        includes.attach(app);
+    }
+
+    @Benchmark
+    public Object inject() {
+        if ("0".equals(modules)) {
+            return RondelModules0Activity.inject(modules0);
+        } else if ("5".equals(modules)) {
+            return RondelModules5Activity.inject(modules5);
+        } else if ("10".equals(modules)) {
+            return RondelModules10Activity.inject(modules10);
+        } else if ("20".equals(modules)) {
+            return RondelModules20Activity.inject(modules20);
+        } else if ("stateful20".equals(modules)) {
+            return RondelModulesStatefulActivity.inject(stateful);
+        } else {
+            return RondelModulesIncludesActivity.inject(includes);
+        }
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.benchmark;
+
+import android.app.Activity;
+
+import javax.inject.Inject;
+
+import solar.blaz.rondel.Rondel;
+
+@Rondel(modules = {
+        StatefulModules.Module01.class,
+        StatefulModules.Module02.class,
+        StatefulModules.Module03.class,
+        StatefulModules.Module04.class,
+        StatefulModules.Module05.class,
+        StatefulModules.Module06.class,
+        StatefulModules.Module07.class,
+        StatefulModules.Module08.class,
+        StatefulModules.Module09.class,
+        StatefulModules.Module10.class,
+        StatefulModules.Module11.class,
+        StatefulModules.Module12.class,
+        StatefulModules.Module13.class,
+        StatefulModules.Module14.class,
+        StatefulModules.Module15.class,
+        StatefulModules.Module16.class,
+        StatefulModules.Module17.class,
+        StatefulModules.Module18.class,
+        StatefulModules.Module19.class,
+        StatefulModules.Module20.class
+})
+public class ModulesStatefulActivity extends Activity {
+
+    @Inject StatefulModules.Module01Value value01;
+    @Inject StatefulModules.Module02Value value02;
+    @Inject StatefulModules.Module03Value value03;
+    @Inject StatefulModules.Module04Value value04;
+    @Inject StatefulModules.Module05Value value05;
+    @Inject StatefulModules.Module06Value value06;
+    @Inject StatefulModules.Module07Value value07;
+    @Inject StatefulModules.Module08Value value08;
+    @Inject StatefulModules.Module09Value value09;
+    @Inject StatefulModules.Module10Value value10;
+    @Inject StatefulModules.Module11Value value11;
+    @Inject StatefulModules.Module12Value value12;
+    @Inject StatefulModules.Module13Value value13;
+    @Inject StatefulModules.Module14Value value14;
+    @Inject StatefulModules.Module15Value value15;
+    @Inject StatefulModules.Module16Value value16;
+    @Inject StatefulModules.Module17Value value17;
+    @Inject StatefulModules.Module18Value value18;
+    @Inject StatefulModules.Module19Value value19;
+    @Inject StatefulModules.Module20Value value20;
+
+}
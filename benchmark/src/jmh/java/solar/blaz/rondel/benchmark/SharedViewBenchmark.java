@@ -0,0 +1,75 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inject of 50 sibling views, each with its own component or all sharing one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SharedViewBenchmark {
+
+    private static final int VIEWS = 50;
+
+    private final LeafView[] leaves = new LeafView[VIEWS];
+    private final SharedLeafView[] sharedLeaves = new SharedLeafView[VIEWS];
+
+    @Setup
+    public void setUp() {
+        BenchActivity activity = new BenchActivity(new BenchApp());
+
+        RootView root = new RootView(activity);
+        root.component = RondelRootView.inject(root);
+
+        for (int i = 0; i < VIEWS; i++) {
+            leaves[i] = new LeafView(activity);
+            root.addView(leaves[i]);
+
+            sharedLeaves[i] = new SharedLeafView(activity);
+            root.addView(sharedLeaves[i]);
+        }
+    }
+
+    @Benchmark
+    public Object separate() {
+        Object component = null;
+        for (LeafView leaf : leaves) {
+            component = RondelLeafView.inject(leaf);
+        }
+        return component;
+    }
+
+    @Benchmark
+    public Object shared() {
+        for (SharedLeafView leaf : sharedLeaves) {
+            leaf.component = RondelSharedLeafView.inject(leaf);
+        }
+        return sharedLeaves[0].component;
+    }
+
+}
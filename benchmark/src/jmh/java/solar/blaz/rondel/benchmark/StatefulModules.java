@@ -0,0 +1,391 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.benchmark;
+
+import dagger.Module;
+import dagger.Provides;
+
+/**
+ * Modules that hold injected activity, generated injectors create them on every inject.
+ */
+public final class StatefulModules {
+
+    private StatefulModules() {
+        // no instances
+    }
+
+    @Module
+    public static class Module01 {
+
+        private final ModulesStatefulActivity activity;
+
+        public Module01(ModulesStatefulActivity activity) {
+            this.activity = activity;
+        }
+
+        @Provides Module01Value provideValue() {
+            return new Module01Value();
+        }
+
+    }
+
+    public static class Module01Value {
+    }
+
+    @Module
+    public static class Module02 {
+
+        private final ModulesStatefulActivity activity;
+
+        public Module02(ModulesStatefulActivity activity) {
+            this.activity = activity;
+        }
+
+        @Provides Module02Value provideValue() {
+            return new Module02Value();
+        }
+
+    }
+
+    public static class Module02Value {
+    }
+
+    @Module
+    public static class Module03 {
+
+        private final ModulesStatefulActivity activity;
+
+        public Module03(ModulesStatefulActivity activity) {
+            this.activity = activity;
+        }
+
+        @Provides Module03Value provideValue() {
+            return new Module03Value();
+        }
+
+    }
+
+    public static class Module03Value {
+    }
+
+    @Module
+    public static class Module04 {
+
+        private final ModulesStatefulActivity activity;
+
+        public Module04(ModulesStatefulActivity activity) {
+            this.activity = activity;
+        }
+
+        @Provides Module04Value provideValue() {
+            return new Module04Value();
+        }
+
+    }
+
+    public static class Module04Value {
+    }
+
+    @Module
+    public static class Module05 {
+
+        private final ModulesStatefulActivity activity;
+
+        public Module05(ModulesStatefulActivity activity) {
+            this.activity = activity;
+        }
+
+        @Provides Module05Value provideValue() {
+            return new Module05Value();
+        }
+
+    }
+
+    public static class Module05Value {
+    }
+
+    @Module
+    public static class Module06 {
+
+        private final ModulesStatefulActivity activity;
+
+        public Module06(ModulesStatefulActivity activity) {
+            this.activity = activity;
+        }
+
+        @Provides Module06Value provideValue() {
+            return new Module06Value();
+        }
+
+    }
+
+    public static class Module06Value {
+    }
+
+    @Module
+    public static class Module07 {
+
+        private final ModulesStatefulActivity activity;
+
+        public Module07(ModulesStatefulActivity activity) {
+            this.activity = activity;
+        }
+
+        @Provides Module07Value provideValue() {
+            return new Module07Value();
+        }
+
+    }
+
+    public static class Module07Value {
+    }
+
+    @Module
+    public static class Module08 {
+
+        private final ModulesStatefulActivity activity;
+
+        public Module08(ModulesStatefulActivity activity) {
+            this.activity = activity;
+        }
+
+        @Provides Module08Value provideValue() {
+            return new Module08Value();
+        }
+
+    }
+
+    public static class Module08Value {
+    }
+
+    @Module
+    public static class Module09 {
+
+        private final ModulesStatefulActivity activity;
+
+        public Module09(ModulesStatefulActivity activity) {
+            this.activity = activity;
+        }
+
+        @Provides Module09Value provideValue() {
+            return new Module09Value();
+        }
+
+    }
+
+    public static class Module09Value {
+    }
+
+    @Module
+    public static class Module10 {
+
+        private final ModulesStatefulActivity activity;
+
+        public Module10(ModulesStatefulActivity activity) {
+            this.activity = activity;
+        }
+
+        @Provides Module10Value provideValue() {
+            return new Module10Value();
+        }
+
+    }
+
+    public static class Module10Value {
+    }
+
+    @Module
+    public static class Module11 {
+
+        private final ModulesStatefulActivity activity;
+
+        public Module11(ModulesStatefulActivity activity) {
+            this.activity = activity;
+        }
+
+        @Provides Module11Value provideValue() {
+            return new Module11Value();
+        }
+
+    }
+
+    public static class Module11Value {
+    }
+
+    @Module
+    public static class Module12 {
+
+        private final ModulesStatefulActivity activity;
+
+        public Module12(ModulesStatefulActivity activity) {
+            this.activity = activity;
+        }
+
+        @Provides Module12Value provideValue() {
+            return new Module12Value();
+        }
+
+    }
+
+    public static class Module12Value {
+    }
+
+    @Module
+    public static class Module13 {
+
+        private final ModulesStatefulActivity activity;
+
+        public Module13(ModulesStatefulActivity activity) {
+            this.activity = activity;
+        }
+
+        @Provides Module13Value provideValue() {
+            return new Module13Value();
+        }
+
+    }
+
+    public static class Module13Value {
+    }
+
+    @Module
+    public static class Module14 {
+
+        private final ModulesStatefulActivity activity;
+
+        public Module14(ModulesStatefulActivity activity) {
+            this.activity = activity;
+        }
+
+        @Provides Module14Value provideValue() {
+            return new Module14Value();
+        }
+
+    }
+
+    public static class Module14Value {
+    }
+
+    @Module
+    public static class Module15 {
+
+        private final ModulesStatefulActivity activity;
+
+        public Module15(ModulesStatefulActivity activity) {
+            this.activity = activity;
+        }
+
+        @Provides Module15Value provideValue() {
+            return new Module15Value();
+        }
+
+    }
+
+    public static class Module15Value {
+    }
+
+    @Module
+    public static class Module16 {
+
+        private final ModulesStatefulActivity activity;
+
+        public Module16(ModulesStatefulActivity activity) {
+            this.activity = activity;
+        }
+
+        @Provides Module16Value provideValue() {
+            return new Module16Value();
+        }
+
+    }
+
+    public static class Module16Value {
+    }
+
+    @Module
+    public static class Module17 {
+
+        private final ModulesStatefulActivity activity;
+
+        public Module17(ModulesStatefulActivity activity) {
+            this.activity = activity;
+        }
+
+        @Provides Module17Value provideValue() {
+            return new Module17Value();
+        }
+
+    }
+
+    public static class Module17Value {
+    }
+
+    @Module
+    public static class Module18 {
+
+        private final ModulesStatefulActivity activity;
+
+        public Module18(ModulesStatefulActivity activity) {
+            this.activity = activity;
+        }
+
+        @Provides Module18Value provideValue() {
+            return new Module18Value();
+        }
+
+    }
+
+    public static class Module18Value {
+    }
+
+    @Module
+    public static class Module19 {
+
+        private final ModulesStatefulActivity activity;
+
+        public Module19(ModulesStatefulActivity activity) {
+            this.activity = activity;
+        }
+
+        @Provides Module19Value provideValue() {
+            return new Module19Value();
+        }
+
+    }
+
+    public static class Module19Value {
+    }
+
+    @Module
+    public static class Module20 {
+
+        private final ModulesStatefulActivity activity;
+
+        public Module20(ModulesStatefulActivity activity) {
+            this.activity = activity;
+        }
+
+        @Provides Module20Value provideValue() {
+            return new Module20Value();
+        }
+
+    }
+
+    public static class Module20Value {
+    }
+
+}
@@ -0,0 +1,271 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.benchmark;
+
+import dagger.Module;
+import dagger.Provides;
+
+/**
+ * Modules without state, generated injectors share one instance of each.
+ */
+public final class StatelessModules {
+
+    private StatelessModules() {
+        // no instances
+    }
+
+    @Module
+    public static class Module01 {
+
+        @Provides Module01Value provideValue() {
+            return new Module01Value();
+        }
+
+    }
+
+    public static class Module01Value {
+    }
+
+    @Module
+    public static class Module02 {
+
+        @Provides Module02Value provideValue() {
+            return new Module02Value();
+        }
+
+    }
+
+    public static class Module02Value {
+    }
+
+    @Module
+    public static class Module03 {
+
+        @Provides Module03Value provideValue() {
+            return new Module03Value();
+        }
+
+    }
+
+    public static class Module03Value {
+    }
+
+    @Module
+    public static class Module04 {
+
+        @Provides Module04Value provideValue() {
+            return new Module04Value();
+        }
+
+    }
+
+    public static class Module04Value {
+    }
+
+    @Module
+    public static class Module05 {
+
+        @Provides Module05Value provideValue() {
+            return new Module05Value();
+        }
+
+    }
+
+    public static class Module05Value {
+    }
+
+    @Module
+    public static class Module06 {
+
+        @Provides Module06Value provideValue() {
+            return new Module06Value();
+        }
+
+    }
+
+    public static class Module06Value {
+    }
+
+    @Module
+    public static class Module07 {
+
+        @Provides Module07Value provideValue() {
+            return new Module07Value();
+        }
+
+    }
+
+    public static class Module07Value {
+    }
+
+    @Module
+    public static class Module08 {
+
+        @Provides Module08Value provideValue() {
+            return new Module08Value();
+        }
+
+    }
+
+    public static class Module08Value {
+    }
+
+    @Module
+    public static class Module09 {
+
+        @Provides Module09Value provideValue() {
+            return new Module09Value();
+        }
+
+    }
+
+    public static class Module09Value {
+    }
+
+    @Module
+    public static class Module10 {
+
+        @Provides Module10Value provideValue() {
+            return new Module10Value();
+        }
+
+    }
+
+    public static class Module10Value {
+    }
+
+    @Module
+    public static class Module11 {
+
+        @Provides Module11Value provideValue() {
+            return new Module11Value();
+        }
+
+    }
+
+    public static class Module11Value {
+    }
+
+    @Module
+    public static class Module12 {
+
+        @Provides Module12Value provideValue() {
+            return new Module12Value();
+        }
+
+    }
+
+    public static class Module12Value {
+    }
+
+    @Module
+    public static class Module13 {
+
+        @Provides Module13Value provideValue() {
+            return new Module13Value();
+        }
+
+    }
+
+    public static class Module13Value {
+    }
+
+    @Module
+    public static class Module14 {
+
+        @Provides Module14Value provideValue() {
+            return new Module14Value();
+        }
+
+    }
+
+    public static class Module14Value {
+    }
+
+    @Module
+    public static class Module15 {
+
+        @Provides Module15Value provideValue() {
+            return new Module15Value();
+        }
+
+    }
+
+    public static class Module15Value {
+    }
+
+    @Module
+    public static class Module16 {
+
+        @Provides Module16Value provideValue() {
+            return new Module16Value();
+        }
+
+    }
+
+    public static class Module16Value {
+    }
+
+    @Module
+    public static class Module17 {
+
+        @Provides Module17Value provideValue() {
+            return new Module17Value();
+        }
+
+    }
+
+    public static class Module17Value {
+    }
+
+    @Module
+    public static class Module18 {
+
+        @Provides Module18Value provideValue() {
+            return new Module18Value();
+        }
+
+    }
+
+    public static class Module18Value {
+    }
+
+    @Module
+    public static class Module19 {
+
+        @Provides Module19Value provideValue() {
+            return new Module19Value();
+        }
+
+    }
+
+    public static class Module19Value {
+    }
+
+    @Module
+    public static class Module20 {
+
+        @Provides Module20Value provideValue() {
+            return new Module20Value();
+        }
+
+    }
+
+    public static class Module20Value {
+    }
+
+}
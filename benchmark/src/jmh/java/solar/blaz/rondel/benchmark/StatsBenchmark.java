@@ -0,0 +1,70 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.TimeUnit;
+
+import solar.blaz.rondel.InjectionStats;
+
+/**
+ * Cost that {@code rondel.stats} adds to every inject. {@code inject} runs generated Service injector, compare it
+ * between runs with and without {@code -Pstats}. {@code counters} updates the counters the way generated injectors do,
+ * including the sampled clock reads, {@code contended} does the same from 4 threads that share one slot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StatsBenchmark {
+
+    private final InjectionStats.Slot slot = InjectionStats.register(StatsBenchmark.class);
+
+    private BenchService service;
+
+    @Setup
+    public void setUp() {
+        service = new BenchService();
+        service.attach(new BenchApp());
+    }
+
+    @Benchmark
+    public Object inject() {
+        return RondelBenchService.inject(service);
+    }
+
+    @Benchmark
+    public void counters() {
+        slot.built();
+        slot.injected(slot.start());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void contended() {
+        slot.built();
+        slot.injected(slot.start());
+    }
+
+}
@@ -0,0 +1,68 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.benchmark;
+
+import android.view.ViewGroup;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inject of view that is {@code depth} levels below its parent view.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ViewBenchmark {
+
+    @Param({"1", "5", "10", "20", "50"})
+    public int depth;
+
+    private LeafView leaf;
+
+    @Setup
+    public void setUp() {
+        BenchActivity activity = new BenchActivity(new BenchApp());
+
+        RootView root = new RootView(activity);
+        root.component = RondelRootView.inject(root);
+
+        ViewGroup parent = root;
+        for (int i = 1; i < depth; i++) {
+            ViewGroup group = new ViewGroup(activity);
+            parent.addView(group);
+            parent = group;
+        }
+
+        leaf = new LeafView(activity);
+        parent.addView(leaf);
+    }
+
+    @Benchmark
+    public Object inject() {
+        return RondelLeafView.inject(leaf);
+    }
+
+}
@@ -0,0 +1,298 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.compiler;
+
+import com.google.common.collect.ImmutableSet;
+
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import solar.blaz.rondel.compiler.manager.Messager;
+
+/**
+ * Processor options that are passed to javac as {@code -Akey=value}.
+ */
+@Singleton
+public class Options {
+
+    /**
+     * Generates injector registry used by {@code Injector.inject(Object)}. Value is either
+     * {@code exact} or {@code superclass}.
+     */
+    public static final String REGISTRY = "rondel.registry";
+
+    /**
+     * Generated injectors report component build and inject to {@code Tracing} tracer.
+     */
+    public static final String TRACE = "rondel.trace";
+
+    /**
+     * Generated injectors register created components with {@code ComponentTracker}.
+     */
+    public static final String TRACK = "rondel.track";
+
+    /**
+     * Generated subcomponents bind injected instance themselves, so modules do not need a
+     * constructor that takes it.
+     */
+    public static final String BIND_TARGET = "rondel.bindTarget";
+
+    /**
+     * App modules that are used only by {@code @Rondel} components are moved to components that
+     * need them, so they are not created when App is injected.
+     */
+    public static final String LAZY_MODULES = "rondel.lazyModules";
+
+    /**
+     * Writes {@code rondel-graph.json} resource to App package with injection cost of every component.
+     */
+    public static final String GRAPH_REPORT = "rondel.graphReport";
+
+    /**
+     * Maximum number of components above any component. Build fails when it is exceeded.
+     */
+    public static final String MAX_DEPTH = "rondel.maxDepth";
+
+    /**
+     * Maximum number of modules of any component, including modules they include.
+     */
+    public static final String MAX_MODULES = "rondel.maxModules";
+
+    /**
+     * Maximum number of module instances created by any inject.
+     */
+    public static final String MAX_MODULES_PER_INJECT = "rondel.maxModulesPerInject";
+
+    /**
+     * Generated injectors count builds, injects and inject latency in {@code InjectionStats}.
+     */
+    public static final String STATS = "rondel.stats";
+
+    /**
+     * Generates injectors of every package into single {@code RondelInjectors} class. Value is either
+     * {@code forward}, which keeps per class injectors that forward to it, or {@code minimal}, which drops them.
+     */
+    public static final String DISPATCHER = "rondel.dispatcher";
+
+    /**
+     * Generates {@code Rondel<App>Preload} with names of generated and Dagger classes that can be
+     * loaded on background thread with {@code ClassPreloader}.
+     */
+    public static final String PRELOAD = "rondel.preload";
+
+    /**
+     * Generates {@code Rondel<App>WarmUp} that creates {@code @Singleton} bindings of App modules
+     * on an executor.
+     */
+    public static final String WARM_UP = "rondel.warmUp";
+
+    /**
+     * Path of startup profile written by {@code TraceRecorder.writeProfileTo(Writer)}. Only components
+     * listed in it are preloaded, in the order they were built.
+     */
+    public static final String STARTUP_PROFILE = "rondel.startupProfile";
+
+    public static final Set<String> SUPPORTED = ImmutableSet.of(REGISTRY, TRACE, TRACK, BIND_TARGET, LAZY_MODULES,
+            GRAPH_REPORT, MAX_DEPTH, MAX_MODULES, MAX_MODULES_PER_INJECT, STATS, DISPATCHER, PRELOAD, WARM_UP,
+            STARTUP_PROFILE);
+
+    /**
+     * Value of limit options that are not set.
+     */
+    public static final int NO_LIMIT = -1;
+
+    public enum RegistryMode {
+        NONE, EXACT, SUPERCLASS
+    }
+
+    public enum DispatcherMode {
+        NONE, FORWARD, MINIMAL
+    }
+
+    private final Messager messager;
+
+    private final RegistryMode registryMode;
+    private final boolean trace;
+    private final boolean track;
+    private final boolean bindTarget;
+    private final boolean lazyModules;
+    private final boolean graphReport;
+    private final int maxDepth;
+    private final int maxModules;
+    private final int maxModulesPerInject;
+    private final boolean stats;
+    private final DispatcherMode dispatcherMode;
+    private final boolean preload;
+    private final boolean warmUp;
+    private final String startupProfile;
+
+    @Inject
+    public Options(ProcessingEnvironment environment, Messager messager) {
+        this.messager = messager;
+
+        Map<String, String> options = environment.getOptions();
+        registryMode = parseRegistryMode(options.get(REGISTRY));
+        trace = Boolean.parseBoolean(options.get(TRACE));
+        track = Boolean.parseBoolean(options.get(TRACK));
+        bindTarget = Boolean.parseBoolean(options.get(BIND_TARGET));
+        lazyModules = Boolean.parseBoolean(options.get(LAZY_MODULES));
+        graphReport = Boolean.parseBoolean(options.get(GRAPH_REPORT));
+        maxDepth = parseLimit(MAX_DEPTH, options.get(MAX_DEPTH));
+        maxModules = parseLimit(MAX_MODULES, options.get(MAX_MODULES));
+        maxModulesPerInject = parseLimit(MAX_MODULES_PER_INJECT, options.get(MAX_MODULES_PER_INJECT));
+        stats = Boolean.parseBoolean(options.get(STATS));
+        dispatcherMode = parseDispatcherMode(options.get(DISPATCHER));
+        preload = Boolean.parseBoolean(options.get(PRELOAD));
+        warmUp = Boolean.parseBoolean(options.get(WARM_UP));
+        startupProfile = parseStartupProfile(options.get(STARTUP_PROFILE));
+
+        if (startupProfile != null && !preload) {
+            messager.warning(STARTUP_PROFILE + " is used only with " + PRELOAD + ".");
+        }
+    }
+
+    public RegistryMode getRegistryMode() {
+        return registryMode;
+    }
+
+    public boolean isRegistryEnabled() {
+        return registryMode != RegistryMode.NONE;
+    }
+
+    public boolean isTraceEnabled() {
+        return trace;
+    }
+
+    public boolean isTrackEnabled() {
+        return track;
+    }
+
+    public boolean isBindTargetEnabled() {
+        return bindTarget;
+    }
+
+    public boolean isLazyModulesEnabled() {
+        return lazyModules;
+    }
+
+    public boolean isGraphReportEnabled() {
+        return graphReport;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public int getMaxModules() {
+        return maxModules;
+    }
+
+    public int getMaxModulesPerInject() {
+        return maxModulesPerInject;
+    }
+
+    public boolean isStatsEnabled() {
+        return stats;
+    }
+
+    public DispatcherMode getDispatcherMode() {
+        return dispatcherMode;
+    }
+
+    public boolean isDispatcherEnabled() {
+        return dispatcherMode != DispatcherMode.NONE;
+    }
+
+    public boolean isPreloadEnabled() {
+        return preload;
+    }
+
+    public boolean isWarmUpEnabled() {
+        return warmUp;
+    }
+
+    /**
+     * Path of startup profile or {@code null} when it is not set.
+     */
+    public String getStartupProfile() {
+        return startupProfile;
+    }
+
+    private int parseLimit(String key, String value) {
+        if (value == null) {
+            return NO_LIMIT;
+        }
+
+        try {
+            int limit = Integer.parseInt(value);
+            if (limit >= 0) {
+                return limit;
+            }
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+
+        messager.error("Invalid " + key + " value \"" + value + "\". Use number that is 0 or more.");
+        return NO_LIMIT;
+    }
+
+    /**
+     * Relative path would resolve against working directory of the compiler, which is Gradle daemon
+     * directory and not the project, so only absolute paths are accepted.
+     */
+    private String parseStartupProfile(String value) {
+        if (value == null || Paths.get(value).isAbsolute()) {
+            return value;
+        }
+
+        messager.error("Invalid " + STARTUP_PROFILE + " value \"" + value + "\". Use absolute path, for example "
+                + "file('startup-profile.txt').absolutePath in Gradle.");
+        return null;
+    }
+
+    private RegistryMode parseRegistryMode(String value) {
+        if (value == null) {
+            return RegistryMode.NONE;
+        } else if ("exact".equals(value)) {
+            return RegistryMode.EXACT;
+        } else if ("superclass".equals(value)) {
+            return RegistryMode.SUPERCLASS;
+        } else {
+            messager.error("Unknown " + REGISTRY + " value \"" + value + "\". Use exact or superclass.");
+            return RegistryMode.NONE;
+        }
+    }
+
+    private DispatcherMode parseDispatcherMode(String value) {
+        if (value == null) {
+            return DispatcherMode.NONE;
+        } else if ("forward".equals(value)) {
+            return DispatcherMode.FORWARD;
+        } else if ("minimal".equals(value)) {
+            return DispatcherMode.MINIMAL;
+        } else {
+            messager.error("Unknown " + DISPATCHER + " value \"" + value + "\". Use forward or minimal.");
+            return DispatcherMode.NONE;
+        }
+    }
+
+}
@@ -35,9 +35,15 @@ import javax.lang.model.util.Types;
 
 import solar.blaz.rondel.App;
 import solar.blaz.rondel.Rondel;
+import solar.blaz.rondel.compiler.manager.DispatcherManager;
+import solar.blaz.rondel.compiler.manager.GraphReportManager;
+import solar.blaz.rondel.compiler.manager.LazyModuleManager;
 import solar.blaz.rondel.compiler.manager.Messager;
+import solar.blaz.rondel.compiler.manager.PreloadManager;
+import solar.blaz.rondel.compiler.manager.RegistryManager;
 import solar.blaz.rondel.compiler.manager.SingletonInjectorManager;
 import solar.blaz.rondel.compiler.manager.ViewInjectorManager;
+import solar.blaz.rondel.compiler.manager.WarmUpManager;
 import solar.blaz.rondel.compiler.model.ComponentModel;
 
 /**
@@ -47,6 +53,12 @@ public class RondelProcessor extends AbstractProcessor {
 
     @Inject SingletonInjectorManager singletonInjectorManager;
     @Inject ViewInjectorManager viewInjectorManager;
+    @Inject RegistryManager registryManager;
+    @Inject DispatcherManager dispatcherManager;
+    @Inject LazyModuleManager lazyModuleManager;
+    @Inject GraphReportManager graphReportManager;
+    @Inject PreloadManager preloadManager;
+    @Inject WarmUpManager warmUpManager;
     @Inject Messager messager;
     @Inject Types typesUtil;
 
@@ -87,6 +99,8 @@ public class RondelProcessor extends AbstractProcessor {
 
             }
 
+            viewInjectorManager.parseSubclasses(env, componentModels);
+
             for (ComponentModel componentModel : componentModels) {
                 if (componentModel.parent == null || typesUtil.isSubtype(componentModel.parent, appComponent.element.asType())) {
                     components.put(appComponent, componentModel);
@@ -99,10 +113,18 @@ public class RondelProcessor extends AbstractProcessor {
                 }
             }
 
+            lazyModuleManager.relocate(appComponent, components);
+
             try {
 
+                graphReportManager.write(appComponent, components);
+
                 List<ComponentModel> children = generateFiles(appComponent);
                 singletonInjectorManager.write(children);
+                dispatcherManager.write();
+                registryManager.write(appComponent, componentModels);
+                preloadManager.write(appComponent, components);
+                warmUpManager.write(appComponent);
 
             } catch (IOException e) {
                 messager.warning("Failed to write files.");
@@ -118,6 +140,11 @@ public class RondelProcessor extends AbstractProcessor {
         return SourceVersion.latest();
     }
 
+    @Override
+    public Set<String> getSupportedOptions() {
+        return Options.SUPPORTED;
+    }
+
     @Override
     public Set<String> getSupportedAnnotationTypes() {
         return ImmutableSet.of(Rondel.class.getName(), App.class.getName());
@@ -17,6 +17,7 @@
 package solar.blaz.rondel.compiler.manager;
 
 import com.google.auto.common.MoreElements;
+import com.google.common.base.CaseFormat;
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.collect.FluentIterable;
@@ -29,11 +30,17 @@ import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 
+import java.io.Closeable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import javax.annotation.Generated;
+import javax.inject.Inject;
+import javax.inject.Scope;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.AnnotationValue;
 import javax.lang.model.element.AnnotationValueVisitor;
@@ -43,14 +50,31 @@ import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
 import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.SimpleAnnotationValueVisitor6;
 import javax.lang.model.util.Types;
 
 import dagger.Module;
+import dagger.Provides;
+import solar.blaz.rondel.ActivityScope;
 import solar.blaz.rondel.ComponentProvider;
+import solar.blaz.rondel.ComponentTracker;
+import solar.blaz.rondel.FragmentScope;
+import solar.blaz.rondel.InjectionStats;
+import solar.blaz.rondel.InjectionTracer;
+import solar.blaz.rondel.ModuleOverrides;
+import solar.blaz.rondel.ScopeDisposer;
+import solar.blaz.rondel.ServiceScope;
+import solar.blaz.rondel.Tracing;
+import solar.blaz.rondel.ViewScope;
+import solar.blaz.rondel.compiler.Options;
 import solar.blaz.rondel.compiler.model.ComponentModel;
+import solar.blaz.rondel.compiler.model.ProcessModel;
+import solar.blaz.rondel.compiler.model.InjectorModel;
 
 import static com.google.auto.common.AnnotationMirrors.getAnnotationValue;
 
@@ -59,9 +83,12 @@ import static com.google.auto.common.AnnotationMirrors.getAnnotationValue;
  */
 public abstract class AbstractInjectorManager {
 
+    private static final String STATS_FIELD = "STATS";
+
     private final Messager messager;
     private final Elements elementUtils;
     private final Types typesUtil;
+    private final Options options;
 
     private final TypeElement appElement;
     private final TypeElement activityElement;
@@ -70,11 +97,13 @@ public abstract class AbstractInjectorManager {
     private final TypeElement supportFragmentElement;
     private final TypeElement viewElement;
     private final TypeElement voidElement;
+    private final TypeElement closeableElement;
 
-    protected AbstractInjectorManager(Messager messager, Elements elementUtils, Types typesUtil) {
+    protected AbstractInjectorManager(Messager messager, Elements elementUtils, Types typesUtil, Options options) {
         this.messager = messager;
         this.elementUtils = elementUtils;
         this.typesUtil = typesUtil;
+        this.options = options;
 
         appElement = elementUtils.getTypeElement("android.app.Application");
         activityElement = elementUtils.getTypeElement("android.app.Activity");
@@ -83,6 +112,7 @@ public abstract class AbstractInjectorManager {
         supportFragmentElement = elementUtils.getTypeElement("android.support.v4.app.Fragment");
         viewElement = elementUtils.getTypeElement("android.view.View");
         voidElement = elementUtils.getTypeElement(Void.class.getCanonicalName());
+        closeableElement = elementUtils.getTypeElement(Closeable.class.getCanonicalName());
     }
 
     protected TypeElement[] parseViewComponent(ImmutableList<TypeMirror> components) {
@@ -212,113 +242,346 @@ public abstract class AbstractInjectorManager {
         return null;
     }
 
-    protected void addTestSpecs(TypeElement[] moduleElements, TypeSpec.Builder injector, TypeMirror injectedInstance) {
+    protected void addTestSpecs(TypeElement[] moduleElements, TypeSpec.Builder injector, ClassName injectorName,
+            TypeMirror injectedInstance, String packageName) {
 
-        if (moduleElements != null && moduleElements.length > 0) {
-            for (TypeElement module : moduleElements) {
+        for (TypeElement module : getModules(moduleElements)) {
+
+            if (isAbstractModule(module)) {
+                continue; // no instance is ever created
+            }
 
-                if (isAbstractModule(module)) {
-                    messager.warning(module.getSimpleName() + " is abstract. No instance can be created.");
-                    continue;
+            List<ExecutableElement> disposableMethods = getDisposableMethods(module, packageName, true);
+            boolean disposable = !disposableMethods.isEmpty();
+
+            TypeName moduleName = TypeName.get(module.asType());
+            String moduleNameStringUpper = getModuleMemberName(module, packageName);
+
+            ExecutableElement modelConstructor = getConstructor(module, injectedInstance);
+
+            if (modelConstructor != null) {
+
+                // overrides are looked up only when some test has set them
+                CodeBlock.Builder modelMethod = CodeBlock.builder()
+                        .beginControlFlow("if ($T.isActive())", ModuleOverrides.class)
+                        .addStatement("$T override = $T.get($L, $T.class)", moduleName, ModuleOverrides.class,
+                                getApplicationExpression(injectedInstance), moduleName)
+                        .beginControlFlow("if (override != null)")
+                        .addStatement("return override")
+                        .endControlFlow()
+                        .endControlFlow();
+
+                String sharedName = null;
+
+                int paramCnt = modelConstructor.getParameters().size();
+                if (disposable) {
+                    ClassName disposingName = injectorName.nestedClass("Disposing" + moduleNameStringUpper);
+                    modelMethod.addStatement(paramCnt == 1 ? "return new $T(disposer, injectie)" : "return new $T(disposer)",
+                            disposingName);
+                    injector.addType(getDisposingModule(disposingName, module, modelConstructor, disposableMethods));
+                } else if (paramCnt == 1) {
+                    modelMethod.addStatement("return new $T(injectie)", moduleName);
+                } else if (paramCnt == 0 && isStateless(module)) {
+                    // module has no state, so one instance can be used for all injections
+                    sharedName = CaseFormat.UPPER_CAMEL.to(CaseFormat.UPPER_UNDERSCORE, moduleNameStringUpper);
+                    modelMethod.addStatement("return $L", sharedName);
+                } else if (paramCnt == 0) {
+                    modelMethod.addStatement("return new $T()", moduleName);
+                } else {
+                    messager.error("Could not find constructor parameters.");
                 }
 
-                TypeName moduleName = TypeName.get(module.asType());
-                String moduleNameStringUpper = module.getSimpleName().toString();
-                String moduleNameStringLower = moduleNameStringUpper.substring(0, 1).toLowerCase()
-                        + moduleNameStringUpper.substring(1);
+                if (sharedName != null) {
+                    injector.addField(FieldSpec.builder(moduleName, sharedName)
+                            .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                            .initializer("new $T()", moduleName)
+                            .build());
+                }
 
-                ExecutableElement modelConstructor = getConstructor(module, injectedInstance);
+                MethodSpec.Builder getter = MethodSpec.methodBuilder("get" + moduleNameStringUpper)
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                        .addParameter(TypeName.get(injectedInstance), "injectie");
 
-                if (modelConstructor != null) {
+                if (disposable) {
+                    getter.addParameter(ScopeDisposer.class, "disposer");
+                }
 
-                    CodeBlock.Builder modelMethod = CodeBlock.builder()
-                            .add("if ($L != null) {", moduleNameStringLower)
-                            .add("return $L;", moduleNameStringLower)
-                            .add("} else {");
+                injector.addMethod(getter
+                        .returns(moduleName)
+                        .addCode(modelMethod.build())
+                        .build());
+            } else {
+                messager.error("No valid constructor for module.");
+            }
 
+        }
 
-                    int paramCnt = modelConstructor.getParameters().size();
-                    if (paramCnt == 1) {
-                        modelMethod.add("return new $T(injectie);", moduleName);
-                    } else if (paramCnt == 0) {
-                        modelMethod.add("return new $T();", moduleName);
-                    } else {
-                        messager.error("Could not find constructor parameters.");
-                    }
+    }
 
-                    modelMethod.add("}");
-
-                    injector
-                            .addField(FieldSpec.builder(moduleName, moduleNameStringLower)
-                                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
-                                    .build())
-                            .addMethod(MethodSpec.methodBuilder("set" + moduleNameStringUpper)
-                                    .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
-                                    .addParameter(moduleName, "module")
-                                    .addCode("$L = module;", moduleNameStringLower)
-                                    .build())
-                            .addMethod(MethodSpec.methodBuilder("get" + moduleNameStringUpper)
-                                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
-                                    .addParameter(TypeName.get(injectedInstance), "injectie")
-                                    .returns(moduleName)
-                                    .addCode(modelMethod.build())
-                                    .build())
-                            .build();
-                } else {
-                    messager.error("No valid constructor for module.");
-                }
+    protected String formatBuilderModule(TypeElement[] moduleElements, List<Object> formatParams, String packageName) {
 
-                Optional<AnnotationMirror> annotationMirror = MoreElements.getAnnotationMirror(module, Module.class);
-                if (annotationMirror.isPresent()) {
-                    ImmutableList<TypeMirror> modules = convertClassArrayToListOfTypes(annotationMirror.get(), "includes");
-                    TypeElement[] nestedModuleelements = parseModuleElements(modules);
-                    addTestSpecs(nestedModuleelements, injector, injectedInstance);
-                }
+        StringBuilder builder = new StringBuilder();
+
+        formatBuilderModule(moduleElements, builder, formatParams, packageName);
+
+        return builder.toString();
+
+    }
+
+    private void formatBuilderModule(TypeElement[] moduleElements, StringBuilder builder, List<Object> formatParams,
+            String packageName) {
 
+        for (TypeElement module : getModules(moduleElements)) {
+
+            if (isAbstractModule(module)) {
+                continue; // Dagger never needs an instance
             }
+
+            String moduleMethodName = module.getSimpleName().toString();
+            String moduleMethodNameLower = Character.toLowerCase(moduleMethodName.charAt(0)) + moduleMethodName.substring(1);
+
+            if (getDisposableMethods(module, packageName, false).isEmpty()) {
+                builder.append("        .$L(get$L(injectie))\n");
+            } else {
+                builder.append("        .$L(get$L(injectie, disposer))\n");
+            }
+            formatParams.add(moduleMethodNameLower);
+            formatParams.add(getModuleMemberName(module, packageName));
         }
 
     }
 
-    protected String formatBuilderModule(TypeElement[] moduleElements, List<Object> formatParams) {
+    /**
+     * Name used for injector members generated for the module. Modules from other packages are
+     * prefixed with their package and nested modules with their enclosing classes, so modules with
+     * the same simple name don't collide when injectors of the package are merged.
+     */
+    private String getModuleMemberName(TypeElement module, String packageName) {
 
-        StringBuilder builder = new StringBuilder();
+        ClassName moduleName = ClassName.get(module);
+
+        StringBuilder name = new StringBuilder();
+        if (!moduleName.packageName().equals(packageName)) {
+            for (String part : moduleName.packageName().split("\\.")) {
+                if (!part.isEmpty()) {
+                    name.append(Character.toUpperCase(part.charAt(0))).append(part.substring(1));
+                }
+            }
+        }
+        for (String simpleName : moduleName.simpleNames()) {
+            name.append(simpleName);
+        }
+        return name.toString();
 
-        formatBuilderModule(moduleElements, builder, formatParams);
+    }
 
-        return builder.toString();
+    /**
+     * Returns modules together with all modules they include. Every module is listed once, before
+     * the modules it includes.
+     */
+    protected List<TypeElement> getModules(TypeElement[] moduleElements) {
+
+        Set<TypeElement> modules = new LinkedHashSet<>();
+        collectModules(moduleElements, modules);
+        return new ArrayList<>(modules);
 
     }
 
-    private void formatBuilderModule(TypeElement[] moduleElements, StringBuilder builder, List<Object> formatParams) {
+    private void collectModules(TypeElement[] moduleElements, Set<TypeElement> modules) {
 
         if (moduleElements != null && moduleElements.length > 0) {
             for (TypeElement module : moduleElements) {
+                if (module != null && modules.add(module)) {
+                    Optional<AnnotationMirror> annotationMirror = MoreElements.getAnnotationMirror(module, Module.class);
+                    if (annotationMirror.isPresent()) {
+                        ImmutableList<TypeMirror> includes = convertClassArrayToListOfTypes(annotationMirror.get(), "includes");
+                        collectModules(parseModuleElements(includes), modules);
+                    }
+                }
+            }
+        }
+
+    }
+
+    /**
+     * Returns true if any of the modules provides scoped {@link java.io.Closeable} instances, which
+     * have to be registered with {@link ScopeDisposer}.
+     */
+    protected boolean hasDisposables(TypeElement[] moduleElements, String packageName) {
+
+        for (TypeElement module : getModules(moduleElements)) {
+            if (!isAbstractModule(module) && !getDisposableMethods(module, packageName, false).isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+
+    }
 
-                if (isAbstractModule(module)) {
-                    messager.warning(module.getSimpleName() + " is abstract. No instance can be created.");
-                    continue;
+    /**
+     * Number of module instances generated injector creates on every inject. Abstract modules and
+     * shared instances of stateless modules are not counted.
+     */
+    protected int getCreatedModuleCount(TypeElement[] moduleElements, TypeMirror injectedInstance, String packageName) {
+
+        int count = 0;
+        for (TypeElement module : getModules(moduleElements)) {
+            if (isAbstractModule(module)) {
+                continue;
+            }
+
+            ExecutableElement constructor = getConstructor(module, injectedInstance);
+            if (constructor == null) {
+                continue; // reported when injector is written
+            }
+
+            if (!getDisposableMethods(module, packageName, false).isEmpty()
+                    || !constructor.getParameters().isEmpty()
+                    || !isStateless(module)) {
+                count++;
+            }
+        }
+        return count;
+
+    }
+
+    /**
+     * Scoped {@code @Provides} methods that return {@link java.io.Closeable} and can be overridden by
+     * injector in {@code packageName}.
+     */
+    private List<ExecutableElement> getDisposableMethods(TypeElement module, String packageName, boolean report) {
+
+        List<ExecutableElement> methods = new ArrayList<>();
+        if (isAbstractModule(module)) {
+            return methods;
+        }
+
+        boolean samePackage = elementUtils.getPackageOf(module).getQualifiedName().contentEquals(packageName);
+
+        for (ExecutableElement method : ElementFilter.methodsIn(module.getEnclosedElements())) {
+
+            if (method.getAnnotation(Provides.class) == null || !isScoped(method)
+                    || !typesUtil.isAssignable(method.getReturnType(), closeableElement.asType())) {
+                continue;
+            }
+
+            Set<Modifier> modifiers = method.getModifiers();
+            if (modifiers.contains(Modifier.STATIC)) {
+                continue; // static methods are called directly on module class
+            }
+
+            boolean visible = modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.PROTECTED) || samePackage;
+            if (module.getModifiers().contains(Modifier.FINAL) || modifiers.contains(Modifier.FINAL)
+                    || modifiers.contains(Modifier.PRIVATE) || !visible || !method.getTypeParameters().isEmpty()) {
+                if (report) {
+                    messager.warning(module.getSimpleName() + "." + method.getSimpleName()
+                            + " can not be overridden. Instances it provides will not be released.");
                 }
+                continue;
+            }
 
-                String moduleMethodName = module.getSimpleName().toString();
-                String moduleMethodNameLower = Character.toLowerCase(moduleMethodName.charAt(0)) + moduleMethodName.substring(1);
+            methods.add(method);
+        }
+        return methods;
 
-                builder.append("        .$L(get$L(injectie))\n");
-                formatParams.add(moduleMethodNameLower);
-                formatParams.add(moduleMethodName);
-
-                Optional<AnnotationMirror> annotationMirror = MoreElements.getAnnotationMirror(module, Module.class);
-                if (annotationMirror.isPresent()) {
-                    ImmutableList<TypeMirror> modules = convertClassArrayToListOfTypes(annotationMirror.get(), "includes");
-                    TypeElement[] nestedModuleelements = parseModuleElements(modules);
-                    formatBuilderModule(nestedModuleelements, builder, formatParams);
+    }
+
+    private boolean isScoped(Element element) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (annotation.getAnnotationType().asElement().getAnnotation(Scope.class) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Module subclass that registers instances provided by scoped methods with component disposer.
+     */
+    private TypeSpec getDisposingModule(ClassName name, TypeElement module, ExecutableElement constructor,
+            List<ExecutableElement> methods) {
+
+        MethodSpec.Builder disposingConstructor = MethodSpec.constructorBuilder()
+                .addParameter(ScopeDisposer.class, "disposer");
+
+        if (constructor.getParameters().size() == 1) {
+            disposingConstructor.addParameter(TypeName.get(constructor.getParameters().get(0).asType()), "injectie")
+                    .addStatement("super(injectie)");
+        }
+
+        TypeSpec.Builder builder = TypeSpec.classBuilder(name.simpleName())
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .superclass(TypeName.get(module.asType()))
+                .addField(ScopeDisposer.class, "disposer", Modifier.PRIVATE, Modifier.FINAL)
+                .addMethod(disposingConstructor
+                        .addStatement("this.disposer = disposer")
+                        .build());
+
+        for (ExecutableElement method : methods) {
+
+            // MethodSpec.overriding would also copy @Provides, which Dagger rejects outside of modules
+            MethodSpec.Builder override = MethodSpec.methodBuilder(method.getSimpleName().toString())
+                    .addAnnotation(Override.class)
+                    .returns(TypeName.get(method.getReturnType()));
+
+            for (Modifier modifier : method.getModifiers()) {
+                if (modifier == Modifier.PUBLIC || modifier == Modifier.PROTECTED) {
+                    override.addModifiers(modifier);
                 }
             }
+
+            List<String> arguments = new ArrayList<>();
+            for (VariableElement parameter : method.getParameters()) {
+                String parameterName = parameter.getSimpleName().toString();
+                override.addParameter(TypeName.get(parameter.asType()), parameterName);
+                arguments.add(parameterName);
+            }
+
+            for (TypeMirror thrown : method.getThrownTypes()) {
+                override.addException(TypeName.get(thrown));
+            }
+
+            builder.addMethod(override
+                    .addStatement("return disposer.add(super.$L($L))", method.getSimpleName(), String.join(", ", arguments))
+                    .build());
+
         }
 
+        return builder.build();
+
     }
 
-    private boolean isAbstractModule(TypeElement module) {
+    /**
+     * Module is stateless when neither it nor any of its super classes declares instance fields.
+     */
+    protected boolean isStateless(TypeElement module) {
+
+        TypeElement type = module;
+        while (type != null && !Object.class.getName().equals(type.getQualifiedName().toString())) {
+            for (Element enclosedElement : type.getEnclosedElements()) {
+                if (enclosedElement.getKind() == ElementKind.FIELD
+                        && !enclosedElement.getModifiers().contains(Modifier.STATIC)) {
+                    return false;
+                }
+            }
+
+            TypeMirror superclass = type.getSuperclass();
+            if (superclass.getKind() == TypeKind.DECLARED) {
+                type = (TypeElement) ((DeclaredType) superclass).asElement();
+            } else {
+                type = null;
+            }
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Abstract and interface modules only declare static or {@code @Binds} bindings, so they are
+     * never instantiated.
+     */
+    protected boolean isAbstractModule(TypeElement module) {
         return module.getKind() == ElementKind.INTERFACE || module.getModifiers().contains(Modifier.ABSTRACT);
     }
 
@@ -335,11 +598,194 @@ public abstract class AbstractInjectorManager {
         return TO_LIST_OF_TYPES.visit(getAnnotationValue(annotationMirror, elementName), elementName);
     }
 
+    protected boolean convertToBoolean(AnnotationMirror annotationMirror, String elementName) {
+        return (Boolean) getAnnotationValue(annotationMirror, elementName).getValue();
+    }
+
+    protected int convertToInt(AnnotationMirror annotationMirror, String elementName) {
+        return (Integer) getAnnotationValue(annotationMirror, elementName).getValue();
+    }
+
     protected TypeMirror convertClassToType(
             AnnotationMirror annotationMirror, String elementName) {
         return TO_TYPE.visit(getAnnotationValue(annotationMirror, elementName));
     }
 
+    /**
+     * Adds statements that follow component build. Build logic has to assign {@code component}
+     * variable. Trace and tracking calls are only added when enabled with processor options.
+     * Component of shared view is usually taken from cache, so its build is traced, counted and
+     * tracked by {@link #getSharedBuild} instead.
+     */
+    protected void addInjectStatements(MethodSpec.Builder method, CodeBlock buildLogic, TypeMirror target, TypeName scope,
+            boolean disposable, boolean shared) {
+
+        boolean trace = options.isTraceEnabled();
+        boolean stats = options.isStatsEnabled();
+        TypeName targetName = TypeName.get(typesUtil.erasure(target));
+
+        if (stats) {
+            method.addStatement("long start = $L.start()", getMemberName(target, STATS_FIELD));
+        }
+
+        if (trace) {
+            method.addStatement("$T tracer = $T.getTracer()", InjectionTracer.class, Tracing.class);
+            if (!shared) {
+                method.addStatement("tracer.beginBuild($T.class, $T.class)", targetName, scope);
+            }
+        }
+
+        if (disposable) {
+            method.addStatement("$T disposer = new $T()", ScopeDisposer.class, ScopeDisposer.class);
+        }
+
+        method.addCode(buildLogic);
+
+        if (disposable) {
+            method.addStatement("$T.register(component, disposer)", ScopeDisposer.class);
+        }
+
+        if (stats && !shared) {
+            method.addStatement("$L.built()", getMemberName(target, STATS_FIELD));
+        }
+
+        if (trace) {
+            if (!shared) {
+                method.addStatement("tracer.endBuild($T.class, $T.class)", targetName, scope);
+            }
+            method.addStatement("tracer.beginInject($T.class, $T.class)", targetName, scope);
+        }
+
+        method.addStatement("component.inject(injectie)");
+
+        if (trace) {
+            method.addStatement("tracer.endInject($T.class, $T.class)", targetName, scope);
+        }
+
+        if (options.isTrackEnabled() && !shared) {
+            method.addStatement("$T.track(component, injectie, $T.class)", ComponentTracker.class, scope);
+        }
+
+        if (stats) {
+            method.addStatement("$L.injected(start)", getMemberName(target, STATS_FIELD));
+        }
+
+        method.addStatement("return component");
+
+    }
+
+    /**
+     * Build of shared component with the trace, stats and tracking calls that
+     * {@link #addInjectStatements} leaves out for it. Component is tracked against {@code owner},
+     * it should not outlive the parent component it is cached for.
+     */
+    protected CodeBlock getSharedBuild(CodeBlock componentBuilder, TypeMirror target, TypeName scope, String owner) {
+
+        boolean trace = options.isTraceEnabled();
+        TypeName targetName = TypeName.get(typesUtil.erasure(target));
+        CodeBlock.Builder build = CodeBlock.builder();
+
+        if (trace) {
+            build.addStatement("$T tracer = $T.getTracer()", InjectionTracer.class, Tracing.class)
+                    .addStatement("tracer.beginBuild($T.class, $T.class)", targetName, scope);
+        }
+
+        build.add("component = $L;\n", componentBuilder);
+
+        if (options.isStatsEnabled()) {
+            build.addStatement("$L.built()", getMemberName(target, STATS_FIELD));
+        }
+
+        if (trace) {
+            build.addStatement("tracer.endBuild($T.class, $T.class)", targetName, scope);
+        }
+
+        if (options.isTrackEnabled()) {
+            build.addStatement("$T.track(component, $L, $T.class)", ComponentTracker.class, owner, scope);
+        }
+
+        return build.build();
+
+    }
+
+    /**
+     * Adds counters slot used by {@link #addInjectStatements} when {@code rondel.stats} is enabled.
+     */
+    protected void addStatsField(TypeSpec.Builder injector, TypeMirror target) {
+        if (options.isStatsEnabled()) {
+            injector.addField(FieldSpec.builder(InjectionStats.Slot.class, getMemberName(target, STATS_FIELD))
+                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("$T.register($T.class)", InjectionStats.class, TypeName.get(typesUtil.erasure(target)))
+                    .build());
+        }
+    }
+
+    /**
+     * Name of injector member that is specific to {@code target}. Injectors share one class when
+     * {@code rondel.dispatcher} is enabled, so such members are prefixed with target name.
+     */
+    protected String getMemberName(TypeMirror target, String name) {
+        if (!options.isDispatcherEnabled()) {
+            return name;
+        }
+
+        String targetName = typesUtil.asElement(target).getSimpleName().toString();
+        if (name.equals(name.toUpperCase())) {
+            return CaseFormat.UPPER_CAMEL.to(CaseFormat.UPPER_UNDERSCORE, targetName) + "_" + name;
+        } else {
+            return CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_CAMEL, targetName)
+                    + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        }
+    }
+
+    /**
+     * Class that has {@code inject} method of {@code model}.
+     */
+    protected ClassName getInjectorName(InjectorModel model) {
+        if (options.isDispatcherEnabled()) {
+            return DispatcherManager.getDispatcherName(model.packageName);
+        } else {
+            return ClassName.get(model.packageName, model.name);
+        }
+    }
+
+    /**
+     * Whether {@code type} itself declares {@code @Inject} fields or methods. Dagger writes members
+     * injector for such types.
+     */
+    protected boolean hasInjectMembers(TypeElement type) {
+        for (Element member : type.getEnclosedElements()) {
+            if (member.getAnnotation(Inject.class) != null && !member.getModifiers().contains(Modifier.STATIC)
+                    && member.getKind() != ElementKind.CONSTRUCTOR) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Component that {@code child} gets from {@code parent}. App children that are injected in a
+     * process declared with {@code @App.Process} use component of that process.
+     */
+    protected ClassName getParentComponentName(ComponentModel parent, Element child) {
+        if (parent.processes != null) {
+            for (ProcessModel process : parent.processes) {
+                if (Arrays.asList(process.children).contains(child)) {
+                    return ClassName.get(parent.packageName, process.name);
+                }
+            }
+        }
+        return ClassName.get(parent.packageName, parent.name);
+    }
+
+    protected MethodSpec getReleaseMethod(ClassName component) {
+        return MethodSpec.methodBuilder("release")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .addParameter(component, "component")
+                .addStatement("$T.release(component)", ScopeDisposer.class)
+                .build();
+    }
+
     protected List<MethodSpec> getChildMethodBuilders(List<ComponentModel> children) {
 
         if (children != null && children.size() > 0) {
@@ -373,6 +819,50 @@ public abstract class AbstractInjectorManager {
                 .build();
     }
 
+    protected ClassName getScope(ComponentModel model) {
+
+        if (model.scope == null) {
+
+            TypeMirror elementType = model.element.asType();
+            boolean isActivity = isActivity(elementType);
+            boolean isService = isService(elementType);
+            boolean isFragment = isFragment(elementType);
+            boolean isView = isView(elementType);
+
+            if (isActivity) {
+                return ClassName.get(ActivityScope.class);
+            } else if (isService) {
+                return ClassName.get(ServiceScope.class);
+            } else if (isFragment) {
+                return ClassName.get(FragmentScope.class);
+            } else if (isView) {
+                return ClassName.get(ViewScope.class);
+            } else {
+                messager.error("Scope for type could not be found");
+                return null;
+            }
+
+        } else {
+            return ClassName.get(model.scope);
+        }
+
+    }
+
+    /**
+     * Expression that returns App instance from {@code injectie}, overrides are kept per App.
+     */
+    private String getApplicationExpression(TypeMirror injectedInstance) {
+        if (isFragment(injectedInstance)) {
+            return "injectie.getActivity().getApplicationContext()";
+        } else if (isView(injectedInstance)) {
+            return "injectie.getContext().getApplicationContext()";
+        } else if (isActivity(injectedInstance) || isService(injectedInstance)) {
+            return "injectie.getApplicationContext()";
+        } else {
+            return "injectie"; // @App
+        }
+    }
+
     protected boolean isApplication(TypeMirror childType) {
         return typesUtil.isSubtype(childType, appElement.asType());
     }
@@ -390,6 +880,10 @@ public abstract class AbstractInjectorManager {
                 || (supportFragmentElement != null && typesUtil.isSubtype(childType, supportFragmentElement.asType()));
     }
 
+    protected boolean isSupportFragment(TypeMirror childType) {
+        return supportFragmentElement != null && typesUtil.isSubtype(childType, supportFragmentElement.asType());
+    }
+
     protected boolean isView(TypeMirror childType) {
         return typesUtil.isSubtype(childType, viewElement.asType());
     }
@@ -0,0 +1,176 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.compiler.manager;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterSpec;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.processing.Filer;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import solar.blaz.rondel.compiler.Constants;
+import solar.blaz.rondel.compiler.Options;
+import solar.blaz.rondel.compiler.Options.DispatcherMode;
+
+/**
+ * Merges injectors of every package into single {@code RondelInjectors} class, so fewer classes
+ * have to be loaded and verified on startup. Members that are specific to one injector are already
+ * prefixed with its target name, members that are the same for all of them are added once.
+ */
+@Singleton
+public class DispatcherManager extends AbstractInjectorManager {
+
+    private static final String DISPATCHER_NAME = Constants.CLASS_PREFIX + "Injectors";
+
+    private final Messager messager;
+    private final Filer filer;
+    private final Options options;
+
+    private final Map<String, List<TypeSpec>> injectors = new LinkedHashMap<>();
+
+    @Inject
+    public DispatcherManager(Messager messager, Elements elementUtils, Filer filer, Types typesUtil, Options options) {
+        super(messager, elementUtils, typesUtil, options);
+        this.messager = messager;
+        this.filer = filer;
+        this.options = options;
+    }
+
+    public static ClassName getDispatcherName(String packageName) {
+        return ClassName.get(packageName, DISPATCHER_NAME);
+    }
+
+    public void add(String packageName, TypeSpec injector) {
+        List<TypeSpec> packageInjectors = injectors.get(packageName);
+        if (packageInjectors == null) {
+            packageInjectors = new ArrayList<>();
+            injectors.put(packageName, packageInjectors);
+        }
+        packageInjectors.add(injector);
+    }
+
+    public void write() throws IOException {
+
+        for (Map.Entry<String, List<TypeSpec>> entry : injectors.entrySet()) {
+
+            String packageName = entry.getKey();
+            ClassName dispatcherName = getDispatcherName(packageName);
+
+            TypeSpec.Builder dispatcher = TypeSpec.classBuilder(dispatcherName)
+                    .addAnnotation(getGeneratedAnnotation())
+                    .addModifiers(Modifier.PUBLIC, Modifier.FINAL);
+
+            Map<String, FieldSpec> fields = new HashMap<>();
+            Map<String, TypeSpec> types = new HashMap<>();
+
+            for (TypeSpec injector : entry.getValue()) {
+
+                // shared module instances and disposing modules are the same in every injector
+                for (FieldSpec field : injector.fieldSpecs) {
+                    FieldSpec existing = fields.put(field.name, field);
+                    if (existing == null) {
+                        dispatcher.addField(field);
+                    } else if (!existing.equals(field)) {
+                        messager.error("Conflicting field " + field.name + " in " + dispatcherName + ".");
+                    }
+                }
+                for (TypeSpec type : injector.typeSpecs) {
+                    TypeSpec existing = types.put(type.name, type);
+                    if (existing == null) {
+                        dispatcher.addType(type);
+                    } else if (!existing.equals(type)) {
+                        messager.error("Conflicting type " + type.name + " in " + dispatcherName + ".");
+                    }
+                }
+                dispatcher.addMethods(injector.methodSpecs);
+
+                if (options.getDispatcherMode() == DispatcherMode.FORWARD) {
+                    writeForwarder(packageName, dispatcherName, injector);
+                }
+
+            }
+
+            JavaFile.builder(packageName, dispatcher.build())
+                    .indent("    ")
+                    .build()
+                    .writeTo(filer);
+
+        }
+
+        injectors.clear();
+
+    }
+
+    /**
+     * Writes injector with the usual name that only calls dispatcher, so existing callers keep working.
+     */
+    private void writeForwarder(String packageName, ClassName dispatcherName, TypeSpec injector) throws IOException {
+
+        TypeSpec.Builder forwarder = TypeSpec.classBuilder(injector.name)
+                .addAnnotation(getGeneratedAnnotation())
+                .addModifiers(injector.modifiers.toArray(new Modifier[injector.modifiers.size()]));
+
+        for (MethodSpec method : injector.methodSpecs) {
+
+            if (method.hasModifier(Modifier.PRIVATE)) {
+                continue;
+            }
+
+            List<String> arguments = new ArrayList<>();
+            for (ParameterSpec parameter : method.parameters) {
+                arguments.add(parameter.name);
+            }
+
+            MethodSpec.Builder forward = MethodSpec.methodBuilder(method.name)
+                    .addModifiers(method.modifiers)
+                    .addParameters(method.parameters)
+                    .returns(method.returnType);
+
+            if (method.returnType.equals(TypeName.VOID)) {
+                forward.addStatement("$T.$L($L)", dispatcherName, method.name, String.join(", ", arguments));
+            } else {
+                forward.addStatement("return $T.$L($L)", dispatcherName, method.name, String.join(", ", arguments));
+            }
+
+            forwarder.addMethod(forward.build());
+
+        }
+
+        JavaFile.builder(packageName, forwarder.build())
+                .indent("    ")
+                .build()
+                .writeTo(filer);
+
+    }
+
+}
@@ -0,0 +1,212 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.compiler.manager;
+
+import com.google.common.collect.ListMultimap;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.processing.Filer;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import solar.blaz.rondel.compiler.Options;
+import solar.blaz.rondel.compiler.model.ComponentModel;
+
+/**
+ * Computes what inject of every component costs: its modules, module instances created per
+ * inject, depth in component tree, number of children and parent lookup of generated injector.
+ * Costs are checked against limits set with processor options and written to
+ * {@code rondel-graph.json} in App package when {@code rondel.graphReport} is enabled. Both happen
+ * once, in the first round with App component, later rounds would report the same components again.
+ */
+@Singleton
+public class GraphReportManager extends AbstractInjectorManager {
+
+    public static final String FILE_NAME = "rondel-graph.json";
+
+    private final Messager messager;
+    private final Filer filer;
+    private final Options options;
+
+    private boolean written;
+
+    @Inject
+    public GraphReportManager(Messager messager, Elements elementUtils, Filer filer, Types typesUtil, Options options) {
+        super(messager, elementUtils, typesUtil, options);
+        this.messager = messager;
+        this.filer = filer;
+        this.options = options;
+    }
+
+    public void write(ComponentModel app, ListMultimap<ComponentModel, ComponentModel> components) throws IOException {
+
+        if (written) {
+            return;
+        }
+        written = true;
+
+        List<Cost> costs = new ArrayList<>();
+        collect(app, null, 0, components, costs);
+
+        for (Cost cost : costs) {
+            check(cost, cost.depth, options.getMaxDepth(), Options.MAX_DEPTH, "depth");
+            check(cost, cost.modules, options.getMaxModules(), Options.MAX_MODULES, "modules");
+            check(cost, cost.modulesPerInject, options.getMaxModulesPerInject(), Options.MAX_MODULES_PER_INJECT,
+                    "module instances per inject");
+        }
+
+        if (!options.isGraphReportEnabled()) {
+            return;
+        }
+
+        FileObject resource = filer.createResource(StandardLocation.CLASS_OUTPUT, app.packageName, FILE_NAME,
+                app.element);
+        Writer writer = resource.openWriter();
+        try {
+            writeJson(writer, costs);
+        } finally {
+            writer.close();
+        }
+
+    }
+
+    private void collect(ComponentModel model, ComponentModel parent, int depth,
+            ListMultimap<ComponentModel, ComponentModel> components, List<Cost> costs) {
+
+        List<ComponentModel> children = components.get(model);
+
+        Cost cost = new Cost();
+        cost.model = model;
+        cost.parent = parent;
+        cost.depth = depth;
+        cost.scope = parent == null ? Singleton.class.getName() : String.valueOf(getScope(model));
+        cost.children = children.size();
+        cost.modules = model.modules != null ? getModules(model.modules).size() : 0;
+        if (model.shared) {
+            cost.modulesPerInject = 0; // modules are created once per parent component, not on every inject
+        } else {
+            cost.modulesPerInject = model.modules != null
+                    ? getCreatedModuleCount(model.modules, model.view, model.packageName)
+                    : 0;
+            if (parent != null && options.isBindTargetEnabled()) {
+                cost.modulesPerInject++; // target module
+            }
+        }
+        setParentLookup(cost);
+        costs.add(cost);
+
+        for (ComponentModel child : children) {
+            collect(child, model, depth + 1, components, costs);
+        }
+
+    }
+
+    /**
+     * Mirrors parent lookup of {@link ViewInjectorManager}. Hops is the least number of calls
+     * needed to reach the parent, walks continue until parent of expected type is found.
+     */
+    private void setParentLookup(Cost cost) {
+
+        if (cost.parent == null) {
+            cost.parentLookup = "none";
+            cost.parentHops = 0;
+            return;
+        }
+
+        TypeMirror view = cost.model.view;
+        TypeMirror parent = cost.parent.element.asType();
+
+        if (isActivity(view) || isService(view)) {
+            cost.parentLookup = "direct";
+            cost.parentHops = 1;
+        } else if (isFragment(view)) {
+            if (isFragment(parent)) {
+                cost.parentLookup = "cachedWalk";
+                cost.parentHops = 1;
+            } else {
+                cost.parentLookup = "direct";
+                cost.parentHops = isActivity(parent) ? 1 : 2;
+            }
+        } else if (isView(view)) {
+            if (isView(parent) || isFragment(parent)) {
+                cost.parentLookup = "walk";
+                cost.parentHops = 1;
+            } else {
+                cost.parentLookup = "direct";
+                cost.parentHops = isActivity(parent) ? 1 : 2;
+            }
+        } else {
+            cost.parentLookup = "direct";
+            cost.parentHops = 1;
+        }
+
+    }
+
+    private void check(Cost cost, int value, int limit, String option, String name) {
+        if (limit != Options.NO_LIMIT && value > limit) {
+            messager.error(cost.model.element.getSimpleName() + " " + name + " " + value + " exceeds " + option
+                    + " " + limit + ".", cost.model.element);
+        }
+    }
+
+    private static void writeJson(Writer writer, List<Cost> costs) throws IOException {
+
+        writer.write("{\n  \"components\": [");
+        for (int i = 0; i < costs.size(); i++) {
+            Cost cost = costs.get(i);
+
+            writer.write(i == 0 ? "\n" : ",\n");
+            writer.write("    {\n");
+            writer.write("      \"target\": \"" + cost.model.element + "\",\n");
+            writer.write("      \"component\": \"" + cost.model.packageName + "." + cost.model.name + "\",\n");
+            writer.write("      \"scope\": \"" + cost.scope + "\",\n");
+            writer.write("      \"parent\": " + (cost.parent != null ? "\"" + cost.parent.element + "\"" : "null")
+                    + ",\n");
+            writer.write("      \"depth\": " + cost.depth + ",\n");
+            writer.write("      \"children\": " + cost.children + ",\n");
+            writer.write("      \"modules\": " + cost.modules + ",\n");
+            writer.write("      \"modulesPerInject\": " + cost.modulesPerInject + ",\n");
+            writer.write("      \"parentLookup\": \"" + cost.parentLookup + "\",\n");
+            writer.write("      \"parentHops\": " + cost.parentHops + "\n");
+            writer.write("    }");
+        }
+        writer.write("\n  ]\n}\n");
+
+    }
+
+    private static final class Cost {
+        ComponentModel model;
+        ComponentModel parent;
+        String scope;
+        int depth;
+        int children;
+        int modules;
+        int modulesPerInject;
+        String parentLookup;
+        int parentHops;
+    }
+
+}
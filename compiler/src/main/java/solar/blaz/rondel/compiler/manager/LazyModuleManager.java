@@ -0,0 +1,485 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package solar.blaz.rondel.compiler.manager;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.ObjectArrays;
+import com.google.common.collect.SetMultimap;
+import com.squareup.javapoet.ClassName;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.inject.Inject;
+import javax.inject.Qualifier;
+import javax.inject.Scope;
+import javax.inject.Singleton;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import dagger.Binds;
+import dagger.Provides;
+import solar.blaz.rondel.compiler.Options;
+import solar.blaz.rondel.compiler.model.ComponentModel;
+
+/**
+ * Moves App modules that are reached only from {@code @Rondel} components to the components that
+ * need them, so they are not created when App is injected. Injectors of those components keep one
+ * static instance of the module that is created when the injector class is first used.
+ *
+ * <p>Only modules that can be safely moved are considered: they and modules they include have no
+ * scoped or multibinding methods, have no instance fields, are not included by another App module
+ * and can be created without App instance. Module stays in App when any of its bindings is needed by App, by App
+ * components, by other App modules or by {@code @Singleton} classes.
+ */
+@Singleton
+public class LazyModuleManager extends AbstractInjectorManager {
+
+    private static final Set<String> WRAPPERS =
+            ImmutableSet.of("javax.inject.Provider", "dagger.Lazy", "dagger.MembersInjector");
+
+    private final Elements elementUtils;
+    private final Types typesUtil;
+    private final Options options;
+
+    @Inject
+    public LazyModuleManager(Messager messager, Elements elementUtils, Types typesUtil, Options options) {
+        super(messager, elementUtils, typesUtil, options);
+        this.elementUtils = elementUtils;
+        this.typesUtil = typesUtil;
+        this.options = options;
+    }
+
+    public void relocate(ComponentModel app, ListMultimap<ComponentModel, ComponentModel> components) {
+
+        if (!options.isLazyModulesEnabled() || app.modules == null) {
+            return;
+        }
+
+        Map<TypeElement, List<TypeElement>> closures = new LinkedHashMap<>();
+        Map<TypeElement, Integer> owners = new HashMap<>();
+        for (TypeElement module : app.modules) {
+            List<TypeElement> closure = getModules(new TypeElement[] { module });
+            closures.put(module, closure);
+            for (TypeElement included : closure) {
+                Integer count = owners.get(included);
+                owners.put(included, count == null ? 1 : count + 1);
+            }
+        }
+
+        Set<TypeElement> candidates = new LinkedHashSet<>();
+        for (Map.Entry<TypeElement, List<TypeElement>> entry : closures.entrySet()) {
+            if (isMovable(entry.getValue(), owners, app)) {
+                candidates.add(entry.getKey());
+            }
+        }
+
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // bindings of every App module, used to follow dependencies between modules
+        SetMultimap<String, Binding> bindings = LinkedHashMultimap.create();
+        Map<TypeElement, Set<String>> candidateKeys = new HashMap<>();
+        for (Map.Entry<TypeElement, List<TypeElement>> entry : closures.entrySet()) {
+            Set<String> keys = new HashSet<>();
+            for (TypeElement module : entry.getValue()) {
+                for (Binding binding : getBindings(module, entry.getKey())) {
+                    bindings.put(binding.key, binding);
+                    keys.add(binding.key);
+                }
+            }
+            candidateKeys.put(entry.getKey(), keys);
+        }
+
+        Map<ComponentModel, ComponentModel> parents = new HashMap<>();
+        for (Map.Entry<ComponentModel, ComponentModel> entry : components.entries()) {
+            if (entry.getKey() != null) {
+                parents.put(entry.getValue(), entry.getKey());
+            }
+        }
+
+        Graph graph;
+        boolean changed;
+        do {
+            graph = new Graph(app, parents, bindings, candidates);
+            graph.walk(components);
+
+            changed = false;
+            Set<String> appNeeds = graph.getNeeds(app);
+            for (TypeElement candidate : new ArrayList<>(candidates)) {
+                if (!Collections.disjoint(appNeeds, candidateKeys.get(candidate))) {
+                    candidates.remove(candidate);
+                    changed = true;
+                }
+            }
+        } while (changed && !candidates.isEmpty());
+
+        List<TypeElement> appModules = new ArrayList<>(Arrays.asList(app.modules));
+        for (TypeElement candidate : candidates) {
+
+            List<ComponentModel> targets = new ArrayList<>();
+            place(app, components, graph, candidateKeys.get(candidate), targets);
+
+            if (!targets.isEmpty()) { // modules that nobody uses are left in App
+                appModules.remove(candidate);
+                for (ComponentModel target : targets) {
+                    TypeElement[] modules = target.modules == null
+                            ? new TypeElement[] { candidate }
+                            : ObjectArrays.concat(target.modules, candidate);
+                    target.modules = modules;
+                    target.injector.modules = modules;
+                }
+            }
+
+        }
+
+        TypeElement[] modules = appModules.isEmpty() ? null : appModules.toArray(new TypeElement[appModules.size()]);
+        app.modules = modules;
+        app.injector.modules = modules;
+
+    }
+
+    /**
+     * Collects top most components that need any of the keys. Components below them get the module
+     * from their parent.
+     */
+    private void place(ComponentModel parent, ListMultimap<ComponentModel, ComponentModel> components, Graph graph,
+            Set<String> keys, List<ComponentModel> targets) {
+
+        for (ComponentModel child : components.get(parent)) {
+            if (!Collections.disjoint(graph.getNeeds(child), keys)) {
+                targets.add(child);
+            } else {
+                place(child, components, graph, keys, targets);
+            }
+        }
+
+    }
+
+    private boolean isMovable(List<TypeElement> closure, Map<TypeElement, Integer> owners, ComponentModel app) {
+
+        for (TypeElement module : closure) {
+
+            if (owners.get(module) > 1) {
+                return false; // included by another App module as well
+            }
+
+            if (!isAbstractModule(module)) {
+                ExecutableElement constructor = getConstructor(module, app.view);
+                if (constructor == null || !constructor.getParameters().isEmpty()) {
+                    return false; // needs App instance
+                }
+                if (!isStateless(module)) {
+                    return false; // state would no longer be shared by the whole App
+                }
+            }
+
+            for (ExecutableElement method : getModuleMethods(module)) {
+                Provides provides = method.getAnnotation(Provides.class);
+                if (provides != null && provides.type() != Provides.Type.UNIQUE) {
+                    return false;
+                }
+                for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+                    Element annotationType = annotation.getAnnotationType().asElement();
+                    if (annotationType.getAnnotation(Scope.class) != null
+                            || getQualifiedName(annotationType).startsWith("dagger.multibindings.")) {
+                        return false;
+                    }
+                }
+            }
+
+        }
+
+        return true;
+
+    }
+
+    private List<Binding> getBindings(TypeElement module, TypeElement owner) {
+
+        List<Binding> bindings = new ArrayList<>();
+        for (ExecutableElement method : getModuleMethods(module)) {
+            if (method.getAnnotation(Provides.class) != null || method.getAnnotation(Binds.class) != null) {
+                List<Dependency> dependencies = new ArrayList<>();
+                for (VariableElement parameter : method.getParameters()) {
+                    dependencies.add(new Dependency(parameter, parameter.asType()));
+                }
+                bindings.add(new Binding(getKey(method, method.getReturnType()), owner, dependencies));
+            }
+        }
+        return bindings;
+
+    }
+
+    private List<ExecutableElement> getModuleMethods(TypeElement module) {
+
+        List<ExecutableElement> methods = new ArrayList<>();
+        TypeElement type = module;
+        while (type != null && !Object.class.getName().equals(type.getQualifiedName().toString())) {
+            methods.addAll(ElementFilter.methodsIn(type.getEnclosedElements()));
+            TypeMirror superclass = type.getSuperclass();
+            type = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) typesUtil.asElement(superclass) : null;
+        }
+        return methods;
+
+    }
+
+    private String getKey(Element site, TypeMirror type) {
+
+        TypeMirror keyType = unwrap(type);
+        if (keyType.getKind().isPrimitive()) {
+            keyType = typesUtil.boxedClass(typesUtil.getPrimitiveType(keyType.getKind())).asType();
+        }
+
+        for (AnnotationMirror annotation : site.getAnnotationMirrors()) {
+            if (annotation.getAnnotationType().asElement().getAnnotation(Qualifier.class) != null) {
+                return annotation + " " + keyType;
+            }
+        }
+        return keyType.toString();
+
+    }
+
+    private TypeMirror unwrap(TypeMirror type) {
+
+        if (type.getKind() == TypeKind.DECLARED) {
+            DeclaredType declaredType = (DeclaredType) type;
+            if (declaredType.getTypeArguments().size() == 1
+                    && WRAPPERS.contains(getQualifiedName(declaredType.asElement()))) {
+                return declaredType.getTypeArguments().get(0);
+            }
+        }
+        return type;
+
+    }
+
+    private static String getQualifiedName(Element element) {
+        return ((TypeElement) element).getQualifiedName().toString();
+    }
+
+    private static final class Dependency {
+
+        final Element site;
+        final TypeMirror type;
+
+        Dependency(Element site, TypeMirror type) {
+            this.site = site;
+            this.type = type;
+        }
+
+    }
+
+    private static final class Binding {
+
+        final String key;
+        final TypeElement module;
+        final List<Dependency> dependencies;
+
+        Binding(String key, TypeElement module, List<Dependency> dependencies) {
+            this.key = key;
+            this.module = module;
+            this.dependencies = dependencies;
+        }
+
+    }
+
+    /**
+     * Keys needed by each component. Bindings of App modules that stay in App and classes with scope
+     * of a parent are resolved in that parent, so their dependencies are needed there.
+     */
+    private final class Graph {
+
+        private final ComponentModel app;
+        private final Map<ComponentModel, ComponentModel> parents;
+        private final SetMultimap<String, Binding> bindings;
+        private final Set<TypeElement> candidates;
+
+        private final SetMultimap<ComponentModel, String> needs = LinkedHashMultimap.create();
+
+        Graph(ComponentModel app, Map<ComponentModel, ComponentModel> parents, SetMultimap<String, Binding> bindings,
+                Set<TypeElement> candidates) {
+            this.app = app;
+            this.parents = parents;
+            this.bindings = bindings;
+            this.candidates = candidates;
+        }
+
+        Set<String> getNeeds(ComponentModel component) {
+            return needs.get(component);
+        }
+
+        void walk(ListMultimap<ComponentModel, ComponentModel> components) {
+
+            walkComponent(app);
+            for (Binding binding : bindings.values()) {
+                if (!candidates.contains(binding.module)) {
+                    walkDependencies(binding.dependencies, app);
+                }
+            }
+
+            for (ComponentModel component : new LinkedHashSet<>(components.values())) {
+                if (component != app) {
+                    walkComponent(component);
+                    for (TypeElement module : getModules(component.modules)) {
+                        for (Binding binding : getBindings(module, module)) {
+                            walkDependencies(binding.dependencies, component);
+                        }
+                    }
+                }
+            }
+
+        }
+
+        private void walkComponent(ComponentModel component) {
+
+            walkMembers((TypeElement) component.element, component);
+
+            if (component.components != null) {
+                for (TypeElement provider : component.components) {
+                    for (ExecutableElement method : ElementFilter.methodsIn(elementUtils.getAllMembers(provider))) {
+                        if (!method.getModifiers().contains(Modifier.ABSTRACT)) {
+                            continue;
+                        }
+                        if (method.getParameters().isEmpty() && method.getReturnType().getKind() != TypeKind.VOID) {
+                            walk(method, method.getReturnType(), component);
+                        } else if (method.getParameters().size() == 1) {
+                            Element injected = typesUtil.asElement(method.getParameters().get(0).asType());
+                            if (injected instanceof TypeElement) {
+                                walkMembers((TypeElement) injected, component);
+                            }
+                        }
+                    }
+                }
+            }
+
+        }
+
+        private void walkDependencies(List<Dependency> dependencies, ComponentModel owner) {
+            for (Dependency dependency : dependencies) {
+                walk(dependency.site, dependency.type, owner);
+            }
+        }
+
+        private void walk(Element site, TypeMirror type, ComponentModel owner) {
+
+            String key = getKey(site, type);
+            if (!needs.put(owner, key)) {
+                return; // already visited
+            }
+
+            Set<Binding> keyBindings = bindings.get(key);
+            if (!keyBindings.isEmpty()) {
+                for (Binding binding : keyBindings) {
+                    walkDependencies(binding.dependencies, candidates.contains(binding.module) ? owner : app);
+                }
+                return;
+            }
+
+            TypeMirror keyType = unwrap(type);
+            if (keyType.getKind() != TypeKind.DECLARED) {
+                return;
+            }
+
+            TypeElement element = (TypeElement) typesUtil.asElement(keyType);
+            for (ExecutableElement constructor : ElementFilter.constructorsIn(element.getEnclosedElements())) {
+                if (constructor.getAnnotation(Inject.class) != null) {
+                    ComponentModel scopeOwner = getScopeOwner(element, owner);
+                    for (VariableElement parameter : constructor.getParameters()) {
+                        walk(parameter, parameter.asType(), scopeOwner);
+                    }
+                    walkMembers(element, scopeOwner);
+                }
+            }
+
+        }
+
+        private void walkMembers(TypeElement element, ComponentModel owner) {
+
+            TypeElement type = element;
+            while (type != null) {
+                for (Element member : type.getEnclosedElements()) {
+                    if (member.getAnnotation(Inject.class) == null) {
+                        continue;
+                    }
+                    if (member.getKind() == ElementKind.FIELD) {
+                        walk(member, member.asType(), owner);
+                    } else if (member.getKind() == ElementKind.METHOD) {
+                        for (VariableElement parameter : ((ExecutableElement) member).getParameters()) {
+                            walk(parameter, parameter.asType(), owner);
+                        }
+                    }
+                }
+                TypeMirror superclass = type.getSuperclass();
+                type = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) typesUtil.asElement(superclass) : null;
+            }
+
+        }
+
+        /**
+         * Scoped classes are created by the component with the same scope.
+         */
+        private ComponentModel getScopeOwner(TypeElement element, ComponentModel owner) {
+
+            String scope = null;
+            for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+                Element annotationType = annotation.getAnnotationType().asElement();
+                if (annotationType.getAnnotation(Scope.class) != null) {
+                    scope = getQualifiedName(annotationType);
+                }
+            }
+
+            if (scope == null) {
+                return owner;
+            }
+
+            ComponentModel component = owner;
+            while (component != null && component != app) {
+                ClassName componentScope = getScope(component);
+                if (componentScope != null && scope.equals(componentScope.toString())) {
+                    return component;
+                }
+                component = parents.get(component);
+            }
+            return app;
+
+        }
+
+    }
+
+}
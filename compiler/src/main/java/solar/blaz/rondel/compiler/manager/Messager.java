@@ -46,4 +46,8 @@ public class Messager {
         messager.printMessage(Diagnostic.Kind.WARNING, message);
     }
 
+    public void warning(String message, Element element) {
+        messager.printMessage(Diagnostic.Kind.WARNING, message, element);
+    }
+
 }
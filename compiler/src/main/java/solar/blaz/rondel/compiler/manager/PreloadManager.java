@@ -0,0 +1,292 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.compiler.manager;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ListMultimap;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeSpec;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.Filer;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import solar.blaz.rondel.AppProcess;
+import solar.blaz.rondel.compiler.Constants;
+import solar.blaz.rondel.compiler.Options;
+import solar.blaz.rondel.compiler.Options.DispatcherMode;
+import solar.blaz.rondel.compiler.model.ComponentModel;
+import solar.blaz.rondel.compiler.model.ProcessModel;
+
+/**
+ * Writes {@code Rondel<App>Preload} that lists binary names of classes needed to inject every
+ * component: generated injectors and components, Dagger component implementations and members
+ * injectors. Dagger implementations are private nested classes, so their names are predicted from
+ * the component tree. App classes come first, other components follow by their startup priority.
+ * With startup profile only components that were built during recorded start are listed, in the
+ * order they were built, everything else is left to load lazily. Processes declared with
+ * {@code @App.Process} get a list of their own App graph and children, profile is used only for
+ * the main list.
+ */
+@Singleton
+public class PreloadManager extends AbstractInjectorManager {
+
+    private final Messager messager;
+    private final Elements elementUtils;
+    private final Filer filer;
+    private final Options options;
+
+    @Inject
+    public PreloadManager(Messager messager, Elements elementUtils, Filer filer, Types typesUtil, Options options) {
+        super(messager, elementUtils, typesUtil, options);
+        this.messager = messager;
+        this.elementUtils = elementUtils;
+        this.filer = filer;
+        this.options = options;
+    }
+
+    public static ClassName getPreloadName(ComponentModel appComponent) {
+        return ClassName.get(appComponent.packageName,
+                Constants.CLASS_PREFIX + appComponent.element.getSimpleName() + "Preload");
+    }
+
+    public void write(ComponentModel app, ListMultimap<ComponentModel, ComponentModel> components) throws IOException {
+
+        if (!options.isPreloadEnabled()) {
+            return;
+        }
+
+        String daggerComponent = app.packageName + ".Dagger" + app.name;
+
+        List<Entry> entries = new ArrayList<>();
+        collect(app, daggerComponent, components, entries);
+
+        if (options.getStartupProfile() != null) {
+            entries = getProfiledEntries(options.getStartupProfile(), app, entries);
+        } else {
+            sortByPriority(entries);
+        }
+
+        CodeBlock.Builder names = CodeBlock.builder();
+
+        // other processes build only their own App graph, so they get their own list
+        if (app.processes != null) {
+            for (ProcessModel process : app.processes) {
+                String daggerProcessComponent = app.packageName + ".Dagger" + process.name;
+
+                List<Entry> processEntries = new ArrayList<>();
+                for (ComponentModel child : components.get(app)) {
+                    if (Arrays.asList(process.children).contains(child.element)) {
+                        Entry entry = new Entry();
+                        entry.model = child;
+                        entry.daggerParent = daggerProcessComponent;
+                        processEntries.add(entry);
+                        collect(child, daggerProcessComponent + "$" + child.name + "Impl", components, processEntries);
+                    }
+                }
+                sortByPriority(processEntries);
+
+                names.beginControlFlow("if ($T.is($S))", AppProcess.class, process.processName)
+                        .add(getClassNames(app, process.name, processEntries))
+                        .endControlFlow();
+            }
+        }
+
+        names.add(getClassNames(app, app.name, entries));
+
+        TypeSpec preload = TypeSpec.classBuilder(getPreloadName(app))
+                .addAnnotation(getGeneratedAnnotation())
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addMethod(MethodSpec.methodBuilder("getClassNames")
+                        .addJavadoc("Binary names of classes in the order they should be loaded in current process.\n")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .returns(ArrayTypeName.of(String.class))
+                        .addCode(names.build())
+                        .build())
+                .build();
+
+        JavaFile.builder(app.packageName, preload)
+                .indent("    ")
+                .build()
+                .writeTo(filer);
+
+    }
+
+    private CodeBlock getClassNames(ComponentModel app, String appComponent, List<Entry> entries) {
+
+        String daggerComponent = app.packageName + ".Dagger" + appComponent;
+
+        Set<String> classes = new LinkedHashSet<>();
+        addInjector(app, classes);
+        if (options.isRegistryEnabled()) {
+            classes.add(binaryName(RegistryManager.getRegistryName(app)));
+        }
+        classes.add(app.packageName + "." + appComponent);
+        classes.add(daggerComponent);
+        classes.add(daggerComponent + "$Builder");
+        addMembersInjector(app, classes);
+
+        for (Entry entry : entries) {
+            ComponentModel model = entry.model;
+            String component = model.packageName + "." + model.name;
+
+            addInjector(model, classes);
+            classes.add(component);
+            classes.add(component + "$Builder");
+            classes.add(entry.daggerParent + "$" + model.name + "Builder");
+            classes.add(entry.daggerParent + "$" + model.name + "Impl");
+            addMembersInjector(model, classes);
+        }
+
+        CodeBlock.Builder names = CodeBlock.builder()
+                .add("return new $T[] {\n", String.class)
+                .indent();
+        int i = 0;
+        for (String name : classes) {
+            names.add(i++ < classes.size() - 1 ? "$S,\n" : "$S\n", name);
+        }
+        return names.unindent()
+                .add("};\n")
+                .build();
+
+    }
+
+    private static void sortByPriority(List<Entry> entries) {
+        // stable sort keeps tree order of components with the same priority
+        Collections.sort(entries, new Comparator<Entry>() {
+            @Override public int compare(Entry left, Entry right) {
+                return Integer.compare(right.model.startupPriority, left.model.startupPriority);
+            }
+        });
+    }
+
+    private void collect(ComponentModel model, String daggerPrefix, ListMultimap<ComponentModel, ComponentModel> components,
+            List<Entry> entries) {
+
+        for (ComponentModel child : components.get(model)) {
+            Entry entry = new Entry();
+            entry.model = child;
+            entry.daggerParent = daggerPrefix;
+            entries.add(entry);
+
+            // subcomponent implementations are nested in implementation of their parent
+            collect(child, daggerPrefix + "$" + child.name + "Impl", components, entries);
+        }
+
+    }
+
+    /**
+     * Entries of components listed in startup profile, in profile order. Names that are not
+     * components anymore are reported, so stale profiles are noticed.
+     */
+    private List<Entry> getProfiledEntries(String path, ComponentModel app, List<Entry> entries) {
+
+        Path file = Paths.get(path);
+        if (!Files.isRegularFile(file)) {
+            messager.error(Options.STARTUP_PROFILE + " file \"" + path + "\" does not exist.");
+            return Collections.emptyList();
+        }
+
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            messager.error("Can not read " + Options.STARTUP_PROFILE + " file \"" + path + "\": " + e.getMessage());
+            return Collections.emptyList();
+        }
+
+        String appName = elementUtils.getBinaryName((TypeElement) app.element).toString();
+        Map<String, Entry> byName = new HashMap<>();
+        for (Entry entry : entries) {
+            byName.put(elementUtils.getBinaryName((TypeElement) entry.model.element).toString(), entry);
+        }
+
+        Set<Entry> profiled = new LinkedHashSet<>();
+        for (String line : lines) {
+            String name = line.trim();
+            if (name.isEmpty() || name.startsWith("#")) {
+                continue;
+            }
+
+            Entry entry = byName.get(name);
+            if (entry != null) {
+                profiled.add(entry);
+            } else if (!name.equals(appName)) {
+                messager.warning("Startup profile lists " + name + " that is not a @Rondel component.");
+            }
+        }
+
+        return new ArrayList<>(profiled);
+
+    }
+
+    private void addInjector(ComponentModel model, Set<String> classes) {
+        if (options.isDispatcherEnabled()) {
+            classes.add(binaryName(DispatcherManager.getDispatcherName(model.packageName)));
+        }
+        if (options.getDispatcherMode() != DispatcherMode.MINIMAL) {
+            classes.add(model.injector.packageName + "." + model.injector.name);
+        }
+    }
+
+    /**
+     * Dagger writes members injector for every type that declares {@code @Inject} fields or methods.
+     */
+    private void addMembersInjector(ComponentModel model, Set<String> classes) {
+
+        TypeElement element = (TypeElement) model.element;
+
+        if (hasInjectMembers(element)) {
+            ClassName name = ClassName.get(element);
+            classes.add(name.packageName() + "." + Joiner.on('_').join(name.simpleNames()) + "_MembersInjector");
+        }
+
+    }
+
+    private static String binaryName(ClassName name) {
+        return name.packageName() + "." + Joiner.on('$').join(name.simpleNames());
+    }
+
+    private static final class Entry {
+        ComponentModel model;
+        String daggerParent;
+    }
+
+}
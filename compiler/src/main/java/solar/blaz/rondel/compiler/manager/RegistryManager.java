@@ -0,0 +1,256 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.compiler.manager;
+
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import com.squareup.javapoet.WildcardTypeName;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.processing.Filer;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import solar.blaz.rondel.AppProcess;
+import solar.blaz.rondel.InjectorRegistry;
+import solar.blaz.rondel.RondelComponent;
+import solar.blaz.rondel.compiler.Constants;
+import solar.blaz.rondel.compiler.Options;
+import solar.blaz.rondel.compiler.Options.RegistryMode;
+import solar.blaz.rondel.compiler.model.ComponentModel;
+import solar.blaz.rondel.compiler.model.ProcessModel;
+
+/**
+ * Writes registry that maps every injected type to its generated injector. Types are mapped to
+ * indexes that are dispatched with switch, so no reflection is needed to call the injector.
+ */
+@Singleton
+public class RegistryManager extends AbstractInjectorManager {
+
+    /**
+     * Index cached for types that have no injector in superclass registry.
+     */
+    private static final int NO_INJECTOR = -1;
+
+    private final Messager messager;
+    private final Filer filer;
+    private final Options options;
+
+    @Inject
+    public RegistryManager(Messager messager, Elements elementUtils, Filer filer, Types typesUtil, Options options) {
+        super(messager, elementUtils, typesUtil, options);
+        this.messager = messager;
+        this.filer = filer;
+        this.options = options;
+    }
+
+    public static ClassName getRegistryName(ComponentModel appComponent) {
+        return ClassName.get(appComponent.packageName,
+                Constants.CLASS_PREFIX + appComponent.element.getSimpleName() + "Registry");
+    }
+
+    public void write(ComponentModel appComponent, List<ComponentModel> components) throws IOException {
+
+        RegistryMode mode = options.getRegistryMode();
+        if (mode == RegistryMode.NONE) {
+            return;
+        }
+
+        List<ComponentModel> models = new ArrayList<>(components.size() + 1);
+        models.add(appComponent);
+        int types = 1;
+        for (ComponentModel model : components) {
+            if (model.element.getModifiers().contains(Modifier.PUBLIC)) {
+                models.add(model);
+                types += 1 + (model.subclasses != null ? model.subclasses.length : 0);
+            } else {
+                messager.error("Injected type has to be public when " + Options.REGISTRY + " is enabled.", model.element);
+            }
+        }
+
+        TypeName classType = ParameterizedTypeName.get(ClassName.get(Class.class), WildcardTypeName.subtypeOf(Object.class));
+        TypeName mapType = ParameterizedTypeName.get(ClassName.get(Map.class), classType, ClassName.get(Integer.class));
+        ClassName mapImplementation = mode == RegistryMode.SUPERCLASS
+                ? ClassName.get(ConcurrentHashMap.class)
+                : ClassName.get(HashMap.class);
+
+        CodeBlock.Builder constructor = CodeBlock.builder();
+        CodeBlock.Builder dispatch = CodeBlock.builder()
+                .beginControlFlow("switch (injector)");
+
+        List<CodeBlock> puts = new ArrayList<>(models.size());
+        for (int i = 0; i < models.size(); i++) {
+            ComponentModel model = models.get(i);
+            TypeName type = TypeName.get(model.element.asType());
+            ClassName injector = getInjectorName(model.injector);
+
+            CodeBlock.Builder put = CodeBlock.builder()
+                    .addStatement("injectors.put($T.class, $L)", type, i);
+            addSubclasses(put, model, i);
+            puts.add(put.build());
+            dispatch.add("case $L:\n", i)
+                    .indent()
+                    .addStatement("return $T.inject(($T) target)", injector, type)
+                    .unindent();
+        }
+
+        addPuts(constructor, appComponent, models, puts);
+
+        dispatch.add("default:\n")
+                .indent()
+                .addStatement("throw new $T($S + target.getClass().getName())", IllegalArgumentException.class,
+                        "No injector for ")
+                .unindent()
+                .endControlFlow();
+
+        TypeSpec.Builder registry = TypeSpec.classBuilder(getRegistryName(appComponent))
+                .addAnnotation(getGeneratedAnnotation())
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addSuperinterface(InjectorRegistry.class)
+                .addField(FieldSpec.builder(mapType, "injectors", Modifier.PRIVATE, Modifier.FINAL)
+                        .initializer("new $T<$T, $T>($L)", mapImplementation, classType, Integer.class, types * 2)
+                        .build())
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PUBLIC)
+                        .addCode(constructor.build())
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("inject")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(RondelComponent.class)
+                        .addParameter(Object.class, "target")
+                        .addStatement("$T injector = find(target.getClass())", Integer.class)
+                        .beginControlFlow("if (injector == null)")
+                        .addStatement("throw new $T($S + target.getClass().getName())", IllegalArgumentException.class,
+                                "No injector for ")
+                        .endControlFlow()
+                        .addCode(dispatch.build())
+                        .build())
+                .addMethod(getFindMethod(mode, classType));
+
+        JavaFile.builder(appComponent.packageName, registry.build())
+                .indent("    ")
+                .build()
+                .writeTo(filer);
+
+    }
+
+    /**
+     * Class literals load classes, so other processes register only App and children of their
+     * {@code @App.Process}. Types of the main process are not loaded there.
+     */
+    private void addPuts(CodeBlock.Builder constructor, ComponentModel appComponent, List<ComponentModel> models,
+            List<CodeBlock> puts) {
+
+        constructor.add(puts.get(0));
+
+        if (appComponent.processes == null || appComponent.processes.length == 0) {
+            for (int i = 1; i < puts.size(); i++) {
+                constructor.add(puts.get(i));
+            }
+            return;
+        }
+
+        for (int p = 0; p < appComponent.processes.length; p++) {
+            ProcessModel process = appComponent.processes[p];
+            if (p == 0) {
+                constructor.beginControlFlow("if ($T.is($S))", AppProcess.class, process.processName);
+            } else {
+                constructor.nextControlFlow("else if ($T.is($S))", AppProcess.class, process.processName);
+            }
+            for (int i = 1; i < models.size(); i++) {
+                if (Arrays.asList(process.children).contains(models.get(i).element)) {
+                    constructor.add(puts.get(i));
+                }
+            }
+        }
+        constructor.nextControlFlow("else");
+        for (int i = 1; i < puts.size(); i++) {
+            constructor.add(puts.get(i));
+        }
+        constructor.endControlFlow();
+
+    }
+
+    /**
+     * Subclasses of abstract {@code @Rondel} class use its injector, so they are found without
+     * walking superclasses.
+     */
+    private void addSubclasses(CodeBlock.Builder constructor, ComponentModel model, int index) {
+        if (model.subclasses == null) {
+            return;
+        }
+
+        for (TypeElement subclass : model.subclasses) {
+            if (subclass.getModifiers().contains(Modifier.PUBLIC)) {
+                constructor.addStatement("injectors.put($T.class, $L)", ClassName.get(subclass), index);
+            } else {
+                messager.warning(subclass.getSimpleName() + " is not public, so " + Options.REGISTRY
+                        + " can not map it to " + Constants.CLASS_PREFIX + model.element.getSimpleName() + ".", subclass);
+            }
+        }
+    }
+
+    private MethodSpec getFindMethod(RegistryMode mode, TypeName classType) {
+
+        MethodSpec.Builder method = MethodSpec.methodBuilder("find")
+                .addModifiers(Modifier.PRIVATE)
+                .returns(Integer.class)
+                .addParameter(classType, "type");
+
+        if (mode == RegistryMode.SUPERCLASS) {
+            // misses are cached too, so every type walks its superclasses only once
+            method.addStatement("$T injector = injectors.get(type)", Integer.class)
+                    .beginControlFlow("if (injector == null)")
+                    .addStatement("injector = $L", NO_INJECTOR)
+                    .beginControlFlow("for ($T superType = type.getSuperclass(); superType != null; "
+                            + "superType = superType.getSuperclass())", classType)
+                    .addStatement("$T found = injectors.get(superType)", Integer.class)
+                    .beginControlFlow("if (found != null)")
+                    .addStatement("injector = found")
+                    .addStatement("break")
+                    .endControlFlow()
+                    .endControlFlow()
+                    .addStatement("injectors.put(type, injector)")
+                    .endControlFlow()
+                    .addStatement("return injector == $L ? null : injector", NO_INJECTOR);
+        } else {
+            method.addStatement("return injectors.get(type)");
+        }
+
+        return method.build();
+
+    }
+
+}
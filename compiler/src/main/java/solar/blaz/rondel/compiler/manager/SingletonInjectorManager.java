@@ -28,7 +28,11 @@ import com.squareup.javapoet.TypeSpec;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.processing.Filer;
@@ -36,6 +40,7 @@ import javax.annotation.processing.RoundEnvironment;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
@@ -44,11 +49,16 @@ import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 
 import solar.blaz.rondel.App;
+import solar.blaz.rondel.AppProcess;
+import solar.blaz.rondel.Injector;
 import solar.blaz.rondel.RondelComponent;
 import solar.blaz.rondel.compiler.Constants;
+import solar.blaz.rondel.compiler.Options;
 import solar.blaz.rondel.compiler.model.ComponentModel;
 import solar.blaz.rondel.compiler.model.InjectorModel;
+import solar.blaz.rondel.compiler.model.ProcessModel;
 
+import static com.google.auto.common.AnnotationMirrors.getAnnotationValue;
 import static com.google.auto.common.MoreElements.getAnnotationMirror;
 
 /**
@@ -59,16 +69,25 @@ public class SingletonInjectorManager extends AbstractInjectorManager {
 
     private final Messager messager;
     private final Elements elementUtils;
+    private final Types types;
     private final Filer filer;
+    private final Options options;
+    private final DispatcherManager dispatcherManager;
+    private final WarmUpManager warmUpManager;
 
     private ComponentModel appComponent;
 
     @Inject
-    public SingletonInjectorManager(Messager messager, Elements elementUtils, Filer filer, Types types) {
-        super(messager, elementUtils, types);
+    public SingletonInjectorManager(Messager messager, Elements elementUtils, Filer filer, Types types, Options options,
+            DispatcherManager dispatcherManager, WarmUpManager warmUpManager) {
+        super(messager, elementUtils, types, options);
         this.messager = messager;
         this.elementUtils = elementUtils;
+        this.types = types;
         this.filer = filer;
+        this.options = options;
+        this.dispatcherManager = dispatcherManager;
+        this.warmUpManager = warmUpManager;
     }
 
     public ComponentModel parse(RoundEnvironment env) {
@@ -92,6 +111,7 @@ public class SingletonInjectorManager extends AbstractInjectorManager {
                         componentModel.view = app.asType();
                         componentModel.modules = modleElements;
                         componentModel.components = componentElements;
+                        componentModel.processes = parseProcesses(app, annotationMirror);
 
                         InjectorModel injectorModel = new InjectorModel(app);
                         injectorModel.name = Constants.CLASS_PREFIX + app.getSimpleName();
@@ -120,14 +140,24 @@ public class SingletonInjectorManager extends AbstractInjectorManager {
 
     public void write(List<ComponentModel> children) throws IOException {
 
-        TypeSpec.Builder component = createComponent(appComponent);
+        TypeSpec.Builder component = createComponent(appComponent.name, appComponent.modules);
 
-        component.addMethod(MethodSpec.methodBuilder("inject")
-                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
-                .addParameter(TypeName.get(appComponent.element.asType()), "app")
-                .build());
+        if (appComponent.components != null && appComponent.components.length > 0) {
+            for (TypeElement viewComponent : appComponent.components) {
+                component.addSuperinterface(ClassName.get(viewComponent));
+            }
+        }
+
+        // full graph can be used in every process, so it extends graphs of all processes
+        for (ProcessModel process : appComponent.processes) {
+            writeProcessComponent(process, children);
+            component.addSuperinterface(ClassName.get(appComponent.packageName, process.name));
+        }
+
+        component.addMethod(getInjectMethod());
 
         component.addMethods(getChildMethodBuilders(children));
+        component.addMethods(warmUpManager.getProvisionMethods(appComponent));
 
         JavaFile.builder(appComponent.packageName, component.build())
                 .indent("    ")
@@ -146,9 +176,103 @@ public class SingletonInjectorManager extends AbstractInjectorManager {
         return appComponent;
     }
 
-    private TypeSpec.Builder createComponent(ComponentModel model) {
+    private ProcessModel[] parseProcesses(Element app, AnnotationMirror annotationMirror) {
+
+        @SuppressWarnings("unchecked")
+        List<? extends AnnotationValue> values =
+                (List<? extends AnnotationValue>) getAnnotationValue(annotationMirror, "processes").getValue();
+
+        List<ProcessModel> processes = new ArrayList<>(values.size());
+        Set<String> suffixes = new HashSet<>();
 
-        TypeElement[] modules = model.modules;
+        for (AnnotationValue value : values) {
+            AnnotationMirror process = (AnnotationMirror) value.getValue();
+            String processName = (String) getAnnotationValue(process, "name").getValue();
+
+            StringBuilder suffix = new StringBuilder();
+            for (String part : processName.split("[^A-Za-z0-9]+")) {
+                if (!part.isEmpty()) {
+                    suffix.append(Character.toUpperCase(part.charAt(0))).append(part.substring(1));
+                }
+            }
+
+            if (suffix.length() == 0) {
+                messager.error("Process name \"" + processName + "\" needs letters or digits.", app);
+                continue;
+            } else if (!suffixes.add(suffix.toString())) {
+                messager.error("Process \"" + processName + "\" is declared more than once.", app);
+                continue;
+            }
+
+            List<TypeElement> children = new ArrayList<>();
+            for (TypeMirror child : convertClassArrayToListOfTypes(process, "children")) {
+                children.add((TypeElement) types.asElement(child));
+            }
+
+            ProcessModel model = new ProcessModel();
+            model.processName = processName;
+            model.suffix = suffix.toString();
+            model.name = Constants.CLASS_PREFIX + app.getSimpleName() + suffix + "Component";
+            model.modules = parseModuleElements(convertClassArrayToListOfTypes(process, "modules"));
+            model.children = children.toArray(new TypeElement[children.size()]);
+            processes.add(model);
+        }
+
+        return processes.toArray(new ProcessModel[processes.size()]);
+
+    }
+
+    private void writeProcessComponent(ProcessModel process, List<ComponentModel> children) throws IOException {
+
+        Map<Element, ProcessModel> used = new HashMap<>();
+        for (ProcessModel other : appComponent.processes) {
+            if (other == process) {
+                break;
+            }
+            for (TypeElement child : other.children) {
+                used.put(child, other);
+            }
+        }
+
+        List<ComponentModel> processChildren = new ArrayList<>();
+        for (TypeElement child : process.children) {
+            ComponentModel childModel = null;
+            for (ComponentModel model : children) {
+                if (model.element.equals(child)) {
+                    childModel = model;
+                }
+            }
+
+            if (childModel == null) {
+                messager.error(child.getSimpleName() + " is not @Rondel class with App parent, so process \""
+                        + process.processName + "\" can not inject it.", appComponent.element);
+            } else if (used.containsKey(child)) {
+                messager.error(child.getSimpleName() + " is injected by processes \"" + used.get(child).processName
+                        + "\" and \"" + process.processName + "\". Use it in one process only.", appComponent.element);
+            } else {
+                processChildren.add(childModel);
+            }
+        }
+
+        TypeSpec.Builder component = createComponent(process.name, process.modules)
+                .addMethod(getInjectMethod())
+                .addMethods(getChildMethodBuilders(processChildren));
+
+        JavaFile.builder(appComponent.packageName, component.build())
+                .indent("    ")
+                .build()
+                .writeTo(filer);
+
+    }
+
+    private MethodSpec getInjectMethod() {
+        return MethodSpec.methodBuilder("inject")
+                .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                .addParameter(TypeName.get(appComponent.element.asType()), "app")
+                .build();
+    }
+
+    private TypeSpec.Builder createComponent(String name, TypeElement[] modules) {
 
         CodeBlock.Builder codeBlock = CodeBlock.builder()
                 .add("{ ");
@@ -170,57 +294,81 @@ public class SingletonInjectorManager extends AbstractInjectorManager {
             componentAnnotation.addMember("modules", codeBlock.build());
         }
 
-        TypeSpec.Builder builder = TypeSpec.interfaceBuilder(model.name)
+        return TypeSpec.interfaceBuilder(name)
                 .addAnnotation(getGeneratedAnnotation())
                 .addAnnotation(componentAnnotation.build())
-                .addAnnotation(ClassName.get("javax.inject", "Singleton"))
+                .addAnnotation(Singleton.class)
                 .addModifiers(Modifier.PUBLIC)
                 .addSuperinterface(RondelComponent.class);
 
-        if (model.components != null && model.components.length > 0) {
-            for (TypeElement component : model.components) {
-                ClassName componentName = ClassName.get(component);
-                builder.addSuperinterface(componentName);
-            }
-        }
-
-        return builder;
-
     }
 
     private void writeAppInjector(InjectorModel model) throws IOException {
 
-        String name = model.component.name;
-        ClassName component =  ClassName.get(model.component.packageName, name);
-        ClassName daggerComponent =  ClassName.get(model.component.packageName, "Dagger" + name);
+        ClassName component =  ClassName.get(model.component.packageName, model.component.name);
+        ProcessModel[] processes = model.component.processes;
 
-        List<Object> formatParams = new ArrayList<Object>();
-        formatParams.add(component);
-        formatParams.add(daggerComponent);
+        // graph depends on the process, so callers only know it is a component
+        TypeName returnType = processes.length > 0 ? ClassName.get(RondelComponent.class) : component;
+
+        MethodSpec.Builder injectMethod = MethodSpec.methodBuilder("inject")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .returns(returnType)
+                .addParameter(TypeName.get(model.view), "injectie");
+
+        TypeSpec.Builder injector = TypeSpec.classBuilder(model.name)
+                .addAnnotation(getGeneratedAnnotation())
+                .addModifiers(Modifier.PUBLIC);
+        addStatsField(injector, model.view);
 
-        String methodFormat = "$T component = $T.builder()\n";
+        List<MethodSpec> processMethods = new ArrayList<>();
+        List<TypeElement> allModules = new ArrayList<>();
+        if (model.modules != null) {
+            allModules.addAll(Arrays.asList(model.modules));
+        }
+        boolean anyDisposable = false;
 
-        methodFormat += formatBuilderModule(model.modules, formatParams);
+        for (ProcessModel process : processes) {
+            String methodName = getMemberName(model.view, "inject" + process.suffix);
+            ClassName processComponent = ClassName.get(model.component.packageName, process.name);
 
-        methodFormat += "        .build();\n" +
-                "component.inject(injectie);\n" +
-                "return component;";
+            injectMethod.beginControlFlow("if ($T.is($S))", AppProcess.class, process.processName)
+                    .addStatement("return $L(injectie)", methodName)
+                    .endControlFlow();
 
-        CodeBlock injectLogic = CodeBlock.builder()
-                .add(methodFormat, formatParams.toArray())
-                .build();
+            MethodSpec.Builder processMethod = MethodSpec.methodBuilder(methodName)
+                    .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                    .returns(processComponent)
+                    .addParameter(TypeName.get(model.view), "injectie");
 
-        TypeSpec.Builder injector = TypeSpec.classBuilder(model.name)
-                .addAnnotation(getGeneratedAnnotation())
-                .addModifiers(Modifier.PUBLIC)
-                .addMethod(MethodSpec.methodBuilder("inject")
-                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
-                        .returns(component)
-                        .addParameter(TypeName.get(model.view), "injectie")
-                        .addCode(injectLogic)
-                        .build());
+            boolean disposable = hasDisposables(process.modules, model.packageName);
+            addInjectStatements(processMethod, getBuildLogic(processComponent, process.modules, model.packageName),
+                    model.view, ClassName.get(Singleton.class), disposable, false);
+            processMethods.add(processMethod.build());
+
+            if (process.modules != null) {
+                allModules.addAll(Arrays.asList(process.modules));
+            }
+            anyDisposable |= disposable;
+        }
 
-        addTestSpecs(model.modules, injector, model.view);
+        boolean disposable = hasDisposables(model.modules, model.packageName);
+        addInjectStatements(injectMethod, getBuildLogic(component, model.modules, model.packageName), model.view,
+                ClassName.get(Singleton.class), disposable, false);
+        injector.addMethod(injectMethod.build())
+                .addMethods(processMethods);
+
+        if (disposable || anyDisposable) {
+            injector.addMethod(getReleaseMethod((ClassName) returnType));
+        }
+
+        addTestSpecs(allModules.toArray(new TypeElement[allModules.size()]), injector, getInjectorName(model),
+                model.view, model.packageName);
+
+        if (options.isDispatcherEnabled()) {
+            dispatcherManager.add(model.packageName, injector.build());
+            return;
+        }
 
         JavaFile.builder(model.packageName, injector.build())
                 .indent("    ")
@@ -230,4 +378,32 @@ public class SingletonInjectorManager extends AbstractInjectorManager {
 
     }
 
+    private CodeBlock getBuildLogic(ClassName component, TypeElement[] modules, String packageName) {
+
+        ClassName daggerComponent =  ClassName.get(component.packageName(), "Dagger" + component.simpleName());
+
+        List<Object> formatParams = new ArrayList<Object>();
+        String methodFormat = "";
+
+        if (options.isRegistryEnabled()) {
+            formatParams.add(Injector.class);
+            formatParams.add(RegistryManager.getRegistryName(appComponent));
+            methodFormat += "$T.setRegistry(new $T());\n";
+        }
+
+        formatParams.add(component);
+        formatParams.add(daggerComponent);
+
+        methodFormat += "$T component = $T.builder()\n";
+
+        methodFormat += formatBuilderModule(modules, formatParams, packageName);
+
+        methodFormat += "        .build();\n";
+
+        return CodeBlock.builder()
+                .add(methodFormat, formatParams.toArray())
+                .build();
+
+    }
+
 }
@@ -19,34 +19,46 @@ package solar.blaz.rondel.compiler.manager;
 import com.squareup.javapoet.AnnotationSpec;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeName;
 import com.squareup.javapoet.TypeSpec;
 
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import javax.annotation.processing.Filer;
+import javax.annotation.processing.RoundEnvironment;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.PackageElement;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 
-import solar.blaz.rondel.ActivityScope;
-import solar.blaz.rondel.FragmentScope;
+import dagger.Module;
+import dagger.Provides;
+import solar.blaz.rondel.AppProcess;
 import solar.blaz.rondel.Rondel;
 import solar.blaz.rondel.RondelComponent;
-import solar.blaz.rondel.ServiceScope;
-import solar.blaz.rondel.ViewScope;
+import solar.blaz.rondel.ViewComponents;
 import solar.blaz.rondel.compiler.Constants;
+import solar.blaz.rondel.compiler.Options;
 import solar.blaz.rondel.compiler.model.ComponentModel;
 import solar.blaz.rondel.compiler.model.InjectorModel;
 
@@ -58,16 +70,28 @@ import static com.google.auto.common.MoreElements.getAnnotationMirror;
 @Singleton
 public class ViewInjectorManager extends AbstractInjectorManager {
 
+    private static final String TARGET_MODULE = "TargetModule";
+    private static final String FIND_PARENT = "findParent";
+    private static final String GET_PARENT = "getParent";
+    private static final String FIND_COMPONENT = "findComponent";
+
     private final Filer filer;
     private final Elements elementsUtil;
+    private final Types typesUtil;
     private final Messager messager;
+    private final Options options;
+    private final DispatcherManager dispatcherManager;
 
     @Inject
-    protected ViewInjectorManager(Messager messager, Elements elementUtils, Filer filer, Elements elementsUtil, Types typesUtil) {
-        super(messager, elementUtils, typesUtil);
+    protected ViewInjectorManager(Messager messager, Elements elementUtils, Filer filer, Elements elementsUtil, Types typesUtil,
+            Options options, DispatcherManager dispatcherManager) {
+        super(messager, elementUtils, typesUtil, options);
         this.messager = messager;
         this.filer = filer;
         this.elementsUtil = elementsUtil;
+        this.typesUtil = typesUtil;
+        this.options = options;
+        this.dispatcherManager = dispatcherManager;
     }
 
     public ComponentModel parse(Element element) {
@@ -85,6 +109,16 @@ public class ViewInjectorManager extends AbstractInjectorManager {
         TypeMirror parent = verifyParent(element, convertClassToType(annotationMirror, "parent"));
         TypeElement scope = verifyScope(convertClassToType(annotationMirror, "scope"));
 
+        boolean shared = convertToBoolean(annotationMirror, "shared");
+        if (shared && !isView(element.asType())) {
+            messager.error("Only views can be shared.", element);
+            return null;
+        }
+        if (shared && options.isBindTargetEnabled()) {
+            messager.error("Shared view can not be used with " + Options.BIND_TARGET + ".", element);
+            return null;
+        }
+
         InjectorModel injectorModel = new InjectorModel(element);
         injectorModel.name = Constants.CLASS_PREFIX + element.getSimpleName();
         injectorModel.packageName = elementsUtil.getPackageOf(element).getQualifiedName().toString();
@@ -100,6 +134,8 @@ public class ViewInjectorManager extends AbstractInjectorManager {
         componentModel.components = components;
         componentModel.parent = parent;
         componentModel.scope = scope;
+        componentModel.shared = shared;
+        componentModel.startupPriority = convertToInt(annotationMirror, "startupPriority");
         componentModel.injector = injectorModel;
         injectorModel.component = componentModel;
 
@@ -107,24 +143,100 @@ public class ViewInjectorManager extends AbstractInjectorManager {
 
     }
 
+    /**
+     * Finds classes of this round that extend abstract {@code @Rondel} class and do not have their
+     * own {@code @Rondel}. They share component and injector of that class, which injects only
+     * members declared by it and its superclasses.
+     */
+    public void parseSubclasses(RoundEnvironment env, List<ComponentModel> models) {
+
+        Map<Element, List<TypeElement>> subclasses = new HashMap<>();
+        for (ComponentModel model : models) {
+            if (model.element.getModifiers().contains(Modifier.ABSTRACT)) {
+                subclasses.put(model.element, new ArrayList<TypeElement>());
+            }
+        }
+
+        if (subclasses.isEmpty()) {
+            return;
+        }
+
+        for (TypeElement type : ElementFilter.typesIn(env.getRootElements())) {
+            collectSubclasses(type, subclasses);
+        }
+
+        for (ComponentModel model : models) {
+            List<TypeElement> modelSubclasses = subclasses.get(model.element);
+            if (modelSubclasses != null) {
+                model.subclasses = modelSubclasses.toArray(new TypeElement[modelSubclasses.size()]);
+            }
+        }
+
+    }
+
+    private void collectSubclasses(TypeElement type, Map<Element, List<TypeElement>> subclasses) {
+
+        if (type.getKind() == ElementKind.CLASS && type.getAnnotation(Rondel.class) == null) {
+            collectSubclass(type, subclasses);
+        }
+
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            collectSubclasses(nested, subclasses);
+        }
+
+    }
+
+    private void collectSubclass(TypeElement type, Map<Element, List<TypeElement>> subclasses) {
+
+        // closest @Rondel superclass decides which injector is used
+        TypeElement base = null;
+        TypeMirror superclass = type.getSuperclass();
+        while (base == null && superclass.getKind() == TypeKind.DECLARED) {
+            TypeElement element = (TypeElement) typesUtil.asElement(superclass);
+            if (element.getAnnotation(Rondel.class) != null) {
+                base = element;
+            }
+            superclass = element.getSuperclass();
+        }
+
+        if (base == null || !subclasses.containsKey(base)) {
+            return;
+        }
+
+        if (hasInjectMembers(type)) {
+            messager.warning(type.getSimpleName() + " declares @Inject members that are not injected by "
+                    + Constants.CLASS_PREFIX + base.getSimpleName() + ". Move them to " + base.getSimpleName()
+                    + " or add @Rondel to " + type.getSimpleName() + ".", type);
+        }
+
+        if (!type.getModifiers().contains(Modifier.ABSTRACT)) {
+            subclasses.get(base).add(type);
+        }
+
+    }
+
     public void write(ComponentModel model, ComponentModel parent, List<ComponentModel> children) throws IOException {
 
-        String[] moduleNames;
-        TypeElement[] modules = model.modules;
-        if (modules != null && modules.length > 0) {
-            moduleNames = new String[modules.length];
-            for (int i = 0; i < modules.length; i++) {
-                moduleNames[i] = modules[i].getSimpleName().toString() + ".class";
+        List<CodeBlock> moduleNames = new ArrayList<>();
+        if (model.modules != null) {
+            for (TypeElement module : model.modules) {
+                moduleNames.add(CodeBlock.of("$T.class", module));
             }
-        } else {
-            moduleNames = new String[0];
+        }
+
+        if (options.isBindTargetEnabled()) {
+            moduleNames.add(CodeBlock.of("$L.$L.class", model.name, TARGET_MODULE));
         }
 
         AnnotationSpec.Builder subcomponentAnnotation =
                 AnnotationSpec.builder(ClassName.get("dagger", "Subcomponent"));
 
-        if (moduleNames.length > 0) {
-            subcomponentAnnotation.addMember("modules", "{ " + String.join(", ", moduleNames) + " }");
+        if (!moduleNames.isEmpty()) {
+            CodeBlock.Builder modules = CodeBlock.builder().add("{ ");
+            for (int i = 0; i < moduleNames.size(); i++) {
+                modules.add(i == 0 ? "$L" : ", $L", moduleNames.get(i));
+            }
+            subcomponentAnnotation.addMember("modules", modules.add(" }").build());
         }
 
         TypeSpec.Builder builder = TypeSpec.interfaceBuilder(model.name)
@@ -139,28 +251,13 @@ public class ViewInjectorManager extends AbstractInjectorManager {
                         .addParameter(TypeName.get(model.view), "view")
                         .build());
 
-        if (model.scope == null) {
-
-            TypeMirror elementType = model.element.asType();
-            boolean isActivity = isActivity(elementType);
-            boolean isService = isService(elementType);
-            boolean isFragment = isFragment(elementType);
-            boolean isView = isView(elementType);
-
-            if (isActivity) {
-                builder.addAnnotation(ActivityScope.class);
-            } else if (isService) {
-                builder.addAnnotation(ServiceScope.class);
-            } else if (isFragment) {
-                builder.addAnnotation(FragmentScope.class);
-            } else if (isView) {
-                builder.addAnnotation(ViewScope.class);
-            } else {
-                messager.error("Scope for type could not be found");
-            }
+        if (options.isBindTargetEnabled()) {
+            builder.addType(getTargetModule(model));
+        }
 
-        } else {
-            builder.addAnnotation(ClassName.get(model.scope));
+        ClassName scope = getScope(model);
+        if (scope != null) {
+            builder.addAnnotation(scope);
         }
 
         if (model.components != null && model.components.length > 0) {
@@ -175,7 +272,32 @@ public class ViewInjectorManager extends AbstractInjectorManager {
                 .build()
                 .writeTo(filer);
 
-        writeInjector(model.injector, parent);
+        writeInjector(model.injector, parent, children);
+
+    }
+
+    /**
+     * Module that provides injected instance to the component, so user modules can get it as a
+     * {@code @Provides} method parameter instead of capturing it in a constructor.
+     */
+    private TypeSpec getTargetModule(ComponentModel model) {
+
+        TypeName target = TypeName.get(model.view);
+
+        return TypeSpec.classBuilder(TARGET_MODULE)
+                .addAnnotation(Module.class)
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .addField(target, "target", Modifier.PRIVATE, Modifier.FINAL)
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addParameter(target, "target")
+                        .addStatement("this.target = target")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("provideTarget")
+                        .addAnnotation(Provides.class)
+                        .returns(target)
+                        .addStatement("return target")
+                        .build())
+                .build();
 
     }
 
@@ -184,20 +306,29 @@ public class ViewInjectorManager extends AbstractInjectorManager {
         TypeSpec.Builder builder = TypeSpec.interfaceBuilder("Builder")
                 .addModifiers(Modifier.PUBLIC, Modifier.STATIC);
 
-        TypeElement[] modules = model.modules;
-        if (modules != null && modules.length > 0) {
-            for (TypeElement module : modules) {
+        if (options.isBindTargetEnabled()) {
+            builder.addMethod(MethodSpec.methodBuilder("targetModule")
+                    .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                    .returns(ClassName.bestGuess("Builder"))
+                    .addParameter(ClassName.get(model.packageName, model.name, TARGET_MODULE), "module")
+                    .build());
+        }
 
-                String moduleName = module.getSimpleName().toString();
-                TypeName moduleType = TypeName.get(module.asType());
-                String methodName = Character.toLowerCase(moduleName.charAt(0)) + moduleName.substring(1);
+        for (TypeElement module : getModules(model.modules)) {
 
-                builder.addMethod(MethodSpec.methodBuilder(methodName)
-                        .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
-                        .returns(ClassName.bestGuess("Builder"))
-                        .addParameter(moduleType, "module")
-                        .build());
+            if (isAbstractModule(module)) {
+                continue;
             }
+
+            String moduleName = module.getSimpleName().toString();
+            TypeName moduleType = TypeName.get(module.asType());
+            String methodName = Character.toLowerCase(moduleName.charAt(0)) + moduleName.substring(1);
+
+            builder.addMethod(MethodSpec.methodBuilder(methodName)
+                    .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                    .returns(ClassName.bestGuess("Builder"))
+                    .addParameter(moduleType, "module")
+                    .build());
         }
 
         String name = model.name;
@@ -213,13 +344,28 @@ public class ViewInjectorManager extends AbstractInjectorManager {
 
     }
 
-    private void writeInjector(InjectorModel model, ComponentModel parent) throws IOException {
+    private void writeInjector(InjectorModel model, ComponentModel parent, List<ComponentModel> children)
+            throws IOException {
 
         TypeSpec.Builder injector = TypeSpec.classBuilder(model.name)
                 .addAnnotation(getGeneratedAnnotation());
 
+        if (options.isRegistryEnabled()) {
+            // registry in App package dispatches to this injector
+            injector.addModifiers(Modifier.PUBLIC);
+        }
+
         addInjectMethods(model, parent, injector);
-        addTestSpecs(model.modules, injector, model.view);
+
+        if (isFragment(model.view) && hasViewChildren(children)) {
+            injector.addMethod(getPublishMethod(model));
+        }
+        addTestSpecs(model.modules, injector, getInjectorName(model), model.view, model.packageName);
+
+        if (options.isDispatcherEnabled()) {
+            dispatcherManager.add(model.packageName, injector.build());
+            return;
+        }
 
         JavaFile.builder(model.packageName, injector.build())
                 .indent("    ")
@@ -240,11 +386,12 @@ public class ViewInjectorManager extends AbstractInjectorManager {
         boolean isView = isView(model.superType);
 
         ClassName parentClass = (ClassName) ClassName.get(parent.element.asType());
-        ClassName parentComponentClass = ClassName.get(parent.packageName, parent.name);
+        ClassName parentComponentClass = getParentComponentName(parent, model.element);
 
-        CodeBlock injectLogic;
+        CodeBlock buildLogic;
         StringBuilder formatBuilder = new StringBuilder();
         List<Object> formatParams = new ArrayList<>();
+        boolean publishedParent = false;
 
         if (isActivity || isService) {
 
@@ -255,19 +402,23 @@ public class ViewInjectorManager extends AbstractInjectorManager {
 
         } else if (isFragment) {
 
-            formatParams.add(parentClass);
-            formatParams.add(parentClass);
-
             boolean isParentApp = isApplication(parent.element.asType());
             boolean isParentActivity = isActivity(parent.element.asType());
             boolean isParentFragment = isFragment(parent.element.asType());
 
             if (isParentApp) {
+                formatParams.add(parentClass);
+                formatParams.add(parentClass);
                 formatBuilder.append("$T parent = ($T) injectie.getActivity().getApplicationContext();\n");
             } else if (isParentActivity) {
+                formatParams.add(parentClass);
+                formatParams.add(parentClass);
                 formatBuilder.append("$T parent = ($T) injectie.getActivity();\n");
             } else if (isParentFragment) {
-                formatBuilder.append("$T parent = ($T) injectie.getParentFragment();\n");
+                formatParams.add(parentClass);
+                formatParams.add(getMemberName(model.view, FIND_PARENT));
+                formatBuilder.append("$T parent = $L(injectie.getParentFragment());\n");
+                addFindParentFragment(injector, model.view, parentClass);
             } else {
                 messager.error("Unknown parent type", model.element);
                 return;
@@ -275,21 +426,30 @@ public class ViewInjectorManager extends AbstractInjectorManager {
 
         } else if (isView) {
 
-            formatParams.add(parentClass);
-            formatParams.add(parentClass);
-
             boolean isParentApp = isApplication(parent.element.asType());
             boolean isParentActivity = isActivity(parent.element.asType());
             boolean isParentView = isView(parent.element.asType());
+            boolean isParentFragment = isFragment(parent.element.asType());
+
+            if (!isParentFragment) {
+                formatParams.add(parentClass);
+                formatParams.add(parentClass);
+            }
 
             formatBuilder = new StringBuilder();
-            if (isParentApp) {
+            if (isParentFragment) {
+                // fragment is not reachable from the view, its component is published on fragment view
+                publishedParent = true;
+                addFindComponent(injector, model.view, parentComponentClass, parent);
+            } else if (isParentApp) {
                 formatBuilder.append("$T parent = ($T) injectie.getContext().getApplicationContext();\n");
             } else if (isParentActivity) {
                 formatBuilder.append("$T parent = ($T) injectie.getContext();\n");
             } else if (isParentView) {
-                formatBuilder.append("$T parent = ($T) getParent(injectie.getParent());\n");
-                injector.addMethod(MethodSpec.methodBuilder("getParent")
+                String getParent = getMemberName(model.view, GET_PARENT);
+                formatParams.add(getParent);
+                formatBuilder.append("$T parent = ($T) $L(injectie.getParent());\n");
+                injector.addMethod(MethodSpec.methodBuilder(getParent)
                         .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
                         .addParameter(ClassName.get("android.view", "ViewParent"), "view")
                         .returns(parentClass)
@@ -300,9 +460,9 @@ public class ViewInjectorManager extends AbstractInjectorManager {
                                 + "    if (parent == null) {\n"
                                 + "        throw new IllegalStateException(\"Parent not found\");\n"
                                 + "    } else {\n"
-                                + "        return getParent(parent);\n"
+                                + "        return $L(parent);\n"
                                 + "    }\n"
-                                + "}\n", parentClass, parentClass))
+                                + "}\n", parentClass, parentClass, getParent))
                         .build());
             } else {
                 messager.error("Unknown parent type", model.element);
@@ -314,33 +474,230 @@ public class ViewInjectorManager extends AbstractInjectorManager {
             return;
         }
 
-        formatParams.add(parentComponentClass);
-        formatParams.add(parentComponentClass);
-        formatParams.add(component);
-        formatParams.add(builderMethodName);
+        if (publishedParent) {
+            formatParams.add(parentComponentClass);
+            formatParams.add(getMemberName(model.view, FIND_COMPONENT));
+            formatBuilder.append("$T baseComponent = $L(injectie);\n");
+        } else if (parent.processes != null && parent.processes.length > 0
+                && parentComponentClass.simpleName().equals(parent.name)) {
+            // App of other processes is injected with process component that does not build this child
+            String childName = model.element.getSimpleName().toString();
+            formatParams.add(RondelComponent.class);
+            formatParams.add(parentComponentClass);
+            formatParams.add(IllegalStateException.class);
+            formatParams.add(childName + " needs " + parent.name + ", which is not built in process ");
+            formatParams.add(AppProcess.class);
+            formatParams.add(". Add " + childName + " to children of its @App.Process.");
+            formatParams.add(parentComponentClass);
+            formatParams.add(parentComponentClass);
+            formatBuilder.append("$T appComponent = parent.getComponent();\n")
+                    .append("if (!(appComponent instanceof $T)) {\n")
+                    .append("    throw new $T($S + $T.getName() + $S);\n")
+                    .append("}\n")
+                    .append("$T baseComponent = ($T) appComponent;\n");
+        } else {
+            formatParams.add(parentComponentClass);
+            formatParams.add(parentComponentClass);
+            formatBuilder.append("$T baseComponent = ($T) parent.getComponent();\n");
+        }
 
-        formatBuilder.append("$T baseComponent = ($T) parent.getComponent();\n" +
-                "$T component = baseComponent.$L()\n");
+        StringBuilder builderFormat = new StringBuilder("baseComponent.$L()\n");
+        List<Object> builderParams = new ArrayList<>();
+        builderParams.add(builderMethodName);
 
-        formatBuilder.append(formatBuilderModule(model.modules, formatParams));
+        if (options.isBindTargetEnabled()) {
+            builderFormat.append("        .targetModule(new $T(injectie))\n");
+            builderParams.add(component.nestedClass(TARGET_MODULE));
+        }
 
-        formatBuilder.append("        .build();\n" +
-                "component.inject(injectie);\n" +
-                "return component;");
+        builderFormat.append(formatBuilderModule(model.modules, builderParams, model.packageName));
+        builderFormat.append("        .build()");
 
-        injectLogic = CodeBlock.builder()
+        CodeBlock componentBuilder = CodeBlock.builder()
+                .add(builderFormat.toString(), builderParams.toArray())
+                .build();
+
+        formatParams.add(component);
+        if (model.component.shared) {
+            String getSharedComponent = getMemberName(model.view, "getSharedComponent");
+            addSharedComponent(injector, model, getSharedComponent, parentComponentClass, component, componentBuilder);
+            formatParams.add(getSharedComponent);
+            formatBuilder.append("$T component = $L(baseComponent, injectie);\n");
+        } else {
+            formatParams.add(componentBuilder);
+            formatBuilder.append("$T component = $L;\n");
+        }
+
+        buildLogic = CodeBlock.builder()
                 .add(formatBuilder.toString(), formatParams.toArray())
                 .build();
 
-        injector.addMethod(MethodSpec.methodBuilder("inject")
+        MethodSpec.Builder injectMethod = MethodSpec.methodBuilder("inject")
                 .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
                 .returns(component)
-                .addParameter(TypeName.get(model.view), "injectie")
-                .addCode(injectLogic)
+                .addParameter(TypeName.get(model.view), "injectie");
+
+        boolean disposable = hasDisposables(model.modules, model.packageName);
+        addInjectStatements(injectMethod, buildLogic, model.view, getScope(model.component), disposable,
+                model.component.shared);
+
+        injector.addMethod(injectMethod.build());
+        addStatsField(injector, model.view);
+
+        if (disposable) {
+            injector.addMethod(getReleaseMethod(component));
+        }
+
+    }
+
+    /**
+     * Shared component is built once for every parent component and weakly cached, so it does not
+     * keep parent component alive. Modules are created for the first view, so they can not depend on it.
+     * Build is traced, counted and tracked only when component is not cached yet.
+     */
+    private void addSharedComponent(TypeSpec.Builder injector, InjectorModel model, String methodName,
+            ClassName parentComponentClass, ClassName component, CodeBlock componentBuilder) {
+
+        for (TypeElement module : getModules(model.modules)) {
+            if (isAbstractModule(module)) {
+                continue;
+            }
+
+            ExecutableElement constructor = getConstructor(module, model.view);
+            if (constructor != null && !constructor.getParameters().isEmpty()) {
+                messager.error("Modules of shared view can not take the view in constructor.", model.element);
+            }
+        }
+        if (hasDisposables(model.modules, model.packageName)) {
+            messager.error("Modules of shared view can not provide scoped Closeable instances.", model.element);
+        }
+
+        String sharedComponents = getMemberName(model.view, "sharedComponents");
+        TypeName reference = ParameterizedTypeName.get(ClassName.get(WeakReference.class), component);
+
+        injector.addField(FieldSpec.builder(ParameterizedTypeName.get(ClassName.get(Map.class), parentComponentClass, reference),
+                        sharedComponents)
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("new $T<$T, $T>()", WeakHashMap.class, parentComponentClass, reference)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder(methodName)
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.SYNCHRONIZED)
+                        .addParameter(parentComponentClass, "baseComponent")
+                        .addParameter(TypeName.get(model.view), "injectie")
+                        .returns(component)
+                        .addCode(CodeBlock.builder()
+                                .addStatement("$T reference = $L.get(baseComponent)", reference, sharedComponents)
+                                .addStatement("$T component = reference != null ? reference.get() : null", component)
+                                .beginControlFlow("if (component == null)")
+                                .add(getSharedBuild(componentBuilder, model.view, getScope(model.component),
+                                        "baseComponent"))
+                                .addStatement("$L.put(baseComponent, new $T(component))", sharedComponents, reference)
+                                .endControlFlow()
+                                .addStatement("return component")
+                                .build())
+                        .build());
+
+    }
+
+    /**
+     * Parent fragment does not have to be the direct parent, so fragment can be nested in other
+     * fragments. Last resolved parent is cached, so sibling fragments do not walk the hierarchy again.
+     */
+    private void addFindParentFragment(TypeSpec.Builder injector, TypeMirror view, ClassName parentClass) {
+
+        ClassName fragmentClass = isSupportFragment(view)
+                ? ClassName.get("android.support.v4.app", "Fragment")
+                : ClassName.get("android.app", "Fragment");
+
+        String cachedHost = getMemberName(view, "cachedHost");
+        String cachedParent = getMemberName(view, "cachedParent");
+
+        injector.addField(FieldSpec.builder(ParameterizedTypeName.get(ClassName.get(WeakReference.class), fragmentClass), cachedHost)
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                        .build())
+                .addField(FieldSpec.builder(ParameterizedTypeName.get(ClassName.get(WeakReference.class), parentClass), cachedParent)
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder(getMemberName(view, FIND_PARENT))
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.SYNCHRONIZED)
+                        .addParameter(fragmentClass, "host")
+                        .returns(parentClass)
+                        .addCode(CodeBlock.builder()
+                                .beginControlFlow("if (host != null && $L != null && $L.get() == host)", cachedHost, cachedHost)
+                                .addStatement("$T parent = $L.get()", parentClass, cachedParent)
+                                .beginControlFlow("if (parent != null)")
+                                .addStatement("return parent")
+                                .endControlFlow()
+                                .endControlFlow()
+                                .addStatement("$T fragment = host", fragmentClass)
+                                .beginControlFlow("while (fragment != null && !(fragment instanceof $T))", parentClass)
+                                .addStatement("fragment = fragment.getParentFragment()")
+                                .endControlFlow()
+                                .beginControlFlow("if (fragment == null)")
+                                .addStatement("throw new $T($S)", IllegalStateException.class,
+                                        "Parent " + parentClass.simpleName() + " not found")
+                                .endControlFlow()
+                                .addStatement("$T parent = ($T) fragment", parentClass, parentClass)
+                                .addStatement("$L = new $T<$T>(host)", cachedHost, WeakReference.class, fragmentClass)
+                                .addStatement("$L = new $T<$T>(parent)", cachedParent, WeakReference.class, parentClass)
+                                .addStatement("return parent")
+                                .build())
+                        .build());
+
+    }
+
+    /**
+     * Looks for component of parent fragment published on the nearest view up the hierarchy.
+     */
+    private void addFindComponent(TypeSpec.Builder injector, TypeMirror view, ClassName parentComponentClass,
+            ComponentModel parent) {
+
+        ClassName parentInjector = getInjectorName(parent.injector);
+
+        injector.addMethod(MethodSpec.methodBuilder(getMemberName(view, FIND_COMPONENT))
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .addParameter(ClassName.get("android.view", "View"), "view")
+                .returns(parentComponentClass)
+                .addCode(CodeBlock.builder()
+                        .addStatement("$T component = $T.get(view)", RondelComponent.class, ViewComponents.class)
+                        .addStatement("$T parent = view.getParent()", ClassName.get("android.view", "ViewParent"))
+                        .beginControlFlow("while (!(component instanceof $T) && parent != null)", parentComponentClass)
+                        .addStatement("component = $T.get(parent)", ViewComponents.class)
+                        .addStatement("parent = parent.getParent()")
+                        .endControlFlow()
+                        .beginControlFlow("if (!(component instanceof $T))", parentComponentClass)
+                        .addStatement("throw new $T($S)", IllegalStateException.class,
+                                "No " + parent.element.getSimpleName() + " component found. Call "
+                                        + parentInjector.simpleName() + ".publish(fragment) from onViewCreated.")
+                        .endControlFlow()
+                        .addStatement("return ($T) component", parentComponentClass)
+                        .build())
                 .build());
 
     }
 
+    /**
+     * Publishes fragment component on its view, so child views can find it.
+     */
+    private MethodSpec getPublishMethod(InjectorModel model) {
+        return MethodSpec.methodBuilder("publish")
+                .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                .addParameter(TypeName.get(model.view), "fragment")
+                .addStatement("$T.publish(fragment.getView(), fragment.getComponent())", ViewComponents.class)
+                .build();
+    }
+
+    private boolean hasViewChildren(List<ComponentModel> children) {
+        if (children != null) {
+            for (ComponentModel child : children) {
+                if (isView(child.view)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     private boolean isValidType(Element element) {
         TypeMirror typeMirror = element.asType();
         return isActivity(typeMirror) || isService(typeMirror) || isFragment(typeMirror) || isView(typeMirror);
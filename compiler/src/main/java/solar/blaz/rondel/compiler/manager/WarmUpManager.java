@@ -0,0 +1,350 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.compiler.manager;
+
+import com.google.common.collect.ImmutableSet;
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ArrayTypeName;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.JavaFile;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import javax.annotation.processing.Filer;
+import javax.inject.Inject;
+import javax.inject.Qualifier;
+import javax.inject.Singleton;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import dagger.Binds;
+import dagger.Provides;
+import solar.blaz.rondel.WarmUp;
+import solar.blaz.rondel.compiler.Constants;
+import solar.blaz.rondel.compiler.Options;
+import solar.blaz.rondel.compiler.model.ComponentModel;
+
+/**
+ * Finds {@code @Singleton @Provides} methods of App modules and writes {@code Rondel<App>WarmUp}
+ * that creates them on an executor. App component gets a provision method for each of them.
+ * Singleton waits for singletons it depends on, directly or through unscoped bindings of App
+ * modules, everything else runs in parallel.
+ */
+@Singleton
+public class WarmUpManager extends AbstractInjectorManager {
+
+    private static final Set<String> WRAPPERS =
+            ImmutableSet.of("javax.inject.Provider", "dagger.Lazy", "dagger.MembersInjector");
+
+    private final Elements elementUtils;
+    private final Types typesUtil;
+    private final Filer filer;
+    private final Options options;
+
+    private List<Binding> singletons;
+
+    @Inject
+    public WarmUpManager(Messager messager, Elements elementUtils, Filer filer, Types typesUtil, Options options) {
+        super(messager, elementUtils, typesUtil, options);
+        this.elementUtils = elementUtils;
+        this.typesUtil = typesUtil;
+        this.filer = filer;
+        this.options = options;
+    }
+
+    public static ClassName getWarmUpName(ComponentModel appComponent) {
+        return ClassName.get(appComponent.packageName,
+                Constants.CLASS_PREFIX + appComponent.element.getSimpleName() + "WarmUp");
+    }
+
+    /**
+     * Provision methods that App component needs, so warm-up can reach singletons.
+     */
+    public List<MethodSpec> getProvisionMethods(ComponentModel app) {
+
+        List<MethodSpec> methods = new ArrayList<>();
+        if (!options.isWarmUpEnabled()) {
+            return methods;
+        }
+
+        for (Binding singleton : getSingletons(app)) {
+            MethodSpec.Builder method = MethodSpec.methodBuilder(singleton.provisionName)
+                    .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                    .returns(TypeName.get(singleton.method.getReturnType()));
+            if (singleton.qualifier != null) {
+                method.addAnnotation(AnnotationSpec.get(singleton.qualifier));
+            }
+            methods.add(method.build());
+        }
+        return methods;
+
+    }
+
+    public void write(ComponentModel app) throws IOException {
+
+        if (!options.isWarmUpEnabled()) {
+            return;
+        }
+
+        List<Binding> singletons = getSingletons(app);
+        ClassName component = ClassName.get(app.packageName, app.name);
+
+        CodeBlock.Builder dependencies = CodeBlock.builder().add("{");
+        CodeBlock.Builder dispatch = CodeBlock.builder()
+                .beginControlFlow("switch (index)");
+
+        for (int i = 0; i < singletons.size(); i++) {
+            Binding singleton = singletons.get(i);
+
+            dependencies.add(i == 0 ? " {" : ", {");
+            int j = 0;
+            for (Integer dependency : singleton.singletonDependencies) {
+                dependencies.add(j++ == 0 ? " $L" : ", $L", dependency);
+            }
+            dependencies.add(j == 0 ? "}" : " }");
+
+            dispatch.add("case $L:\n", i)
+                    .indent()
+                    .addStatement("component.$L()", singleton.provisionName)
+                    .addStatement("break")
+                    .unindent();
+        }
+
+        dependencies.add(singletons.isEmpty() ? "}" : " }");
+        dispatch.endControlFlow();
+
+        TypeSpec task = TypeSpec.anonymousClassBuilder("")
+                .addSuperinterface(WarmUp.Task.class)
+                .addMethod(MethodSpec.methodBuilder("run")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .addParameter(TypeName.INT, "index")
+                        .addCode(dispatch.build())
+                        .build())
+                .build();
+
+        TypeSpec warmUp = TypeSpec.classBuilder(getWarmUpName(app))
+                .addAnnotation(getGeneratedAnnotation())
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addField(FieldSpec.builder(ArrayTypeName.of(ArrayTypeName.of(TypeName.INT)), "DEPENDENCIES")
+                        .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer(dependencies.build())
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("warmUp")
+                        .addJavadoc("Creates App singletons on {@code executor}. Call it right after App is injected.\n")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .returns(WarmUp.class)
+                        .addParameter(component, "component", Modifier.FINAL)
+                        .addParameter(Executor.class, "executor")
+                        .addStatement("return $T.start(executor, DEPENDENCIES, $L)", WarmUp.class, task)
+                        .build())
+                .build();
+
+        JavaFile.builder(app.packageName, warmUp)
+                .indent("    ")
+                .build()
+                .writeTo(filer);
+
+    }
+
+    private List<Binding> getSingletons(ComponentModel app) {
+
+        if (singletons != null) {
+            return singletons;
+        }
+
+        singletons = new ArrayList<>();
+        Map<String, Binding> bindings = new HashMap<>();
+
+        if (app.modules != null) {
+            for (TypeElement module : getModules(app.modules)) {
+                for (ExecutableElement method : getModuleMethods(module)) {
+
+                    Provides provides = method.getAnnotation(Provides.class);
+                    if (provides == null && method.getAnnotation(Binds.class) == null) {
+                        continue;
+                    }
+                    if (provides != null && provides.type() != Provides.Type.UNIQUE || isMultibinding(method)) {
+                        continue;
+                    }
+
+                    Binding binding = new Binding();
+                    binding.method = method;
+                    binding.qualifier = getQualifier(method);
+                    binding.key = getKey(binding.qualifier, method.getReturnType());
+                    bindings.put(binding.key, binding);
+
+                    if (provides != null && method.getAnnotation(Singleton.class) != null
+                            && isAccessible(method.getReturnType(), app.packageName)) {
+                        String moduleName = module.getSimpleName().toString();
+                        String methodName = method.getSimpleName().toString();
+                        binding.provisionName = "warmUp" + moduleName
+                                + Character.toUpperCase(methodName.charAt(0)) + methodName.substring(1);
+                        singletons.add(binding);
+                    }
+                }
+            }
+        }
+
+        for (Binding singleton : singletons) {
+            Set<Binding> reached = new LinkedHashSet<>();
+            collectSingletons(singleton, bindings, new HashSet<Binding>(), reached);
+            for (Binding dependency : reached) {
+                singleton.singletonDependencies.add(singletons.indexOf(dependency));
+            }
+        }
+
+        return singletons;
+
+    }
+
+    /**
+     * Follows dependencies through unscoped bindings until singletons are reached. Dependencies
+     * behind {@code Provider} or {@code Lazy} are not created eagerly, so they are not followed.
+     */
+    private void collectSingletons(Binding binding, Map<String, Binding> bindings, Set<Binding> visited,
+            Set<Binding> reached) {
+
+        for (VariableElement parameter : binding.method.getParameters()) {
+
+            if (isWrapper(parameter.asType())) {
+                continue;
+            }
+
+            Binding dependency = bindings.get(getKey(getQualifier(parameter), parameter.asType()));
+            if (dependency == null || !visited.add(dependency)) {
+                continue;
+            }
+
+            if (dependency.provisionName != null) {
+                reached.add(dependency);
+            } else {
+                collectSingletons(dependency, bindings, visited, reached);
+            }
+        }
+
+    }
+
+    private List<ExecutableElement> getModuleMethods(TypeElement module) {
+
+        List<ExecutableElement> methods = new ArrayList<>();
+        TypeElement type = module;
+        while (type != null && !Object.class.getName().equals(type.getQualifiedName().toString())) {
+            methods.addAll(ElementFilter.methodsIn(type.getEnclosedElements()));
+            TypeMirror superclass = type.getSuperclass();
+            type = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) typesUtil.asElement(superclass) : null;
+        }
+        return methods;
+
+    }
+
+    private boolean isMultibinding(ExecutableElement method) {
+        for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().toString().startsWith("dagger.multibindings.")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Provision method is declared in App package, so provided type has to be visible there.
+     */
+    private boolean isAccessible(TypeMirror type, String packageName) {
+
+        if (type.getKind() != TypeKind.DECLARED) {
+            return type.getKind().isPrimitive();
+        }
+
+        Element element = typesUtil.asElement(type);
+        boolean samePackage = elementUtils.getPackageOf(element).getQualifiedName().contentEquals(packageName);
+        while (!(element instanceof PackageElement)) {
+            Set<Modifier> modifiers = element.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) || !samePackage && !modifiers.contains(Modifier.PUBLIC)) {
+                return false;
+            }
+            element = element.getEnclosingElement();
+        }
+
+        for (TypeMirror argument : ((DeclaredType) type).getTypeArguments()) {
+            if (!isAccessible(argument, packageName)) {
+                return false;
+            }
+        }
+        return true;
+
+    }
+
+    private boolean isWrapper(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        TypeElement element = (TypeElement) typesUtil.asElement(type);
+        return WRAPPERS.contains(element.getQualifiedName().toString());
+    }
+
+    private AnnotationMirror getQualifier(Element site) {
+        for (AnnotationMirror annotation : site.getAnnotationMirrors()) {
+            if (annotation.getAnnotationType().asElement().getAnnotation(Qualifier.class) != null) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private String getKey(AnnotationMirror qualifier, TypeMirror type) {
+        TypeMirror keyType = type;
+        if (keyType.getKind().isPrimitive()) {
+            keyType = typesUtil.boxedClass(typesUtil.getPrimitiveType(keyType.getKind())).asType();
+        }
+        return qualifier != null ? qualifier + " " + keyType : keyType.toString();
+    }
+
+    private static final class Binding {
+        ExecutableElement method;
+        AnnotationMirror qualifier;
+        String key;
+        String provisionName;
+        final Set<Integer> singletonDependencies = new LinkedHashSet<>();
+    }
+
+}
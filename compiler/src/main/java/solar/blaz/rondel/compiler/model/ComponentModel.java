@@ -33,6 +33,10 @@ public class ComponentModel {
     public Element element;
     public TypeMirror parent;
     public TypeElement scope;
+    public boolean shared;
+    public int startupPriority;
+    public ProcessModel[] processes;
+    public TypeElement[] subclasses;
 
     public InjectorModel injector;
 
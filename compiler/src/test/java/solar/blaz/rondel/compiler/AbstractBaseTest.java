@@ -0,0 +1,157 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.compiler;
+
+import com.google.common.collect.ImmutableList;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+
+import dagger.internal.codegen.ComponentProcessor;
+
+import static com.google.common.truth.Truth.assertAbout;
+import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
+
+public class AbstractBaseTest {
+
+    private final JavaFileObject appFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
+            + "\n"
+            + "import android.app.Application;\n"
+            + "import solar.blaz.rondel.App;\n"
+            + "import solar.blaz.rondel.ComponentProvider;\n"
+            + "\n"
+            + "@App\n"
+            + "public class TestApp extends Application implements ComponentProvider {\n"
+            + "    public RondelTestAppComponent getComponent() {\n"
+            + "        return null;\n"
+            + "    }\n"
+            + "}");
+
+    private final JavaFileObject baseFile = JavaFileObjects.forSourceString("test.ui.BaseListActivity", "package test.ui;\n"
+            + "\n"
+            + "import android.app.Activity;\n"
+            + "import javax.inject.Inject;\n"
+            + "import solar.blaz.rondel.Rondel;\n"
+            + "\n"
+            + "@Rondel\n"
+            + "public abstract class BaseListActivity extends Activity {\n"
+            + "    @Inject void setUp() {\n"
+            + "    }\n"
+            + "}");
+
+    private final JavaFileObject feedFile = JavaFileObjects.forSourceString("test.ui.FeedActivity", "package test.ui;\n"
+            + "\n"
+            + "public class FeedActivity extends BaseListActivity {\n"
+            + "    public static class Tablet extends FeedActivity {\n"
+            + "    }\n"
+            + "}");
+
+    @Test
+    public void testRegistry() throws Exception {
+
+        JavaFileObject searchFile = JavaFileObjects.forSourceString("test.ui.SearchActivity", "package test.ui;\n"
+                + "\n"
+                + "class SearchActivity extends BaseListActivity {\n"
+                + "}");
+
+        JavaFileObject expectedRegistry = JavaFileObjects.forSourceString("test.RondelTestAppRegistry", "package test;\n"
+                + "\n"
+                + "import java.lang.Class;\n"
+                + "import java.lang.IllegalArgumentException;\n"
+                + "import java.lang.Integer;\n"
+                + "import java.lang.Object;\n"
+                + "import java.lang.Override;\n"
+                + "import java.util.HashMap;\n"
+                + "import java.util.Map;\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.InjectorRegistry;\n"
+                + "import solar.blaz.rondel.RondelComponent;\n"
+                + "import test.ui.BaseListActivity;\n"
+                + "import test.ui.FeedActivity;\n"
+                + "import test.ui.RondelBaseListActivity;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "public final class RondelTestAppRegistry implements InjectorRegistry {\n"
+                + "    private final Map<Class<?>, Integer> injectors = new HashMap<Class<?>, Integer>(10);\n"
+                + "\n"
+                + "    public RondelTestAppRegistry() {\n"
+                + "        injectors.put(TestApp.class, 0);\n"
+                + "        injectors.put(BaseListActivity.class, 1);\n"
+                + "        injectors.put(FeedActivity.class, 1);\n"
+                + "        injectors.put(FeedActivity.Tablet.class, 1);\n"
+                + "    }\n"
+                + "\n"
+                + "    @Override\n"
+                + "    public RondelComponent inject(Object target) {\n"
+                + "        Integer injector = find(target.getClass());\n"
+                + "        if (injector == null) {\n"
+                + "            throw new IllegalArgumentException(\"No injector for \" + target.getClass().getName());\n"
+                + "        }\n"
+                + "        switch (injector) {\n"
+                + "            case 0:\n"
+                + "                return RondelTestApp.inject((TestApp) target);\n"
+                + "            case 1:\n"
+                + "                return RondelBaseListActivity.inject((BaseListActivity) target);\n"
+                + "            default:\n"
+                + "                throw new IllegalArgumentException(\"No injector for \" + target.getClass().getName());\n"
+                + "        }\n"
+                + "    }\n"
+                + "\n"
+                + "    private Integer find(Class<?> type) {\n"
+                + "        return injectors.get(type);\n"
+                + "    }\n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, baseFile, feedFile, searchFile))
+                .withCompilerOptions("-Arondel.registry=exact")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .withWarningContaining("SearchActivity is not public, so rondel.registry can not map it to RondelBaseListActivity.")
+                .and()
+                .and()
+                .generatesSources(expectedRegistry);
+
+    }
+
+    @Test
+    public void testSubclassInjectMembers() throws Exception {
+
+        JavaFileObject searchFile = JavaFileObjects.forSourceString("test.ui.SearchActivity", "package test.ui;\n"
+                + "\n"
+                + "import javax.inject.Inject;\n"
+                + "\n"
+                + "public class SearchActivity extends BaseListActivity {\n"
+                + "    @Inject void search() {\n"
+                + "    }\n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, baseFile, searchFile))
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .withWarningContaining("SearchActivity declares @Inject members that are not injected by "
+                        + "RondelBaseListActivity. Move them to BaseListActivity or add @Rondel to SearchActivity.");
+
+    }
+
+}
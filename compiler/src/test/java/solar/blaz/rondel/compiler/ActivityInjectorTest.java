@@ -462,6 +462,7 @@ public class ActivityInjectorTest {
         JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.RondelTestActivity", "package test.ui;\n"
                 + "\n"
                 + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
                 + "\n"
                 + "import test.RondelTestAppComponent;\n"
                 + "import test.TestApp;\n"
@@ -472,7 +473,7 @@ public class ActivityInjectorTest {
                 + ")\n"
                 + "class RondelTestActivity {\n"
                 + "    \n"
-                + "    private static TestModule testModule;\n"
+                + "    private static final TestModule TEST_MODULE = new TestModule();\n"
                 + "    \n"
                 + "    public static RondelTestActivityComponent inject(TestActivity injectie) {\n"
                 + "        TestApp parent = (TestApp) injectie.getApplicationContext();\n"
@@ -484,16 +485,14 @@ public class ActivityInjectorTest {
                 + "        return component;\n"
                 + "    }\n"
                 + "    \n"
-                + "    public static void setTestModule(TestModule module) {\n"
-                + "        testModule = module;\n"
-                + "    }\n"
-                + "    \n"
                 + "    private static TestModule getTestModule(TestActivity injectie) {\n"
-                + "        if (testModule != null) {\n"
-                + "            return testModule;\n"
-                + "        } else {\n"
-                + "            return new TestModule();\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestModule override = ModuleOverrides.get(injectie.getApplicationContext(), TestModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
+                + "        return TEST_MODULE;\n"
                 + "    }\n"
                 + "    \n"
                 + "}");
@@ -534,6 +533,237 @@ public class ActivityInjectorTest {
 
     }
 
+    @Test
+    public void testStatefulModule() throws Exception {
+
+        JavaFileObject appFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
+                + "\n"
+                + "import android.app.Application;\n"
+                + "import solar.blaz.rondel.App;\n"
+                + "import solar.blaz.rondel.ComponentProvider;\n"
+                + "\n"
+                + "@App\n"
+                + "public class TestApp extends Application implements ComponentProvider {\n"
+                + "    public RondelTestAppComponent getComponent() {\n"
+                + "        return null;\n"
+                + "    }\n"
+                + "}");
+
+        JavaFileObject baseModuleFile = JavaFileObjects.forSourceString("test.ui.BaseModule", "package test.ui;\n" +
+                "\n" +
+                "public class BaseModule {\n" +
+                "    \n" +
+                "    private final Object cache = new Object();\n" +
+                "    \n" +
+                "}");
+
+        JavaFileObject activityModuleFile = JavaFileObjects.forSourceString("test.ui.TestModule", "package test.ui;\n" +
+                "\n" +
+                "import dagger.Module;\n" +
+                "\n" +
+                "@Module\n" +
+                "public class TestModule extends BaseModule {\n" +
+                "    \n" +
+                "    private static final String NAME = \"test\";\n" +
+                "    \n" +
+                "}");
+
+        JavaFileObject activityFile = JavaFileObjects.forSourceString("test.ui.TestActivity", "package test.ui;\n" +
+                "\n" +
+                "import android.app.Activity;\n" +
+                "import solar.blaz.rondel.Rondel;\n" +
+                "\n" +
+                "@Rondel(\n" +
+                "        modules = TestModule.class\n" +
+                ")\n" +
+                "public class TestActivity extends Activity {\n" +
+                "    \n" +
+                "}");
+
+        JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.RondelTestActivity", "package test.ui;\n"
+                + "\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
+                + "\n"
+                + "import test.RondelTestAppComponent;\n"
+                + "import test.TestApp;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "class RondelTestActivity {\n"
+                + "    \n"
+                + "    \n"
+                + "    public static RondelTestActivityComponent inject(TestActivity injectie) {\n"
+                + "        TestApp parent = (TestApp) injectie.getApplicationContext();\n"
+                + "        RondelTestAppComponent baseComponent = (RondelTestAppComponent) parent.getComponent();\n"
+                + "        RondelTestActivityComponent component = baseComponent.rondelTestActivityComponentBuilder()\n"
+                + "                .testModule(getTestModule(injectie))\n"
+                + "                .build();\n"
+                + "        component.inject(injectie);\n"
+                + "        return component;\n"
+                + "    }\n"
+                + "    \n"
+                + "    private static TestModule getTestModule(TestActivity injectie) {\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestModule override = ModuleOverrides.get(injectie.getApplicationContext(), TestModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
+                + "        }\n"
+                + "        return new TestModule();\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, activityFile, baseModuleFile, activityModuleFile))
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedInjector);
+
+    }
+
+    @Test
+    public void testAbstractModule() throws Exception {
+
+        JavaFileObject appFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
+                + "\n"
+                + "import android.app.Application;\n"
+                + "import solar.blaz.rondel.App;\n"
+                + "import solar.blaz.rondel.ComponentProvider;\n"
+                + "\n"
+                + "@App\n"
+                + "public class TestApp extends Application implements ComponentProvider {\n"
+                + "    public RondelTestAppComponent getComponent() {\n"
+                + "        return null;\n"
+                + "    }\n"
+                + "}");
+
+        JavaFileObject nameModuleFile = JavaFileObjects.forSourceString("test.ui.NameModule", "package test.ui;\n" +
+                "\n" +
+                "import dagger.Module;\n" +
+                "import dagger.Provides;\n" +
+                "\n" +
+                "@Module\n" +
+                "public class NameModule {\n" +
+                "    \n" +
+                "    private final TestActivity activity;\n" +
+                "    \n" +
+                "    public NameModule(TestActivity activity) {\n" +
+                "        this.activity = activity;\n" +
+                "    }\n" +
+                "    \n" +
+                "    @Provides String provideName() {\n" +
+                "        return activity.toString();\n" +
+                "    }\n" +
+                "    \n" +
+                "}");
+
+        JavaFileObject activityModuleFile = JavaFileObjects.forSourceString("test.ui.TestModule", "package test.ui;\n" +
+                "\n" +
+                "import dagger.Binds;\n" +
+                "import dagger.Module;\n" +
+                "\n" +
+                "@Module(\n" +
+                "        includes = NameModule.class\n" +
+                ")\n" +
+                "public abstract class TestModule {\n" +
+                "    \n" +
+                "    @Binds abstract CharSequence bindName(String name);\n" +
+                "    \n" +
+                "}");
+
+        JavaFileObject activityFile = JavaFileObjects.forSourceString("test.ui.TestActivity", "package test.ui;\n" +
+                "\n" +
+                "import android.app.Activity;\n" +
+                "import javax.inject.Inject;\n" +
+                "import solar.blaz.rondel.Rondel;\n" +
+                "\n" +
+                "@Rondel(\n" +
+                "        modules = TestModule.class\n" +
+                ")\n" +
+                "public class TestActivity extends Activity {\n" +
+                "    \n" +
+                "    @Inject CharSequence name;\n" +
+                "    \n" +
+                "}");
+
+        JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.RondelTestActivity", "package test.ui;\n"
+                + "\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
+                + "\n"
+                + "import test.RondelTestAppComponent;\n"
+                + "import test.TestApp;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "class RondelTestActivity {\n"
+                + "    \n"
+                + "    \n"
+                + "    public static RondelTestActivityComponent inject(TestActivity injectie) {\n"
+                + "        TestApp parent = (TestApp) injectie.getApplicationContext();\n"
+                + "        RondelTestAppComponent baseComponent = (RondelTestAppComponent) parent.getComponent();\n"
+                + "        RondelTestActivityComponent component = baseComponent.rondelTestActivityComponentBuilder()\n"
+                + "                .nameModule(getNameModule(injectie))\n"
+                + "                .build();\n"
+                + "        component.inject(injectie);\n"
+                + "        return component;\n"
+                + "    }\n"
+                + "    \n"
+                + "    private static NameModule getNameModule(TestActivity injectie) {\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            NameModule override = ModuleOverrides.get(injectie.getApplicationContext(), NameModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
+                + "        }\n"
+                + "        return new NameModule(injectie);\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        JavaFileObject expectedComponent = JavaFileObjects.forSourceString("test.ui.RondelTestActivityComponent", "package test.ui;\n"
+                + "\n"
+                + "import dagger.Subcomponent;\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ActivityScope;\n"
+                + "import solar.blaz.rondel.RondelComponent;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "@Subcomponent(\n"
+                + "        modules = { TestModule.class }\n"
+                + ")\n"
+                + "@ActivityScope\n"
+                + "public interface RondelTestActivityComponent extends RondelComponent {\n"
+                + "    \n"
+                + "    void inject(TestActivity view);\n"
+                + "\n"
+                + "    @Subcomponent.Builder\n"
+                + "    interface Builder {\n"
+                + "        Builder nameModule(NameModule module);\n"
+                + "        RondelTestActivityComponent build();\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, activityFile, nameModuleFile, activityModuleFile))
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedInjector, expectedComponent);
+
+    }
+
     @Test
     public void testModuleConstructor() throws Exception {
 
@@ -607,6 +837,7 @@ public class ActivityInjectorTest {
         JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.RondelTestActivity", "package test.ui;\n"
                 + "\n"
                 + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
                 + "\n"
                 + "import test.RondelTestAppComponent;\n"
                 + "import test.TestApp;\n"
@@ -617,7 +848,6 @@ public class ActivityInjectorTest {
                 + ")\n"
                 + "class RondelTestActivity {\n"
                 + "    \n"
-                + "    private static TestModule testModule;\n"
                 + "    \n"
                 + "    public static RondelTestActivityComponent inject(TestActivity injectie) {\n"
                 + "        TestApp parent = (TestApp) injectie.getApplicationContext();\n"
@@ -629,16 +859,14 @@ public class ActivityInjectorTest {
                 + "        return component;\n"
                 + "    }\n"
                 + "    \n"
-                + "    public static void setTestModule(TestModule module) {\n"
-                + "        testModule = module;\n"
-                + "    }\n"
-                + "    \n"
                 + "    private static TestModule getTestModule(TestActivity injectie) {\n"
-                + "        if (testModule != null) {\n"
-                + "            return testModule;\n"
-                + "        } else {\n"
-                + "            return new TestModule(injectie);\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestModule override = ModuleOverrides.get(injectie.getApplicationContext(), TestModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
+                + "        return new TestModule(injectie);\n"
                 + "    }\n"
                 + "    \n"
                 + "}");
@@ -827,6 +1055,7 @@ public class ActivityInjectorTest {
         JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.RondelTestActivity", "package test.ui.activity;\n"
                 + "\n"
                 + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
                 + "\n"
                 + "import test.RondelTestAppComponent;\n"
                 + "import test.TestApp;\n"
@@ -838,28 +1067,26 @@ public class ActivityInjectorTest {
                 + ")\n"
                 + "class RondelTestActivity {\n"
                 + "    \n"
-                + "    private static TestModule testModule;\n"
+                + "    private static final TestModule TEST_UI_MODULE_TEST_MODULE = new TestModule();\n"
                 + "    \n"
                 + "    public static RondelTestActivityComponent inject(TestActivity injectie) {\n"
                 + "        TestApp parent = (TestApp) injectie.getApplicationContext();\n"
                 + "        RondelTestAppComponent baseComponent = (RondelTestAppComponent) parent.getComponent();\n"
                 + "        RondelTestActivityComponent component = baseComponent.rondelTestActivityComponentBuilder()\n"
-                + "                .testModule(getTestModule(injectie))\n"
+                + "                .testModule(getTestUiModuleTestModule(injectie))\n"
                 + "                .build();\n"
                 + "        component.inject(injectie);\n"
                 + "        return component;\n"
                 + "    }\n"
                 + "    \n"
-                + "    public static void setTestModule(TestModule module) {\n"
-                + "        testModule = module;\n"
-                + "    }\n"
-                + "    \n"
-                + "    private static TestModule getTestModule(TestActivity injectie) {\n"
-                + "        if (testModule != null) {\n"
-                + "            return testModule;\n"
-                + "        } else {\n"
-                + "            return new TestModule();\n"
+                + "    private static TestModule getTestUiModuleTestModule(TestActivity injectie) {\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestModule override = ModuleOverrides.get(injectie.getApplicationContext(), TestModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
+                + "        return TEST_UI_MODULE_TEST_MODULE;\n"
                 + "    }\n"
                 + "    \n"
                 + "}");
@@ -986,6 +1213,7 @@ public class ActivityInjectorTest {
         JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.RondelTestActivity", "package test.ui;\n"
                 + "\n"
                 + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
                 + "\n"
                 + "import test.RondelTestAppComponent;\n"
                 + "import test.TestApp;\n"
@@ -996,8 +1224,8 @@ public class ActivityInjectorTest {
                 + ")\n"
                 + "class RondelTestActivity {\n"
                 + "    \n"
-                + "    private static TestModule testModule;\n"
-                + "    private static TestModule2 testModule2;\n"
+                + "    private static final TestModule TEST_MODULE = new TestModule();\n"
+                + "    private static final TestModule2 TEST_MODULE2 = new TestModule2();\n"
                 + "\n"
                 + "    public static RondelTestActivityComponent inject(TestActivity injectie) {\n"
                 + "        TestApp parent = (TestApp) injectie.getApplicationContext();\n"
@@ -1010,28 +1238,24 @@ public class ActivityInjectorTest {
                 + "        return component;\n"
                 + "    }\n"
                 + "    \n"
-                + "    public static void setTestModule(TestModule module) {\n"
-                + "        testModule = module;\n"
-                + "    }\n"
-                + "    \n"
                 + "    private static TestModule getTestModule(TestActivity injectie) {\n"
-                + "        if (testModule != null) {\n"
-                + "            return testModule;\n"
-                + "        } else {\n"
-                + "            return new TestModule();\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestModule override = ModuleOverrides.get(injectie.getApplicationContext(), TestModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
-                + "    }\n"
-                + "    \n"
-                + "    public static void setTestModule2(TestModule2 module) {\n"
-                + "        testModule2 = module;\n"
+                + "        return TEST_MODULE;\n"
                 + "    }\n"
                 + "    \n"
                 + "    private static TestModule2 getTestModule2(TestActivity injectie) {\n"
-                + "        if (testModule2 != null) {\n"
-                + "            return testModule2;\n"
-                + "        } else {\n"
-                + "            return new TestModule2();\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestModule2 override = ModuleOverrides.get(injectie.getApplicationContext(), TestModule2.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
+                + "        return TEST_MODULE2;\n"
                 + "    }\n"
                 + "    \n"
                 + "}");
@@ -1162,6 +1386,7 @@ public class ActivityInjectorTest {
         JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.RondelTestActivity", "package test.ui;\n"
                 + "\n"
                 + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
                 + "\n"
                 + "import test.RondelTestAppComponent;\n"
                 + "import test.TestApp;\n"
@@ -1172,8 +1397,6 @@ public class ActivityInjectorTest {
                 + ")\n"
                 + "class RondelTestActivity {\n"
                 + "    \n"
-                + "    private static TestModule testModule;\n"
-                + "    private static TestModule2 testModule2;\n"
                 + "\n"
                 + "    public static RondelTestActivityComponent inject(TestActivity injectie) {\n"
                 + "        TestApp parent = (TestApp) injectie.getApplicationContext();\n"
@@ -1186,28 +1409,24 @@ public class ActivityInjectorTest {
                 + "        return component;\n"
                 + "    }\n"
                 + "    \n"
-                + "    public static void setTestModule(TestModule module) {\n"
-                + "        testModule = module;\n"
-                + "    }\n"
-                + "    \n"
                 + "    private static TestModule getTestModule(TestActivity injectie) {\n"
-                + "        if (testModule != null) {\n"
-                + "            return testModule;\n"
-                + "        } else {\n"
-                + "            return new TestModule(injectie);\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestModule override = ModuleOverrides.get(injectie.getApplicationContext(), TestModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
-                + "    }\n"
-                + "    \n"
-                + "    public static void setTestModule2(TestModule2 module) {\n"
-                + "        testModule2 = module;\n"
+                + "        return new TestModule(injectie);\n"
                 + "    }\n"
                 + "    \n"
                 + "    private static TestModule2 getTestModule2(TestActivity injectie) {\n"
-                + "        if (testModule2 != null) {\n"
-                + "            return testModule2;\n"
-                + "        } else {\n"
-                + "            return new TestModule2(injectie);\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestModule2 override = ModuleOverrides.get(injectie.getApplicationContext(), TestModule2.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
+                + "        return new TestModule2(injectie);\n"
                 + "    }\n"
                 + "    \n"
                 + "}");
@@ -1337,6 +1556,7 @@ public class ActivityInjectorTest {
         JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.RondelTestActivity", "package test.ui;\n"
                 + "\n"
                 + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
                 + "\n"
                 + "import test.RondelTestAppComponent;\n"
                 + "import test.TestApp;\n"
@@ -1347,7 +1567,7 @@ public class ActivityInjectorTest {
                 + ")\n"
                 + "class RondelTestActivity {\n"
                 + "    \n"
-                + "    private static TestModule testModule;\n"
+                + "    private static final TestModule TEST_MODULE = new TestModule();\n"
                 + "    \n"
                 + "    public static RondelTestActivityComponent inject(TestActivity injectie) {\n"
                 + "        TestApp parent = (TestApp) injectie.getApplicationContext();\n"
@@ -1359,16 +1579,14 @@ public class ActivityInjectorTest {
                 + "        return component;\n"
                 + "    }\n"
                 + "    \n"
-                + "    public static void setTestModule(TestModule module) {\n"
-                + "        testModule = module;\n"
-                + "    }\n"
-                + "    \n"
                 + "    private static TestModule getTestModule(TestActivity injectie) {\n"
-                + "        if (testModule != null) {\n"
-                + "            return testModule;\n"
-                + "        } else {\n"
-                + "            return new TestModule();\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestModule override = ModuleOverrides.get(injectie.getApplicationContext(), TestModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
+                + "        return TEST_MODULE;\n"
                 + "    }\n"
                 + "    \n"
                 + "}");
@@ -1496,4 +1714,81 @@ public class ActivityInjectorTest {
                 .withErrorContaining("Scope has to bo an annotation");
 
     }
+
+    @Test
+    public void testNestedModule() throws Exception {
+
+        JavaFileObject appFile = JavaFileObjects.forSourceString("test.App", "package test;\n" +
+                "\n" +
+                "import android.app.Application;\n" +
+                "import solar.blaz.rondel.ComponentProvider;\n" +
+                "\n" +
+                "@solar.blaz.rondel.App\n" +
+                "public class App extends Application implements ComponentProvider {\n" +
+                "    public RondelAppComponent getComponent() {\n" +
+                "        return null;\n" +
+                "    }\n" +
+                "}\n");
+
+        JavaFileObject modulesFile = JavaFileObjects.forSourceString("test.modules.Modules", "package test.modules;\n" +
+                "\n" +
+                "import dagger.Module;\n" +
+                "\n" +
+                "public class Modules {\n" +
+                "    \n" +
+                "    @Module\n" +
+                "    public static class ScreenModule {\n" +
+                "    }\n" +
+                "    \n" +
+                "}");
+
+        JavaFileObject activityFile = JavaFileObjects.forSourceString("test.ui.TestActivity", "package test.ui;\n" +
+                "\n" +
+                "import android.app.Activity;\n" +
+                "import solar.blaz.rondel.Rondel;\n" +
+                "import test.modules.Modules;\n" +
+                "\n" +
+                "@Rondel(\n" +
+                "        modules = Modules.ScreenModule.class\n" +
+                ")\n" +
+                "public class TestActivity extends Activity {\n" +
+                "    \n" +
+                "}");
+
+        JavaFileObject expectedComponent = JavaFileObjects.forSourceString("test.ui.RondelTestActivityComponent", "package test.ui;\n"
+                + "\n"
+                + "import dagger.Subcomponent;\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ActivityScope;\n"
+                + "import solar.blaz.rondel.RondelComponent;\n"
+                + "import test.modules.Modules;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "@Subcomponent(\n"
+                + "        modules = { Modules.ScreenModule.class }\n"
+                + ")\n"
+                + "@ActivityScope\n"
+                + "public interface RondelTestActivityComponent extends RondelComponent {\n"
+                + "    \n"
+                + "    void inject(TestActivity view);\n"
+                + "\n"
+                + "    @Subcomponent.Builder\n"
+                + "    interface Builder {\n"
+                + "        Builder screenModule(Modules.ScreenModule module);\n"
+                + "        RondelTestActivityComponent build();\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, modulesFile, activityFile))
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedComponent);
+
+    }
 }
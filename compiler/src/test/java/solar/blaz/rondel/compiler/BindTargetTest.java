@@ -0,0 +1,171 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package solar.blaz.rondel.compiler;
+
+import com.google.common.collect.ImmutableList;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+
+import dagger.internal.codegen.ComponentProcessor;
+
+import static com.google.common.truth.Truth.assertAbout;
+import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
+
+public class BindTargetTest {
+
+    @Test
+    public void testBindTarget() throws Exception {
+
+        JavaFileObject appFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
+                + "\n"
+                + "import android.app.Application;\n"
+                + "import solar.blaz.rondel.App;\n"
+                + "import solar.blaz.rondel.ComponentProvider;\n"
+                + "\n"
+                + "@App\n"
+                + "public class TestApp extends Application implements ComponentProvider {\n"
+                + "    public RondelTestAppComponent getComponent() {\n"
+                + "        return null;\n"
+                + "    }\n"
+                + "}");
+
+        JavaFileObject moduleFile = JavaFileObjects.forSourceString("test.ui.TestModule", "package test.ui;\n"
+                + "\n"
+                + "import dagger.Module;\n"
+                + "import dagger.Provides;\n"
+                + "\n"
+                + "@Module\n"
+                + "public class TestModule {\n"
+                + "    \n"
+                + "    @Provides String provideTitle(TestActivity activity) {\n"
+                + "        return activity.toString();\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        JavaFileObject activityFile = JavaFileObjects.forSourceString("test.ui.TestActivity", "package test.ui;\n"
+                + "\n"
+                + "import android.app.Activity;\n"
+                + "import javax.inject.Inject;\n"
+                + "import solar.blaz.rondel.Rondel;\n"
+                + "\n"
+                + "@Rondel(\n"
+                + "        modules = TestModule.class\n"
+                + ")\n"
+                + "public class TestActivity extends Activity {\n"
+                + "    \n"
+                + "    @Inject String title;\n"
+                + "    \n"
+                + "}");
+
+        JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.RondelTestActivity", "package test.ui;\n"
+                + "\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
+                + "import test.RondelTestAppComponent;\n"
+                + "import test.TestApp;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "class RondelTestActivity {\n"
+                + "    \n"
+                + "    private static final TestModule TEST_MODULE = new TestModule();\n"
+                + "    \n"
+                + "    public static RondelTestActivityComponent inject(TestActivity injectie) {\n"
+                + "        TestApp parent = (TestApp) injectie.getApplicationContext();\n"
+                + "        RondelTestAppComponent baseComponent = (RondelTestAppComponent) parent.getComponent();\n"
+                + "        RondelTestActivityComponent component = baseComponent.rondelTestActivityComponentBuilder()\n"
+                + "                .targetModule(new RondelTestActivityComponent.TargetModule(injectie))\n"
+                + "                .testModule(getTestModule(injectie))\n"
+                + "                .build();\n"
+                + "        component.inject(injectie);\n"
+                + "        return component;\n"
+                + "    }\n"
+                + "    \n"
+                + "    private static TestModule getTestModule(TestActivity injectie) {\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestModule override = ModuleOverrides.get(injectie.getApplicationContext(), TestModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
+                + "        }\n"
+                + "        return TEST_MODULE;\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        JavaFileObject expectedComponent = JavaFileObjects.forSourceString("test.ui.RondelTestActivityComponent", "package test.ui;\n"
+                + "\n"
+                + "import dagger.Module;\n"
+                + "import dagger.Provides;\n"
+                + "import dagger.Subcomponent;\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ActivityScope;\n"
+                + "import solar.blaz.rondel.RondelComponent;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "@Subcomponent(\n"
+                + "        modules = { TestModule.class, RondelTestActivityComponent.TargetModule.class }\n"
+                + ")\n"
+                + "@ActivityScope\n"
+                + "public interface RondelTestActivityComponent extends RondelComponent {\n"
+                + "    \n"
+                + "    void inject(TestActivity view);\n"
+                + "\n"
+                + "    @Subcomponent.Builder\n"
+                + "    interface Builder {\n"
+                + "        Builder targetModule(TargetModule module);\n"
+                + "        Builder testModule(TestModule module);\n"
+                + "        RondelTestActivityComponent build();\n"
+                + "    }\n"
+                + "    \n"
+                + "    @Module\n"
+                + "    final class TargetModule {\n"
+                + "        private final TestActivity target;\n"
+                + "        \n"
+                + "        TargetModule(TestActivity target) {\n"
+                + "            this.target = target;\n"
+                + "        }\n"
+                + "        \n"
+                + "        @Provides\n"
+                + "        TestActivity provideTarget() {\n"
+                + "            return target;\n"
+                + "        }\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, moduleFile, activityFile))
+                .withCompilerOptions("-Arondel.bindTarget=true")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedInjector, expectedComponent);
+
+    }
+
+}
@@ -0,0 +1,333 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.compiler;
+
+import com.google.common.collect.ImmutableList;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+
+import dagger.internal.codegen.ComponentProcessor;
+
+import static com.google.common.truth.Truth.assertAbout;
+import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
+
+public class DispatcherTest {
+
+    private final JavaFileObject appFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
+            + "\n"
+            + "import android.app.Application;\n"
+            + "import solar.blaz.rondel.App;\n"
+            + "import solar.blaz.rondel.ComponentProvider;\n"
+            + "\n"
+            + "@App\n"
+            + "public class TestApp extends Application implements ComponentProvider {\n"
+            + "    public RondelTestAppComponent getComponent() {\n"
+            + "        return null;\n"
+            + "    }\n"
+            + "}");
+
+    private final JavaFileObject activityFile = JavaFileObjects.forSourceString("test.ui.TestActivity", "package test.ui;\n"
+            + "\n"
+            + "import android.app.Activity;\n"
+            + "import solar.blaz.rondel.ComponentProvider;\n"
+            + "import solar.blaz.rondel.Rondel;\n"
+            + "import solar.blaz.rondel.RondelComponent;\n"
+            + "\n"
+            + "@Rondel\n"
+            + "public class TestActivity extends Activity implements ComponentProvider {\n"
+            + "    public RondelComponent getComponent() {\n"
+            + "        return null;\n"
+            + "    }\n"
+            + "}");
+
+    private final JavaFileObject parentFragmentFile = JavaFileObjects.forSourceString("test.ui.TestParentFragment", "package test.ui;\n"
+            + "\n"
+            + "import android.app.Fragment;\n"
+            + "import solar.blaz.rondel.ComponentProvider;\n"
+            + "import solar.blaz.rondel.Rondel;\n"
+            + "import solar.blaz.rondel.RondelComponent;\n"
+            + "\n"
+            + "@Rondel(parent = TestActivity.class)\n"
+            + "public class TestParentFragment extends Fragment implements ComponentProvider {\n"
+            + "    public RondelComponent getComponent() {\n"
+            + "        return null;\n"
+            + "    }\n"
+            + "}");
+
+    private final JavaFileObject moduleFile = JavaFileObjects.forSourceString("test.ui.TestModule", "package test.ui;\n"
+            + "\n"
+            + "import dagger.Module;\n"
+            + "\n"
+            + "@Module\n"
+            + "public class TestModule {\n"
+            + "}");
+
+    private final JavaFileObject firstFragmentFile = JavaFileObjects.forSourceString("test.ui.FirstFragment", "package test.ui;\n"
+            + "\n"
+            + "import android.app.Fragment;\n"
+            + "import solar.blaz.rondel.Rondel;\n"
+            + "\n"
+            + "@Rondel(parent = TestParentFragment.class, modules = TestModule.class)\n"
+            + "public class FirstFragment extends Fragment {\n"
+            + "}");
+
+    private final JavaFileObject secondFragmentFile = JavaFileObjects.forSourceString("test.ui.SecondFragment", "package test.ui;\n"
+            + "\n"
+            + "import android.app.Fragment;\n"
+            + "import solar.blaz.rondel.Rondel;\n"
+            + "\n"
+            + "@Rondel(parent = TestParentFragment.class, modules = TestModule.class)\n"
+            + "public class SecondFragment extends Fragment {\n"
+            + "}");
+
+    @Test
+    public void testForward() throws Exception {
+
+        JavaFileObject expectedDispatcher = JavaFileObjects.forSourceString("test.ui.RondelInjectors", "package test.ui;\n"
+                + "\n"
+                + "import android.app.Fragment;\n"
+                + "import java.lang.IllegalStateException;\n"
+                + "import java.lang.ref.WeakReference;\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
+                + "import test.RondelTestAppComponent;\n"
+                + "import test.TestApp;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "public final class RondelInjectors {\n"
+                + "    private static WeakReference<Fragment> firstFragmentCachedHost;\n"
+                + "\n"
+                + "    private static WeakReference<TestParentFragment> firstFragmentCachedParent;\n"
+                + "\n"
+                + "    private static final TestModule TEST_MODULE = new TestModule();\n"
+                + "\n"
+                + "    private static WeakReference<Fragment> secondFragmentCachedHost;\n"
+                + "\n"
+                + "    private static WeakReference<TestParentFragment> secondFragmentCachedParent;\n"
+                + "\n"
+                + "    private static synchronized TestParentFragment firstFragmentFindParent(Fragment host) {\n"
+                + "        if (host != null && firstFragmentCachedHost != null && firstFragmentCachedHost.get() == host) {\n"
+                + "            TestParentFragment parent = firstFragmentCachedParent.get();\n"
+                + "            if (parent != null) {\n"
+                + "                return parent;\n"
+                + "            }\n"
+                + "        }\n"
+                + "        Fragment fragment = host;\n"
+                + "        while (fragment != null && !(fragment instanceof TestParentFragment)) {\n"
+                + "            fragment = fragment.getParentFragment();\n"
+                + "        }\n"
+                + "        if (fragment == null) {\n"
+                + "            throw new IllegalStateException(\"Parent TestParentFragment not found\");\n"
+                + "        }\n"
+                + "        TestParentFragment parent = (TestParentFragment) fragment;\n"
+                + "        firstFragmentCachedHost = new WeakReference<Fragment>(host);\n"
+                + "        firstFragmentCachedParent = new WeakReference<TestParentFragment>(parent);\n"
+                + "        return parent;\n"
+                + "    }\n"
+                + "\n"
+                + "    public static RondelFirstFragmentComponent inject(FirstFragment injectie) {\n"
+                + "        TestParentFragment parent = firstFragmentFindParent(injectie.getParentFragment());\n"
+                + "        RondelTestParentFragmentComponent baseComponent = (RondelTestParentFragmentComponent) parent.getComponent();\n"
+                + "        RondelFirstFragmentComponent component = baseComponent.rondelFirstFragmentComponentBuilder()\n"
+                + "                .testModule(getTestModule(injectie))\n"
+                + "                .build();\n"
+                + "        component.inject(injectie);\n"
+                + "        return component;\n"
+                + "    }\n"
+                + "\n"
+                + "    private static TestModule getTestModule(FirstFragment injectie) {\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestModule override = ModuleOverrides.get(injectie.getActivity().getApplicationContext(), TestModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
+                + "        }\n"
+                + "        return TEST_MODULE;\n"
+                + "    }\n"
+                + "\n"
+                + "    private static synchronized TestParentFragment secondFragmentFindParent(Fragment host) {\n"
+                + "        if (host != null && secondFragmentCachedHost != null && secondFragmentCachedHost.get() == host) {\n"
+                + "            TestParentFragment parent = secondFragmentCachedParent.get();\n"
+                + "            if (parent != null) {\n"
+                + "                return parent;\n"
+                + "            }\n"
+                + "        }\n"
+                + "        Fragment fragment = host;\n"
+                + "        while (fragment != null && !(fragment instanceof TestParentFragment)) {\n"
+                + "            fragment = fragment.getParentFragment();\n"
+                + "        }\n"
+                + "        if (fragment == null) {\n"
+                + "            throw new IllegalStateException(\"Parent TestParentFragment not found\");\n"
+                + "        }\n"
+                + "        TestParentFragment parent = (TestParentFragment) fragment;\n"
+                + "        secondFragmentCachedHost = new WeakReference<Fragment>(host);\n"
+                + "        secondFragmentCachedParent = new WeakReference<TestParentFragment>(parent);\n"
+                + "        return parent;\n"
+                + "    }\n"
+                + "\n"
+                + "    public static RondelSecondFragmentComponent inject(SecondFragment injectie) {\n"
+                + "        TestParentFragment parent = secondFragmentFindParent(injectie.getParentFragment());\n"
+                + "        RondelTestParentFragmentComponent baseComponent = (RondelTestParentFragmentComponent) parent.getComponent();\n"
+                + "        RondelSecondFragmentComponent component = baseComponent.rondelSecondFragmentComponentBuilder()\n"
+                + "                .testModule(getTestModule(injectie))\n"
+                + "                .build();\n"
+                + "        component.inject(injectie);\n"
+                + "        return component;\n"
+                + "    }\n"
+                + "\n"
+                + "    private static TestModule getTestModule(SecondFragment injectie) {\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestModule override = ModuleOverrides.get(injectie.getActivity().getApplicationContext(), TestModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
+                + "        }\n"
+                + "        return TEST_MODULE;\n"
+                + "    }\n"
+                + "\n"
+                + "    public static RondelTestParentFragmentComponent inject(TestParentFragment injectie) {\n"
+                + "        TestActivity parent = (TestActivity) injectie.getActivity();\n"
+                + "        RondelTestActivityComponent baseComponent = (RondelTestActivityComponent) parent.getComponent();\n"
+                + "        RondelTestParentFragmentComponent component = baseComponent.rondelTestParentFragmentComponentBuilder()\n"
+                + "                .build();\n"
+                + "        component.inject(injectie);\n"
+                + "        return component;\n"
+                + "    }\n"
+                + "\n"
+                + "    public static RondelTestActivityComponent inject(TestActivity injectie) {\n"
+                + "        TestApp parent = (TestApp) injectie.getApplicationContext();\n"
+                + "        RondelTestAppComponent baseComponent = (RondelTestAppComponent) parent.getComponent();\n"
+                + "        RondelTestActivityComponent component = baseComponent.rondelTestActivityComponentBuilder()\n"
+                + "                .build();\n"
+                + "        component.inject(injectie);\n"
+                + "        return component;\n"
+                + "    }\n"
+                + "}");
+
+        JavaFileObject expectedForwarder = JavaFileObjects.forSourceString("test.ui.RondelFirstFragment", "package test.ui;\n"
+                + "\n"
+                + "import javax.annotation.Generated;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "class RondelFirstFragment {\n"
+                + "    public static RondelFirstFragmentComponent inject(FirstFragment injectie) {\n"
+                + "        return RondelInjectors.inject(injectie);\n"
+                + "    }\n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, activityFile, parentFragmentFile, moduleFile, firstFragmentFile,
+                        secondFragmentFile))
+                .withCompilerOptions("-Arondel.dispatcher=forward")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedDispatcher, expectedForwarder);
+
+    }
+
+    @Test
+    public void testMinimal() throws Exception {
+
+        JavaFileObject callerFile = JavaFileObjects.forSourceString("test.Caller", "package test;\n"
+                + "\n"
+                + "import test.ui.SecondFragment;\n"
+                + "\n"
+                + "public class Caller {\n"
+                + "    public void inject(TestApp app, SecondFragment fragment) {\n"
+                + "        RondelInjectors.inject(app);\n"
+                + "        test.ui.RondelInjectors.inject(fragment);\n"
+                + "    }\n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, activityFile, parentFragmentFile, moduleFile, firstFragmentFile,
+                        secondFragmentFile, callerFile))
+                .withCompilerOptions("-Arondel.dispatcher=minimal")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError();
+
+    }
+
+    @Test
+    public void testSameModuleNames() throws Exception {
+
+        JavaFileObject firstModuleFile = JavaFileObjects.forSourceString("test.a.FooModule", "package test.a;\n"
+                + "\n"
+                + "import dagger.Module;\n"
+                + "\n"
+                + "@Module\n"
+                + "public class FooModule {\n"
+                + "}");
+
+        JavaFileObject secondModuleFile = JavaFileObjects.forSourceString("test.b.FooModule", "package test.b;\n"
+                + "\n"
+                + "import dagger.Module;\n"
+                + "\n"
+                + "@Module\n"
+                + "public class FooModule {\n"
+                + "}");
+
+        JavaFileObject firstFile = JavaFileObjects.forSourceString("test.ui.FirstFragment", "package test.ui;\n"
+                + "\n"
+                + "import android.app.Fragment;\n"
+                + "import solar.blaz.rondel.Rondel;\n"
+                + "\n"
+                + "@Rondel(parent = TestParentFragment.class, modules = test.a.FooModule.class)\n"
+                + "public class FirstFragment extends Fragment {\n"
+                + "}");
+
+        JavaFileObject secondFile = JavaFileObjects.forSourceString("test.ui.SecondFragment", "package test.ui;\n"
+                + "\n"
+                + "import android.app.Fragment;\n"
+                + "import solar.blaz.rondel.Rondel;\n"
+                + "\n"
+                + "@Rondel(parent = TestParentFragment.class, modules = test.b.FooModule.class)\n"
+                + "public class SecondFragment extends Fragment {\n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, activityFile, parentFragmentFile, firstModuleFile, secondModuleFile,
+                        firstFile, secondFile))
+                .withCompilerOptions("-Arondel.dispatcher=minimal")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError();
+
+    }
+
+    @Test
+    public void testUnknownMode() throws Exception {
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile))
+                .withCompilerOptions("-Arondel.dispatcher=parent")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .failsToCompile()
+                .withErrorContaining("Unknown rondel.dispatcher value \"parent\". Use forward or minimal.");
+
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package solar.blaz.rondel.compiler;
+
+import com.google.common.collect.ImmutableList;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+
+import dagger.internal.codegen.ComponentProcessor;
+
+import static com.google.common.truth.Truth.assertAbout;
+import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
+
+public class DisposeTest {
+
+    @Test
+    public void testScopedCloseable() throws Exception {
+
+        JavaFileObject appFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
+                + "\n"
+                + "import android.app.Application;\n"
+                + "import solar.blaz.rondel.App;\n"
+                + "import solar.blaz.rondel.ComponentProvider;\n"
+                + "\n"
+                + "@App\n"
+                + "public class TestApp extends Application implements ComponentProvider {\n"
+                + "    public RondelTestAppComponent getComponent() {\n"
+                + "        return null;\n"
+                + "    }\n"
+                + "}");
+
+        JavaFileObject connectionFile = JavaFileObjects.forSourceString("test.ui.Connection", "package test.ui;\n"
+                + "\n"
+                + "import java.io.Closeable;\n"
+                + "\n"
+                + "public class Connection implements Closeable {\n"
+                + "    @Override public void close() {\n"
+                + "    }\n"
+                + "}");
+
+        JavaFileObject moduleFile = JavaFileObjects.forSourceString("test.ui.TestModule", "package test.ui;\n"
+                + "\n"
+                + "import dagger.Module;\n"
+                + "import dagger.Provides;\n"
+                + "import solar.blaz.rondel.ActivityScope;\n"
+                + "\n"
+                + "@Module\n"
+                + "public class TestModule {\n"
+                + "    \n"
+                + "    private final TestActivity activity;\n"
+                + "    \n"
+                + "    public TestModule(TestActivity activity) {\n"
+                + "        this.activity = activity;\n"
+                + "    }\n"
+                + "    \n"
+                + "    @Provides @ActivityScope Connection provideConnection(String name) {\n"
+                + "        return new Connection();\n"
+                + "    }\n"
+                + "    \n"
+                + "    @Provides String provideName() {\n"
+                + "        return activity.toString();\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        JavaFileObject activityFile = JavaFileObjects.forSourceString("test.ui.TestActivity", "package test.ui;\n"
+                + "\n"
+                + "import android.app.Activity;\n"
+                + "import javax.inject.Inject;\n"
+                + "import solar.blaz.rondel.Rondel;\n"
+                + "\n"
+                + "@Rondel(\n"
+                + "        modules = TestModule.class\n"
+                + ")\n"
+                + "public class TestActivity extends Activity {\n"
+                + "    \n"
+                + "    @Inject Connection connection;\n"
+                + "    \n"
+                + "}");
+
+        JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.RondelTestActivity", "package test.ui;\n"
+                + "\n"
+                + "import java.lang.Override;\n"
+                + "import java.lang.String;\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
+                + "import solar.blaz.rondel.ScopeDisposer;\n"
+                + "import test.RondelTestAppComponent;\n"
+                + "import test.TestApp;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "class RondelTestActivity {\n"
+                + "    \n"
+                + "    \n"
+                + "    public static RondelTestActivityComponent inject(TestActivity injectie) {\n"
+                + "        ScopeDisposer disposer = new ScopeDisposer();\n"
+                + "        TestApp parent = (TestApp) injectie.getApplicationContext();\n"
+                + "        RondelTestAppComponent baseComponent = (RondelTestAppComponent) parent.getComponent();\n"
+                + "        RondelTestActivityComponent component = baseComponent.rondelTestActivityComponentBuilder()\n"
+                + "                .testModule(getTestModule(injectie, disposer))\n"
+                + "                .build();\n"
+                + "        ScopeDisposer.register(component, disposer);\n"
+                + "        component.inject(injectie);\n"
+                + "        return component;\n"
+                + "    }\n"
+                + "    \n"
+                + "    public static void release(RondelTestActivityComponent component) {\n"
+                + "        ScopeDisposer.release(component);\n"
+                + "    }\n"
+                + "    \n"
+                + "    private static TestModule getTestModule(TestActivity injectie, ScopeDisposer disposer) {\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestModule override = ModuleOverrides.get(injectie.getApplicationContext(), TestModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
+                + "        }\n"
+                + "        return new DisposingTestModule(disposer, injectie);\n"
+                + "    }\n"
+                + "    \n"
+                + "    private static final class DisposingTestModule extends TestModule {\n"
+                + "        private final ScopeDisposer disposer;\n"
+                + "        \n"
+                + "        DisposingTestModule(ScopeDisposer disposer, TestActivity injectie) {\n"
+                + "            super(injectie);\n"
+                + "            this.disposer = disposer;\n"
+                + "        }\n"
+                + "        \n"
+                + "        @Override\n"
+                + "        Connection provideConnection(String name) {\n"
+                + "            return disposer.add(super.provideConnection(name));\n"
+                + "        }\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, connectionFile, moduleFile, activityFile))
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedInjector);
+
+    }
+
+}
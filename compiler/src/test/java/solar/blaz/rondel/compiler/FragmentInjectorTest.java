@@ -90,6 +90,7 @@ public class FragmentInjectorTest {
         JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.fragment.RondelTestFragment", "package test.ui.fragment;\n"
                 + "\n"
                 + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
                 + "\n"
                 + "import test.RondelTestAppComponent;\n"
                 + "import test.TestApp;\n"
@@ -100,7 +101,7 @@ public class FragmentInjectorTest {
                 + ")\n"
                 + "class RondelTestFragment {\n"
                 + "    \n"
-                + "    private static TestFragmentModule testFragmentModule;\n"
+                + "    private static final TestFragmentModule TEST_FRAGMENT_MODULE = new TestFragmentModule();\n"
                 + "    \n"
                 + "    public static RondelTestFragmentComponent inject(TestFragment injectie) {\n"
                 + "        TestApp parent = (TestApp) injectie.getActivity().getApplicationContext();\n"
@@ -112,16 +113,14 @@ public class FragmentInjectorTest {
                 + "        return component;\n"
                 + "    }\n"
                 + "    \n"
-                + "    public static void setTestFragmentModule(TestFragmentModule module) {\n"
-                + "        testFragmentModule = module;\n"
-                + "    }\n"
-                + "    \n"
                 + "    private static TestFragmentModule getTestFragmentModule(TestFragment injectie) {\n"
-                + "        if (testFragmentModule != null) {\n"
-                + "            return testFragmentModule;\n"
-                + "        } else {\n"
-                + "            return new TestFragmentModule();\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestFragmentModule override = ModuleOverrides.get(injectie.getActivity().getApplicationContext(), TestFragmentModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
+                + "        return TEST_FRAGMENT_MODULE;\n"
                 + "    }\n"
                 + "    \n"
                 + "}");
@@ -279,6 +278,7 @@ public class FragmentInjectorTest {
         JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.fragment.RondelTestFragment", "package test.ui.fragment;\n"
                 + "\n"
                 + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
                 + "\n"
                 + "import test.RondelTestAppComponent;\n"
                 + "import test.TestApp;\n"
@@ -289,7 +289,7 @@ public class FragmentInjectorTest {
                 + ")\n"
                 + "class RondelTestFragment {\n"
                 + "    \n"
-                + "    private static TestFragmentModule testFragmentModule;\n"
+                + "    private static final TestFragmentModule TEST_FRAGMENT_MODULE = new TestFragmentModule();\n"
                 + "    \n"
                 + "    public static RondelTestFragmentComponent inject(TestFragment injectie) {\n"
                 + "        TestApp parent = (TestApp) injectie.getActivity().getApplicationContext();\n"
@@ -301,16 +301,14 @@ public class FragmentInjectorTest {
                 + "        return component;\n"
                 + "    }\n"
                 + "    \n"
-                + "    public static void setTestFragmentModule(TestFragmentModule module) {\n"
-                + "        testFragmentModule = module;\n"
-                + "    }\n"
-                + "    \n"
                 + "    private static TestFragmentModule getTestFragmentModule(TestFragment injectie) {\n"
-                + "        if (testFragmentModule != null) {\n"
-                + "            return testFragmentModule;\n"
-                + "        } else {\n"
-                + "            return new TestFragmentModule();\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestFragmentModule override = ModuleOverrides.get(injectie.getActivity().getApplicationContext(), TestFragmentModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
+                + "        return TEST_FRAGMENT_MODULE;\n"
                 + "    }\n"
                 + "    \n"
                 + "}");
@@ -419,6 +417,7 @@ public class FragmentInjectorTest {
         JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.fragment.RondelTestFragment", "package test.ui.fragment;\n"
                 + "\n"
                 + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
                 + "\n"
                 + "import test.ui.RondelTestActivityComponent;\n"
                 + "import test.ui.TestActivity;\n"
@@ -429,7 +428,7 @@ public class FragmentInjectorTest {
                 + ")\n"
                 + "class RondelTestFragment {\n"
                 + "    \n"
-                + "    private static TestFragmentModule testFragmentModule;\n"
+                + "    private static final TestFragmentModule TEST_FRAGMENT_MODULE = new TestFragmentModule();\n"
                 + "    \n"
                 + "    public static RondelTestFragmentComponent inject(TestFragment injectie) {\n"
                 + "        TestActivity parent = (TestActivity) injectie.getActivity();\n"
@@ -441,16 +440,14 @@ public class FragmentInjectorTest {
                 + "        return component;\n"
                 + "    }\n"
                 + "    \n"
-                + "    public static void setTestFragmentModule(TestFragmentModule module) {\n"
-                + "        testFragmentModule = module;\n"
-                + "    }\n"
-                + "    \n"
                 + "    private static TestFragmentModule getTestFragmentModule(TestFragment injectie) {\n"
-                + "        if (testFragmentModule != null) {\n"
-                + "            return testFragmentModule;\n"
-                + "        } else {\n"
-                + "            return new TestFragmentModule();\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestFragmentModule override = ModuleOverrides.get(injectie.getActivity().getApplicationContext(), TestFragmentModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
+                + "        return TEST_FRAGMENT_MODULE;\n"
                 + "    }\n"
                 + "    \n"
                 + "}");
@@ -577,7 +574,11 @@ public class FragmentInjectorTest {
 
         JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.fragment.RondelTestFragment", "package test.ui.fragment;\n"
                 + "\n"
+                + "import android.app.Fragment;\n"
+                + "import java.lang.IllegalStateException;\n"
+                + "import java.lang.ref.WeakReference;\n"
                 + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
                 + "\n"
                 + "@Generated(\n"
                 + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
@@ -585,10 +586,32 @@ public class FragmentInjectorTest {
                 + ")\n"
                 + "class RondelTestFragment {\n"
                 + "    \n"
-                + "    private static TestFragmentModule testFragmentModule;\n"
+                + "    private static WeakReference<Fragment> cachedHost;\n"
+                + "    private static WeakReference<TestParentFragment> cachedParent;\n"
+                + "    private static final TestFragmentModule TEST_FRAGMENT_MODULE = new TestFragmentModule();\n"
+                + "    \n"
+                + "    private static synchronized TestParentFragment findParent(Fragment host) {\n"
+                + "        if (host != null && cachedHost != null && cachedHost.get() == host) {\n"
+                + "            TestParentFragment parent = cachedParent.get();\n"
+                + "            if (parent != null) {\n"
+                + "                return parent;\n"
+                + "            }\n"
+                + "        }\n"
+                + "        Fragment fragment = host;\n"
+                + "        while (fragment != null && !(fragment instanceof TestParentFragment)) {\n"
+                + "            fragment = fragment.getParentFragment();\n"
+                + "        }\n"
+                + "        if (fragment == null) {\n"
+                + "            throw new IllegalStateException(\"Parent TestParentFragment not found\");\n"
+                + "        }\n"
+                + "        TestParentFragment parent = (TestParentFragment) fragment;\n"
+                + "        cachedHost = new WeakReference<Fragment>(host);\n"
+                + "        cachedParent = new WeakReference<TestParentFragment>(parent);\n"
+                + "        return parent;\n"
+                + "    }\n"
                 + "    \n"
                 + "    public static RondelTestFragmentComponent inject(TestFragment injectie) {\n"
-                + "        TestParentFragment parent = (TestParentFragment) injectie.getParentFragment();\n"
+                + "        TestParentFragment parent = findParent(injectie.getParentFragment());\n"
                 + "        RondelTestParentFragmentComponent baseComponent = (RondelTestParentFragmentComponent) parent.getComponent();\n"
                 + "        RondelTestFragmentComponent component = baseComponent.rondelTestFragmentComponentBuilder()\n"
                 + "                .testFragmentModule(getTestFragmentModule(injectie))\n"
@@ -597,16 +620,14 @@ public class FragmentInjectorTest {
                 + "        return component;\n"
                 + "    }\n"
                 + "    \n"
-                + "    public static void setTestFragmentModule(TestFragmentModule module) {\n"
-                + "        testFragmentModule = module;\n"
-                + "    }\n"
-                + "    \n"
                 + "    private static TestFragmentModule getTestFragmentModule(TestFragment injectie) {\n"
-                + "        if (testFragmentModule != null) {\n"
-                + "            return testFragmentModule;\n"
-                + "        } else {\n"
-                + "            return new TestFragmentModule();\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestFragmentModule override = ModuleOverrides.get(injectie.getActivity().getApplicationContext(), TestFragmentModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
+                + "        return TEST_FRAGMENT_MODULE;\n"
                 + "    }\n"
                 + "    \n"
                 + "}");
@@ -912,6 +933,7 @@ public class FragmentInjectorTest {
         JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.fragment.RondelTestFragment", "package test.ui.fragment;\n"
                 + "\n"
                 + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
                 + "\n"
                 + "import test.ui.RondelTestActivityComponent;\n"
                 + "import test.ui.TestActivity;\n"
@@ -922,7 +944,7 @@ public class FragmentInjectorTest {
                 + ")\n"
                 + "class RondelTestFragment {\n"
                 + "    \n"
-                + "    private static TestFragmentModule testFragmentModule;\n"
+                + "    private static final TestFragmentModule TEST_FRAGMENT_MODULE = new TestFragmentModule();\n"
                 + "    \n"
                 + "    public static RondelTestFragmentComponent inject(TestFragment injectie) {\n"
                 + "        TestActivity parent = (TestActivity) injectie.getActivity();\n"
@@ -934,16 +956,14 @@ public class FragmentInjectorTest {
                 + "        return component;\n"
                 + "    }\n"
                 + "    \n"
-                + "    public static void setTestFragmentModule(TestFragmentModule module) {\n"
-                + "        testFragmentModule = module;\n"
-                + "    }\n"
-                + "    \n"
                 + "    private static TestFragmentModule getTestFragmentModule(TestFragment injectie) {\n"
-                + "        if (testFragmentModule != null) {\n"
-                + "            return testFragmentModule;\n"
-                + "        } else {\n"
-                + "            return new TestFragmentModule();\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestFragmentModule override = ModuleOverrides.get(injectie.getActivity().getApplicationContext(), TestFragmentModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
+                + "        return TEST_FRAGMENT_MODULE;\n"
                 + "    }\n"
                 + "    \n"
                 + "}");
@@ -984,4 +1004,121 @@ public class FragmentInjectorTest {
 
     }
 
+    @Test
+    public void testSupportFragmentParent() throws Exception {
+
+        JavaFileObject appFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
+                + "\n"
+                + "import android.app.Application;\n"
+                + "import solar.blaz.rondel.App;\n"
+                + "import solar.blaz.rondel.ComponentProvider;\n"
+                + "\n"
+                + "@App\n"
+                + "public class TestApp extends Application implements ComponentProvider {\n"
+                + "    public RondelTestAppComponent getComponent() {\n"
+                + "        return null;\n"
+                + "    }\n"
+                + "}");
+
+        JavaFileObject activityFile = JavaFileObjects.forSourceString("test.ui.TestActivity", "package test.ui;\n"
+                + "\n"
+                + "import android.support.v4.app.FragmentActivity;\n"
+                + "import solar.blaz.rondel.RondelComponent;\n"
+                + "import solar.blaz.rondel.ComponentProvider;\n"
+                + "import solar.blaz.rondel.Rondel;\n"
+                + "\n"
+                + "@Rondel\n"
+                + "public class TestActivity extends FragmentActivity implements ComponentProvider {\n"
+                + "\n"
+                + "    @Override\n"
+                + "    public RondelComponent getComponent() {\n"
+                + "        return null;\n"
+                + "    }\n"
+                + "}");
+
+        JavaFileObject parentFragmentFile = JavaFileObjects.forSourceString("test.ui.TestParentFragment", "package test.ui;\n"
+                + "\n"
+                + "import android.support.v4.app.Fragment;\n"
+                + "import solar.blaz.rondel.RondelComponent;\n"
+                + "import solar.blaz.rondel.ComponentProvider;\n"
+                + "import solar.blaz.rondel.Rondel;\n"
+                + "\n"
+                + "@Rondel(\n"
+                + "        parent = TestActivity.class\n"
+                + ")\n"
+                + "public class TestParentFragment extends Fragment implements ComponentProvider {\n"
+                + "\n"
+                + "    @Override public RondelComponent getComponent() {\n"
+                + "        return null;\n"
+                + "    }\n"
+                + "}");
+
+        JavaFileObject fragmentFile = JavaFileObjects.forSourceString("test.ui.TestFragment", "package test.ui;\n"
+                + "\n"
+                + "import android.support.v4.app.Fragment;\n"
+                + "import solar.blaz.rondel.Rondel;\n"
+                + "\n"
+                + "@Rondel(\n"
+                + "        parent = TestParentFragment.class\n"
+                + ")\n"
+                + "public class TestFragment extends Fragment {\n"
+                + "    \n"
+                + "}");
+
+        JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.RondelTestFragment", "package test.ui;\n"
+                + "\n"
+                + "import android.support.v4.app.Fragment;\n"
+                + "import java.lang.IllegalStateException;\n"
+                + "import java.lang.ref.WeakReference;\n"
+                + "import javax.annotation.Generated;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "class RondelTestFragment {\n"
+                + "    \n"
+                + "    private static WeakReference<Fragment> cachedHost;\n"
+                + "    private static WeakReference<TestParentFragment> cachedParent;\n"
+                + "    \n"
+                + "    private static synchronized TestParentFragment findParent(Fragment host) {\n"
+                + "        if (host != null && cachedHost != null && cachedHost.get() == host) {\n"
+                + "            TestParentFragment parent = cachedParent.get();\n"
+                + "            if (parent != null) {\n"
+                + "                return parent;\n"
+                + "            }\n"
+                + "        }\n"
+                + "        Fragment fragment = host;\n"
+                + "        while (fragment != null && !(fragment instanceof TestParentFragment)) {\n"
+                + "            fragment = fragment.getParentFragment();\n"
+                + "        }\n"
+                + "        if (fragment == null) {\n"
+                + "            throw new IllegalStateException(\"Parent TestParentFragment not found\");\n"
+                + "        }\n"
+                + "        TestParentFragment parent = (TestParentFragment) fragment;\n"
+                + "        cachedHost = new WeakReference<Fragment>(host);\n"
+                + "        cachedParent = new WeakReference<TestParentFragment>(parent);\n"
+                + "        return parent;\n"
+                + "    }\n"
+                + "    \n"
+                + "    public static RondelTestFragmentComponent inject(TestFragment injectie) {\n"
+                + "        TestParentFragment parent = findParent(injectie.getParentFragment());\n"
+                + "        RondelTestParentFragmentComponent baseComponent = (RondelTestParentFragmentComponent) parent.getComponent();\n"
+                + "        RondelTestFragmentComponent component = baseComponent.rondelTestFragmentComponentBuilder()\n"
+                + "                .build();\n"
+                + "        component.inject(injectie);\n"
+                + "        return component;\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, activityFile, parentFragmentFile, fragmentFile))
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedInjector);
+
+    }
+
 }
@@ -0,0 +1,209 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.compiler;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteSource;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+
+import dagger.internal.codegen.ComponentProcessor;
+
+import static com.google.common.truth.Truth.assertAbout;
+import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
+
+public class GraphReportTest {
+
+    private final JavaFileObject appFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
+            + "\n"
+            + "import android.app.Application;\n"
+            + "import solar.blaz.rondel.App;\n"
+            + "import solar.blaz.rondel.ComponentProvider;\n"
+            + "\n"
+            + "@App(modules = AppModule.class)\n"
+            + "public class TestApp extends Application implements ComponentProvider {\n"
+            + "    public RondelTestAppComponent getComponent() {\n"
+            + "        return null;\n"
+            + "    }\n"
+            + "}");
+
+    private final JavaFileObject appModuleFile = JavaFileObjects.forSourceString("test.AppModule", "package test;\n"
+            + "\n"
+            + "import dagger.Module;\n"
+            + "\n"
+            + "@Module\n"
+            + "public class AppModule {\n"
+            + "}");
+
+    private final JavaFileObject activityFile = JavaFileObjects.forSourceString("test.ui.TestActivity", "package test.ui;\n"
+            + "\n"
+            + "import android.app.Activity;\n"
+            + "import solar.blaz.rondel.ComponentProvider;\n"
+            + "import solar.blaz.rondel.RondelComponent;\n"
+            + "import solar.blaz.rondel.Rondel;\n"
+            + "\n"
+            + "@Rondel(modules = ActivityModule.class)\n"
+            + "public class TestActivity extends Activity implements ComponentProvider {\n"
+            + "    public RondelComponent getComponent() {\n"
+            + "        return null;\n"
+            + "    }\n"
+            + "}");
+
+    private final JavaFileObject activityModuleFile = JavaFileObjects.forSourceString("test.ui.ActivityModule", "package test.ui;\n"
+            + "\n"
+            + "import dagger.Module;\n"
+            + "\n"
+            + "@Module(includes = NameModule.class)\n"
+            + "public class ActivityModule {\n"
+            + "    private final TestActivity activity;\n"
+            + "    public ActivityModule(TestActivity activity) {\n"
+            + "        this.activity = activity;\n"
+            + "    }\n"
+            + "}");
+
+    private final JavaFileObject nameModuleFile = JavaFileObjects.forSourceString("test.ui.NameModule", "package test.ui;\n"
+            + "\n"
+            + "import dagger.Module;\n"
+            + "\n"
+            + "@Module\n"
+            + "public class NameModule {\n"
+            + "}");
+
+    private final JavaFileObject fragmentFile = JavaFileObjects.forSourceString("test.ui.TestFragment", "package test.ui;\n"
+            + "\n"
+            + "import android.app.Fragment;\n"
+            + "import solar.blaz.rondel.Rondel;\n"
+            + "\n"
+            + "@Rondel(parent = TestActivity.class)\n"
+            + "public class TestFragment extends Fragment {\n"
+            + "}");
+
+    @Test
+    public void testReport() throws Exception {
+
+        String expected = "{\n"
+                + "  \"components\": [\n"
+                + "    {\n"
+                + "      \"target\": \"test.TestApp\",\n"
+                + "      \"component\": \"test.RondelTestAppComponent\",\n"
+                + "      \"scope\": \"javax.inject.Singleton\",\n"
+                + "      \"parent\": null,\n"
+                + "      \"depth\": 0,\n"
+                + "      \"children\": 1,\n"
+                + "      \"modules\": 1,\n"
+                + "      \"modulesPerInject\": 0,\n"
+                + "      \"parentLookup\": \"none\",\n"
+                + "      \"parentHops\": 0\n"
+                + "    },\n"
+                + "    {\n"
+                + "      \"target\": \"test.ui.TestActivity\",\n"
+                + "      \"component\": \"test.ui.RondelTestActivityComponent\",\n"
+                + "      \"scope\": \"solar.blaz.rondel.ActivityScope\",\n"
+                + "      \"parent\": \"test.TestApp\",\n"
+                + "      \"depth\": 1,\n"
+                + "      \"children\": 1,\n"
+                + "      \"modules\": 2,\n"
+                + "      \"modulesPerInject\": 1,\n"
+                + "      \"parentLookup\": \"direct\",\n"
+                + "      \"parentHops\": 1\n"
+                + "    },\n"
+                + "    {\n"
+                + "      \"target\": \"test.ui.TestFragment\",\n"
+                + "      \"component\": \"test.ui.RondelTestFragmentComponent\",\n"
+                + "      \"scope\": \"solar.blaz.rondel.FragmentScope\",\n"
+                + "      \"parent\": \"test.ui.TestActivity\",\n"
+                + "      \"depth\": 2,\n"
+                + "      \"children\": 0,\n"
+                + "      \"modules\": 0,\n"
+                + "      \"modulesPerInject\": 0,\n"
+                + "      \"parentLookup\": \"direct\",\n"
+                + "      \"parentHops\": 1\n"
+                + "    }\n"
+                + "  ]\n"
+                + "}\n";
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, appModuleFile, activityFile, activityModuleFile, nameModuleFile,
+                        fragmentFile))
+                .withCompilerOptions("-Arondel.graphReport=true")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesFileNamed(StandardLocation.CLASS_OUTPUT, "test", "rondel-graph.json")
+                .withContents(ByteSource.wrap(expected.getBytes(Charsets.UTF_8)));
+
+    }
+
+    @Test
+    public void testMaxDepth() throws Exception {
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, appModuleFile, activityFile, activityModuleFile, nameModuleFile,
+                        fragmentFile))
+                .withCompilerOptions("-Arondel.maxDepth=1")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .failsToCompile()
+                .withErrorCount(2) // limit is reported once, App does not find RondelTestAppComponent
+                .withErrorContaining("TestFragment depth 2 exceeds rondel.maxDepth 1.");
+
+    }
+
+    @Test
+    public void testMaxModules() throws Exception {
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, appModuleFile, activityFile, activityModuleFile, nameModuleFile,
+                        fragmentFile))
+                .withCompilerOptions("-Arondel.maxModules=1")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .failsToCompile()
+                .withErrorCount(2) // limit is reported once, App does not find RondelTestAppComponent
+                .withErrorContaining("TestActivity modules 2 exceeds rondel.maxModules 1.");
+
+    }
+
+    @Test
+    public void testMaxModulesPerInject() throws Exception {
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, appModuleFile, activityFile, activityModuleFile, nameModuleFile,
+                        fragmentFile))
+                .withCompilerOptions("-Arondel.maxModulesPerInject=0")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .failsToCompile()
+                .withErrorContaining("TestActivity module instances per inject 1 exceeds rondel.maxModulesPerInject 0.");
+
+    }
+
+    @Test
+    public void testInvalidLimit() throws Exception {
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, appModuleFile))
+                .withCompilerOptions("-Arondel.maxDepth=deep")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .failsToCompile()
+                .withErrorContaining("Invalid rondel.maxDepth value \"deep\". Use number that is 0 or more.");
+
+    }
+
+}
@@ -0,0 +1,330 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+
+package solar.blaz.rondel.compiler;
+
+import com.google.common.collect.ImmutableList;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+
+import dagger.internal.codegen.ComponentProcessor;
+
+import static com.google.common.truth.Truth.assertAbout;
+import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
+
+public class LazyModulesTest {
+
+    private final JavaFileObject appModuleFile = JavaFileObjects.forSourceString("test.AppModule", "package test;\n"
+            + "\n"
+            + "import dagger.Module;\n"
+            + "import dagger.Provides;\n"
+            + "\n"
+            + "@Module\n"
+            + "public class AppModule {\n"
+            + "    \n"
+            + "    @Provides Integer provideVersion() {\n"
+            + "        return 1;\n"
+            + "    }\n"
+            + "    \n"
+            + "}");
+
+    private final JavaFileObject screenModuleFile = JavaFileObjects.forSourceString("test.ScreenModule", "package test;\n"
+            + "\n"
+            + "import dagger.Module;\n"
+            + "import dagger.Provides;\n"
+            + "\n"
+            + "@Module\n"
+            + "public class ScreenModule {\n"
+            + "    \n"
+            + "    @Provides String provideTitle(Integer version) {\n"
+            + "        return \"v\" + version;\n"
+            + "    }\n"
+            + "    \n"
+            + "}");
+
+    private final JavaFileObject activityFile = JavaFileObjects.forSourceString("test.ui.TestActivity", "package test.ui;\n"
+            + "\n"
+            + "import android.app.Activity;\n"
+            + "import javax.inject.Inject;\n"
+            + "import solar.blaz.rondel.Rondel;\n"
+            + "\n"
+            + "@Rondel\n"
+            + "public class TestActivity extends Activity {\n"
+            + "    \n"
+            + "    @Inject String title;\n"
+            + "    \n"
+            + "}");
+
+    @Test
+    public void testLazyModule() throws Exception {
+
+        JavaFileObject appFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
+                + "\n"
+                + "import android.app.Application;\n"
+                + "import javax.inject.Inject;\n"
+                + "import solar.blaz.rondel.App;\n"
+                + "import solar.blaz.rondel.ComponentProvider;\n"
+                + "\n"
+                + "@App(\n"
+                + "        modules = { AppModule.class, ScreenModule.class }\n"
+                + ")\n"
+                + "public class TestApp extends Application implements ComponentProvider {\n"
+                + "    @Inject Integer version;\n"
+                + "    public RondelTestAppComponent getComponent() {\n"
+                + "        return null;\n"
+                + "    }\n"
+                + "}");
+
+        JavaFileObject expectedAppComponent = JavaFileObjects.forSourceString("test.RondelTestAppComponent", "package test;\n"
+                + "\n"
+                + "import dagger.Component;\n"
+                + "import javax.annotation.Generated;\n"
+                + "import javax.inject.Singleton;\n"
+                + "import solar.blaz.rondel.RondelComponent;\n"
+                + "import test.ui.RondelTestActivityComponent;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "@Component(\n"
+                + "        modules = { AppModule.class }\n"
+                + ")\n"
+                + "@Singleton\n"
+                + "public interface RondelTestAppComponent extends RondelComponent {\n"
+                + "    void inject(TestApp app);\n"
+                + "    RondelTestActivityComponent.Builder rondelTestActivityComponentBuilder();\n"
+                + "}");
+
+        JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.RondelTestActivity", "package test.ui;\n"
+                + "\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
+                + "import test.RondelTestAppComponent;\n"
+                + "import test.ScreenModule;\n"
+                + "import test.TestApp;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "class RondelTestActivity {\n"
+                + "    \n"
+                + "    private static final ScreenModule TEST_SCREEN_MODULE = new ScreenModule();\n"
+                + "    \n"
+                + "    public static RondelTestActivityComponent inject(TestActivity injectie) {\n"
+                + "        TestApp parent = (TestApp) injectie.getApplicationContext();\n"
+                + "        RondelTestAppComponent baseComponent = (RondelTestAppComponent) parent.getComponent();\n"
+                + "        RondelTestActivityComponent component = baseComponent.rondelTestActivityComponentBuilder()\n"
+                + "                .screenModule(getTestScreenModule(injectie))\n"
+                + "                .build();\n"
+                + "        component.inject(injectie);\n"
+                + "        return component;\n"
+                + "    }\n"
+                + "    \n"
+                + "    private static ScreenModule getTestScreenModule(TestActivity injectie) {\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            ScreenModule override = ModuleOverrides.get(injectie.getApplicationContext(), ScreenModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
+                + "        }\n"
+                + "        return TEST_SCREEN_MODULE;\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        JavaFileObject expectedComponent = JavaFileObjects.forSourceString("test.ui.RondelTestActivityComponent", "package test.ui;\n"
+                + "\n"
+                + "import dagger.Subcomponent;\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ActivityScope;\n"
+                + "import solar.blaz.rondel.RondelComponent;\n"
+                + "import test.ScreenModule;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "@Subcomponent(\n"
+                + "        modules = { ScreenModule.class }\n"
+                + ")\n"
+                + "@ActivityScope\n"
+                + "public interface RondelTestActivityComponent extends RondelComponent {\n"
+                + "    \n"
+                + "    void inject(TestActivity view);\n"
+                + "\n"
+                + "    @Subcomponent.Builder\n"
+                + "    interface Builder {\n"
+                + "        Builder screenModule(ScreenModule module);\n"
+                + "        RondelTestActivityComponent build();\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, appModuleFile, screenModuleFile, activityFile))
+                .withCompilerOptions("-Arondel.lazyModules=true")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedAppComponent, expectedInjector, expectedComponent);
+
+    }
+
+    @Test
+    public void testSingletonKeepsModule() throws Exception {
+
+        JavaFileObject appFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
+                + "\n"
+                + "import android.app.Application;\n"
+                + "import solar.blaz.rondel.App;\n"
+                + "import solar.blaz.rondel.ComponentProvider;\n"
+                + "\n"
+                + "@App(\n"
+                + "        modules = { AppModule.class, ScreenModule.class }\n"
+                + ")\n"
+                + "public class TestApp extends Application implements ComponentProvider {\n"
+                + "    public RondelTestAppComponent getComponent() {\n"
+                + "        return null;\n"
+                + "    }\n"
+                + "}");
+
+        JavaFileObject cacheFile = JavaFileObjects.forSourceString("test.ui.TitleCache", "package test.ui;\n"
+                + "\n"
+                + "import javax.inject.Inject;\n"
+                + "import javax.inject.Singleton;\n"
+                + "\n"
+                + "@Singleton\n"
+                + "public class TitleCache {\n"
+                + "    @Inject TitleCache(String title) {\n"
+                + "    }\n"
+                + "}");
+
+        JavaFileObject cacheActivityFile = JavaFileObjects.forSourceString("test.ui.TestActivity", "package test.ui;\n"
+                + "\n"
+                + "import android.app.Activity;\n"
+                + "import javax.inject.Inject;\n"
+                + "import solar.blaz.rondel.Rondel;\n"
+                + "\n"
+                + "@Rondel\n"
+                + "public class TestActivity extends Activity {\n"
+                + "    \n"
+                + "    @Inject TitleCache cache;\n"
+                + "    \n"
+                + "}");
+
+        JavaFileObject expectedAppComponent = JavaFileObjects.forSourceString("test.RondelTestAppComponent", "package test;\n"
+                + "\n"
+                + "import dagger.Component;\n"
+                + "import javax.annotation.Generated;\n"
+                + "import javax.inject.Singleton;\n"
+                + "import solar.blaz.rondel.RondelComponent;\n"
+                + "import test.ui.RondelTestActivityComponent;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "@Component(\n"
+                + "        modules = { AppModule.class, ScreenModule.class }\n"
+                + ")\n"
+                + "@Singleton\n"
+                + "public interface RondelTestAppComponent extends RondelComponent {\n"
+                + "    void inject(TestApp app);\n"
+                + "    RondelTestActivityComponent.Builder rondelTestActivityComponentBuilder();\n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, appModuleFile, screenModuleFile, cacheFile, cacheActivityFile))
+                .withCompilerOptions("-Arondel.lazyModules=true")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedAppComponent);
+
+    }
+
+    @Test
+    public void testStatefulKeepsModule() throws Exception {
+
+        JavaFileObject appFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
+                + "\n"
+                + "import android.app.Application;\n"
+                + "import solar.blaz.rondel.App;\n"
+                + "import solar.blaz.rondel.ComponentProvider;\n"
+                + "\n"
+                + "@App(\n"
+                + "        modules = { AppModule.class, CounterModule.class }\n"
+                + ")\n"
+                + "public class TestApp extends Application implements ComponentProvider {\n"
+                + "    public RondelTestAppComponent getComponent() {\n"
+                + "        return null;\n"
+                + "    }\n"
+                + "}");
+
+        JavaFileObject counterModuleFile = JavaFileObjects.forSourceString("test.CounterModule", "package test;\n"
+                + "\n"
+                + "import dagger.Module;\n"
+                + "import dagger.Provides;\n"
+                + "\n"
+                + "@Module\n"
+                + "public class CounterModule {\n"
+                + "    \n"
+                + "    private int count;\n"
+                + "    \n"
+                + "    @Provides String provideTitle() {\n"
+                + "        return \"#\" + count++;\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        JavaFileObject expectedAppComponent = JavaFileObjects.forSourceString("test.RondelTestAppComponent", "package test;\n"
+                + "\n"
+                + "import dagger.Component;\n"
+                + "import javax.annotation.Generated;\n"
+                + "import javax.inject.Singleton;\n"
+                + "import solar.blaz.rondel.RondelComponent;\n"
+                + "import test.ui.RondelTestActivityComponent;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "@Component(\n"
+                + "        modules = { AppModule.class, CounterModule.class }\n"
+                + ")\n"
+                + "@Singleton\n"
+                + "public interface RondelTestAppComponent extends RondelComponent {\n"
+                + "    void inject(TestApp app);\n"
+                + "    RondelTestActivityComponent.Builder rondelTestActivityComponentBuilder();\n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, appModuleFile, counterModuleFile, activityFile))
+                .withCompilerOptions("-Arondel.lazyModules=true")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedAppComponent);
+
+    }
+
+}
@@ -0,0 +1,221 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.compiler;
+
+import com.google.common.collect.ImmutableList;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import javax.tools.JavaFileObject;
+
+import dagger.internal.codegen.ComponentProcessor;
+
+import static com.google.common.truth.Truth.assertAbout;
+import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
+
+public class PreloadTest {
+
+    @Rule public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final JavaFileObject appFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
+            + "\n"
+            + "import android.app.Application;\n"
+            + "import solar.blaz.rondel.App;\n"
+            + "import solar.blaz.rondel.ComponentProvider;\n"
+            + "\n"
+            + "@App\n"
+            + "public class TestApp extends Application implements ComponentProvider {\n"
+            + "    public RondelTestAppComponent getComponent() {\n"
+            + "        return null;\n"
+            + "    }\n"
+            + "}");
+
+    private final JavaFileObject activityFile = JavaFileObjects.forSourceString("test.ui.TestActivity", "package test.ui;\n"
+            + "\n"
+            + "import android.app.Activity;\n"
+            + "import javax.inject.Inject;\n"
+            + "import solar.blaz.rondel.ComponentProvider;\n"
+            + "import solar.blaz.rondel.Rondel;\n"
+            + "import solar.blaz.rondel.RondelComponent;\n"
+            + "\n"
+            + "@Rondel\n"
+            + "public class TestActivity extends Activity implements ComponentProvider {\n"
+            + "    @Inject void setUp() {\n"
+            + "    }\n"
+            + "    public RondelComponent getComponent() {\n"
+            + "        return null;\n"
+            + "    }\n"
+            + "}");
+
+    private final JavaFileObject viewFile = JavaFileObjects.forSourceString("test.ui.TestView", "package test.ui;\n"
+            + "\n"
+            + "import android.content.Context;\n"
+            + "import android.view.View;\n"
+            + "import solar.blaz.rondel.Rondel;\n"
+            + "\n"
+            + "@Rondel(parent = TestActivity.class)\n"
+            + "public class TestView extends View {\n"
+            + "    public TestView(Context context) {\n"
+            + "        super(context);\n"
+            + "    }\n"
+            + "}");
+
+    private final JavaFileObject serviceFile = JavaFileObjects.forSourceString("test.TestService", "package test;\n"
+            + "\n"
+            + "import android.app.Service;\n"
+            + "import solar.blaz.rondel.Rondel;\n"
+            + "\n"
+            + "@Rondel(startupPriority = 1)\n"
+            + "public abstract class TestService extends Service {\n"
+            + "}");
+
+    @Test
+    public void testPreload() throws Exception {
+
+        JavaFileObject expectedPreload = JavaFileObjects.forSourceString("test.RondelTestAppPreload", "package test;\n"
+                + "\n"
+                + "import java.lang.String;\n"
+                + "import javax.annotation.Generated;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "public final class RondelTestAppPreload {\n"
+                + "    /**\n"
+                + "     * Binary names of classes in the order they should be loaded.\n"
+                + "     */\n"
+                + "    public static String[] getClassNames() {\n"
+                + "        return new String[] {\n"
+                + "            \"test.RondelTestApp\",\n"
+                + "            \"test.RondelTestAppComponent\",\n"
+                + "            \"test.DaggerRondelTestAppComponent\",\n"
+                + "            \"test.DaggerRondelTestAppComponent$Builder\",\n"
+                + "            \"test.RondelTestService\",\n"
+                + "            \"test.RondelTestServiceComponent\",\n"
+                + "            \"test.RondelTestServiceComponent$Builder\",\n"
+                + "            \"test.DaggerRondelTestAppComponent$RondelTestServiceComponentBuilder\",\n"
+                + "            \"test.DaggerRondelTestAppComponent$RondelTestServiceComponentImpl\",\n"
+                + "            \"test.ui.RondelTestActivity\",\n"
+                + "            \"test.ui.RondelTestActivityComponent\",\n"
+                + "            \"test.ui.RondelTestActivityComponent$Builder\",\n"
+                + "            \"test.DaggerRondelTestAppComponent$RondelTestActivityComponentBuilder\",\n"
+                + "            \"test.DaggerRondelTestAppComponent$RondelTestActivityComponentImpl\",\n"
+                + "            \"test.ui.TestActivity_MembersInjector\",\n"
+                + "            \"test.ui.RondelTestView\",\n"
+                + "            \"test.ui.RondelTestViewComponent\",\n"
+                + "            \"test.ui.RondelTestViewComponent$Builder\",\n"
+                + "            \"test.DaggerRondelTestAppComponent$RondelTestActivityComponentImpl$RondelTestViewComponentBuilder\",\n"
+                + "            \"test.DaggerRondelTestAppComponent$RondelTestActivityComponentImpl$RondelTestViewComponentImpl\"\n"
+                + "        };\n"
+                + "    }\n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, activityFile, viewFile, serviceFile))
+                .withCompilerOptions("-Arondel.preload=true")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedPreload);
+
+    }
+
+    @Test
+    public void testStartupProfile() throws Exception {
+
+        File profile = folder.newFile("startup-profile.txt");
+        Files.write(profile.toPath(), ("# cold start\n"
+                + "test.TestApp\n"
+                + "test.ui.TestActivity\n"
+                + "test.ui.RemovedActivity\n").getBytes(StandardCharsets.UTF_8));
+
+        JavaFileObject expectedPreload = JavaFileObjects.forSourceString("test.RondelTestAppPreload", "package test;\n"
+                + "\n"
+                + "import java.lang.String;\n"
+                + "import javax.annotation.Generated;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "public final class RondelTestAppPreload {\n"
+                + "    /**\n"
+                + "     * Binary names of classes in the order they should be loaded.\n"
+                + "     */\n"
+                + "    public static String[] getClassNames() {\n"
+                + "        return new String[] {\n"
+                + "            \"test.RondelTestApp\",\n"
+                + "            \"test.RondelTestAppComponent\",\n"
+                + "            \"test.DaggerRondelTestAppComponent\",\n"
+                + "            \"test.DaggerRondelTestAppComponent$Builder\",\n"
+                + "            \"test.ui.RondelTestActivity\",\n"
+                + "            \"test.ui.RondelTestActivityComponent\",\n"
+                + "            \"test.ui.RondelTestActivityComponent$Builder\",\n"
+                + "            \"test.DaggerRondelTestAppComponent$RondelTestActivityComponentBuilder\",\n"
+                + "            \"test.DaggerRondelTestAppComponent$RondelTestActivityComponentImpl\",\n"
+                + "            \"test.ui.TestActivity_MembersInjector\"\n"
+                + "        };\n"
+                + "    }\n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, activityFile, viewFile, serviceFile))
+                .withCompilerOptions("-Arondel.preload=true", "-Arondel.startupProfile=" + profile.getAbsolutePath())
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .withWarningContaining("Startup profile lists test.ui.RemovedActivity that is not a @Rondel component.")
+                .and()
+                .and()
+                .generatesSources(expectedPreload);
+
+    }
+
+    @Test
+    public void testMissingStartupProfile() throws Exception {
+
+        String profile = new File(folder.getRoot(), "missing-profile.txt").getAbsolutePath();
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, activityFile))
+                .withCompilerOptions("-Arondel.preload=true", "-Arondel.startupProfile=" + profile)
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .failsToCompile()
+                .withErrorContaining("rondel.startupProfile file \"" + profile + "\" does not exist.");
+
+    }
+
+    @Test
+    public void testRelativeStartupProfile() throws Exception {
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, activityFile))
+                .withCompilerOptions("-Arondel.preload=true", "-Arondel.startupProfile=startup-profile.txt")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .failsToCompile()
+                .withErrorContaining("Invalid rondel.startupProfile value \"startup-profile.txt\". Use absolute path");
+
+    }
+
+}
@@ -0,0 +1,388 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.compiler;
+
+import com.google.common.collect.ImmutableList;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+
+import dagger.internal.codegen.ComponentProcessor;
+
+import static com.google.common.truth.Truth.assertAbout;
+import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
+
+public class ProcessTest {
+
+    private final JavaFileObject moduleFile = JavaFileObjects.forSourceString("test.SyncModule", "package test;\n"
+            + "\n"
+            + "import dagger.Module;\n"
+            + "\n"
+            + "@Module\n"
+            + "public class SyncModule {\n"
+            + "}");
+
+    private final JavaFileObject serviceFile = JavaFileObjects.forSourceString("test.SyncService", "package test;\n"
+            + "\n"
+            + "import android.app.Service;\n"
+            + "import solar.blaz.rondel.Rondel;\n"
+            + "\n"
+            + "@Rondel\n"
+            + "public abstract class SyncService extends Service {\n"
+            + "}");
+
+    private final JavaFileObject activityFile = JavaFileObjects.forSourceString("test.TestActivity", "package test;\n"
+            + "\n"
+            + "import android.app.Activity;\n"
+            + "import solar.blaz.rondel.ComponentProvider;\n"
+            + "import solar.blaz.rondel.Rondel;\n"
+            + "import solar.blaz.rondel.RondelComponent;\n"
+            + "\n"
+            + "@Rondel\n"
+            + "public class TestActivity extends Activity implements ComponentProvider {\n"
+            + "    public RondelComponent getComponent() {\n"
+            + "        return null;\n"
+            + "    }\n"
+            + "}");
+
+    @Test
+    public void testProcess() throws Exception {
+
+        JavaFileObject appFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
+                + "\n"
+                + "import android.app.Application;\n"
+                + "import solar.blaz.rondel.App;\n"
+                + "import solar.blaz.rondel.ComponentProvider;\n"
+                + "import solar.blaz.rondel.RondelComponent;\n"
+                + "\n"
+                + "@App(processes = @App.Process(name = \":sync\", modules = SyncModule.class, children = SyncService.class))\n"
+                + "public class TestApp extends Application implements ComponentProvider {\n"
+                + "    public RondelComponent getComponent() {\n"
+                + "        return null;\n"
+                + "    }\n"
+                + "}");
+
+        JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.RondelTestApp", "package test;\n"
+                + "\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.AppProcess;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
+                + "import solar.blaz.rondel.RondelComponent;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "public class RondelTestApp {\n"
+                + "    private static final SyncModule SYNC_MODULE = new SyncModule();\n"
+                + "\n"
+                + "    public static RondelComponent inject(TestApp injectie) {\n"
+                + "        if (AppProcess.is(\":sync\")) {\n"
+                + "            return injectSync(injectie);\n"
+                + "        }\n"
+                + "        RondelTestAppComponent component = DaggerRondelTestAppComponent.builder()\n"
+                + "                .build();\n"
+                + "        component.inject(injectie);\n"
+                + "        return component;\n"
+                + "    }\n"
+                + "\n"
+                + "    private static RondelTestAppSyncComponent injectSync(TestApp injectie) {\n"
+                + "        RondelTestAppSyncComponent component = DaggerRondelTestAppSyncComponent.builder()\n"
+                + "                .syncModule(getSyncModule(injectie))\n"
+                + "                .build();\n"
+                + "        component.inject(injectie);\n"
+                + "        return component;\n"
+                + "    }\n"
+                + "\n"
+                + "    private static SyncModule getSyncModule(TestApp injectie) {\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            SyncModule override = ModuleOverrides.get(injectie, SyncModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
+                + "        }\n"
+                + "        return SYNC_MODULE;\n"
+                + "    }\n"
+                + "}");
+
+        JavaFileObject expectedComponent = JavaFileObjects.forSourceString("test.RondelTestAppSyncComponent", "package test;\n"
+                + "\n"
+                + "import dagger.Component;\n"
+                + "import javax.annotation.Generated;\n"
+                + "import javax.inject.Singleton;\n"
+                + "import solar.blaz.rondel.RondelComponent;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "@Component(\n"
+                + "        modules = { SyncModule.class }\n"
+                + ")\n"
+                + "@Singleton\n"
+                + "public interface RondelTestAppSyncComponent extends RondelComponent {\n"
+                + "    void inject(TestApp app);\n"
+                + "\n"
+                + "    RondelSyncServiceComponent.Builder rondelSyncServiceComponentBuilder();\n"
+                + "}");
+
+        JavaFileObject expectedActivityInjector = JavaFileObjects.forSourceString("test.RondelTestActivity", "package test;\n"
+                + "\n"
+                + "import java.lang.IllegalStateException;\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.AppProcess;\n"
+                + "import solar.blaz.rondel.RondelComponent;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "class RondelTestActivity {\n"
+                + "    public static RondelTestActivityComponent inject(TestActivity injectie) {\n"
+                + "        TestApp parent = (TestApp) injectie.getApplicationContext();\n"
+                + "        RondelComponent appComponent = parent.getComponent();\n"
+                + "        if (!(appComponent instanceof RondelTestAppComponent)) {\n"
+                + "            throw new IllegalStateException(\"TestActivity needs RondelTestAppComponent, which is not built in process \" + AppProcess.getName() + \". Add TestActivity to children of its @App.Process.\");\n"
+                + "        }\n"
+                + "        RondelTestAppComponent baseComponent = (RondelTestAppComponent) appComponent;\n"
+                + "        RondelTestActivityComponent component = baseComponent.rondelTestActivityComponentBuilder()\n"
+                + "                .build();\n"
+                + "        component.inject(injectie);\n"
+                + "        return component;\n"
+                + "    }\n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, moduleFile, serviceFile, activityFile))
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedInjector, expectedComponent, expectedActivityInjector);
+
+    }
+
+    @Test
+    public void testPreload() throws Exception {
+
+        JavaFileObject appFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
+                + "\n"
+                + "import android.app.Application;\n"
+                + "import solar.blaz.rondel.App;\n"
+                + "import solar.blaz.rondel.ComponentProvider;\n"
+                + "import solar.blaz.rondel.RondelComponent;\n"
+                + "\n"
+                + "@App(processes = @App.Process(name = \":sync\", modules = SyncModule.class, children = SyncService.class))\n"
+                + "public class TestApp extends Application implements ComponentProvider {\n"
+                + "    public RondelComponent getComponent() {\n"
+                + "        return null;\n"
+                + "    }\n"
+                + "}");
+
+        JavaFileObject expectedPreload = JavaFileObjects.forSourceString("test.RondelTestAppPreload", "package test;\n"
+                + "\n"
+                + "import java.lang.String;\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.AppProcess;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "public final class RondelTestAppPreload {\n"
+                + "    /**\n"
+                + "     * Binary names of classes in the order they should be loaded in current process.\n"
+                + "     */\n"
+                + "    public static String[] getClassNames() {\n"
+                + "        if (AppProcess.is(\":sync\")) {\n"
+                + "            return new String[] {\n"
+                + "                \"test.RondelTestApp\",\n"
+                + "                \"test.RondelTestAppSyncComponent\",\n"
+                + "                \"test.DaggerRondelTestAppSyncComponent\",\n"
+                + "                \"test.DaggerRondelTestAppSyncComponent$Builder\",\n"
+                + "                \"test.RondelSyncService\",\n"
+                + "                \"test.RondelSyncServiceComponent\",\n"
+                + "                \"test.RondelSyncServiceComponent$Builder\",\n"
+                + "                \"test.DaggerRondelTestAppSyncComponent$RondelSyncServiceComponentBuilder\",\n"
+                + "                \"test.DaggerRondelTestAppSyncComponent$RondelSyncServiceComponentImpl\"\n"
+                + "            };\n"
+                + "        }\n"
+                + "        return new String[] {\n"
+                + "            \"test.RondelTestApp\",\n"
+                + "            \"test.RondelTestAppComponent\",\n"
+                + "            \"test.DaggerRondelTestAppComponent\",\n"
+                + "            \"test.DaggerRondelTestAppComponent$Builder\",\n"
+                + "            \"test.RondelSyncService\",\n"
+                + "            \"test.RondelSyncServiceComponent\",\n"
+                + "            \"test.RondelSyncServiceComponent$Builder\",\n"
+                + "            \"test.DaggerRondelTestAppComponent$RondelSyncServiceComponentBuilder\",\n"
+                + "            \"test.DaggerRondelTestAppComponent$RondelSyncServiceComponentImpl\",\n"
+                + "            \"test.RondelTestActivity\",\n"
+                + "            \"test.RondelTestActivityComponent\",\n"
+                + "            \"test.RondelTestActivityComponent$Builder\",\n"
+                + "            \"test.DaggerRondelTestAppComponent$RondelTestActivityComponentBuilder\",\n"
+                + "            \"test.DaggerRondelTestAppComponent$RondelTestActivityComponentImpl\"\n"
+                + "        };\n"
+                + "    }\n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, moduleFile, serviceFile, activityFile))
+                .withCompilerOptions("-Arondel.preload=true")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedPreload);
+
+    }
+
+    @Test
+    public void testRegistry() throws Exception {
+
+        JavaFileObject appFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
+                + "\n"
+                + "import android.app.Application;\n"
+                + "import solar.blaz.rondel.App;\n"
+                + "import solar.blaz.rondel.ComponentProvider;\n"
+                + "import solar.blaz.rondel.RondelComponent;\n"
+                + "\n"
+                + "@App(processes = @App.Process(name = \":sync\", modules = SyncModule.class, children = SyncService.class))\n"
+                + "public class TestApp extends Application implements ComponentProvider {\n"
+                + "    public RondelComponent getComponent() {\n"
+                + "        return null;\n"
+                + "    }\n"
+                + "}");
+
+        JavaFileObject expectedRegistry = JavaFileObjects.forSourceString("test.RondelTestAppRegistry", "package test;\n"
+                + "\n"
+                + "import java.lang.Class;\n"
+                + "import java.lang.IllegalArgumentException;\n"
+                + "import java.lang.Integer;\n"
+                + "import java.lang.Object;\n"
+                + "import java.lang.Override;\n"
+                + "import java.util.HashMap;\n"
+                + "import java.util.Map;\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.AppProcess;\n"
+                + "import solar.blaz.rondel.InjectorRegistry;\n"
+                + "import solar.blaz.rondel.RondelComponent;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "public final class RondelTestAppRegistry implements InjectorRegistry {\n"
+                + "    private final Map<Class<?>, Integer> injectors = new HashMap<Class<?>, Integer>(6);\n"
+                + "\n"
+                + "    public RondelTestAppRegistry() {\n"
+                + "        injectors.put(TestApp.class, 0);\n"
+                + "        if (AppProcess.is(\":sync\")) {\n"
+                + "            injectors.put(SyncService.class, 1);\n"
+                + "        } else {\n"
+                + "            injectors.put(SyncService.class, 1);\n"
+                + "            injectors.put(TestActivity.class, 2);\n"
+                + "        }\n"
+                + "    }\n"
+                + "\n"
+                + "    @Override\n"
+                + "    public RondelComponent inject(Object target) {\n"
+                + "        Integer injector = find(target.getClass());\n"
+                + "        if (injector == null) {\n"
+                + "            throw new IllegalArgumentException(\"No injector for \" + target.getClass().getName());\n"
+                + "        }\n"
+                + "        switch (injector) {\n"
+                + "            case 0:\n"
+                + "                return RondelTestApp.inject((TestApp) target);\n"
+                + "            case 1:\n"
+                + "                return RondelSyncService.inject((SyncService) target);\n"
+                + "            case 2:\n"
+                + "                return RondelTestActivity.inject((TestActivity) target);\n"
+                + "            default:\n"
+                + "                throw new IllegalArgumentException(\"No injector for \" + target.getClass().getName());\n"
+                + "        }\n"
+                + "    }\n"
+                + "\n"
+                + "    private Integer find(Class<?> type) {\n"
+                + "        return injectors.get(type);\n"
+                + "    }\n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, moduleFile, serviceFile, activityFile))
+                .withCompilerOptions("-Arondel.registry=exact")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedRegistry);
+
+    }
+
+    @Test
+    public void testNotAppChild() throws Exception {
+
+        JavaFileObject appFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
+                + "\n"
+                + "import android.app.Application;\n"
+                + "import solar.blaz.rondel.App;\n"
+                + "import solar.blaz.rondel.ComponentProvider;\n"
+                + "import solar.blaz.rondel.RondelComponent;\n"
+                + "\n"
+                + "@App(processes = @App.Process(name = \":sync\", children = SyncModule.class))\n"
+                + "public class TestApp extends Application implements ComponentProvider {\n"
+                + "    public RondelComponent getComponent() {\n"
+                + "        return null;\n"
+                + "    }\n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, moduleFile, serviceFile))
+                .processedWith(new RondelProcessor())
+                .failsToCompile()
+                .withErrorContaining("SyncModule is not @Rondel class with App parent, so process \":sync\" can not inject it.");
+
+    }
+
+    @Test
+    public void testChildInTwoProcesses() throws Exception {
+
+        JavaFileObject appFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
+                + "\n"
+                + "import android.app.Application;\n"
+                + "import solar.blaz.rondel.App;\n"
+                + "import solar.blaz.rondel.ComponentProvider;\n"
+                + "import solar.blaz.rondel.RondelComponent;\n"
+                + "\n"
+                + "@App(processes = {\n"
+                + "        @App.Process(name = \":sync\", children = SyncService.class),\n"
+                + "        @App.Process(name = \":upload\", children = SyncService.class)\n"
+                + "})\n"
+                + "public class TestApp extends Application implements ComponentProvider {\n"
+                + "    public RondelComponent getComponent() {\n"
+                + "        return null;\n"
+                + "    }\n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, serviceFile))
+                .processedWith(new RondelProcessor())
+                .failsToCompile()
+                .withErrorContaining("SyncService is injected by processes \":sync\" and \":upload\". Use it in one process only.");
+
+    }
+
+}
@@ -0,0 +1,268 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.compiler;
+
+import com.google.common.collect.ImmutableList;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+
+import dagger.internal.codegen.ComponentProcessor;
+
+import static com.google.common.truth.Truth.assertAbout;
+import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
+
+public class RegistryTest {
+
+    private final JavaFileObject appFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
+            + "\n"
+            + "import android.app.Application;\n"
+            + "import solar.blaz.rondel.App;\n"
+            + "import solar.blaz.rondel.ComponentProvider;\n"
+            + "\n"
+            + "@App\n"
+            + "public class TestApp extends Application implements ComponentProvider {\n"
+            + "    public RondelTestAppComponent getComponent() {\n"
+            + "        return null;\n"
+            + "    }\n"
+            + "}");
+
+    private final JavaFileObject activityFile = JavaFileObjects.forSourceString("test.ui.TestActivity", "package test.ui;\n"
+            + "\n"
+            + "import android.app.Activity;\n"
+            + "import solar.blaz.rondel.Rondel;\n"
+            + "\n"
+            + "@Rondel\n"
+            + "public class TestActivity extends Activity {\n"
+            + "    \n"
+            + "}");
+
+    @Test
+    public void testExactRegistry() throws Exception {
+
+        JavaFileObject expectedRegistry = JavaFileObjects.forSourceString("test.RondelTestAppRegistry", "package test;\n"
+                + "\n"
+                + "import java.lang.Class;\n"
+                + "import java.lang.IllegalArgumentException;\n"
+                + "import java.lang.Integer;\n"
+                + "import java.lang.Object;\n"
+                + "import java.lang.Override;\n"
+                + "import java.util.HashMap;\n"
+                + "import java.util.Map;\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.InjectorRegistry;\n"
+                + "import solar.blaz.rondel.RondelComponent;\n"
+                + "import test.ui.RondelTestActivity;\n"
+                + "import test.ui.TestActivity;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "public final class RondelTestAppRegistry implements InjectorRegistry {\n"
+                + "    private final Map<Class<?>, Integer> injectors = new HashMap<Class<?>, Integer>(4);\n"
+                + "\n"
+                + "    public RondelTestAppRegistry() {\n"
+                + "        injectors.put(TestApp.class, 0);\n"
+                + "        injectors.put(TestActivity.class, 1);\n"
+                + "    }\n"
+                + "\n"
+                + "    @Override\n"
+                + "    public RondelComponent inject(Object target) {\n"
+                + "        Integer injector = find(target.getClass());\n"
+                + "        if (injector == null) {\n"
+                + "            throw new IllegalArgumentException(\"No injector for \" + target.getClass().getName());\n"
+                + "        }\n"
+                + "        switch (injector) {\n"
+                + "            case 0:\n"
+                + "                return RondelTestApp.inject((TestApp) target);\n"
+                + "            case 1:\n"
+                + "                return RondelTestActivity.inject((TestActivity) target);\n"
+                + "            default:\n"
+                + "                throw new IllegalArgumentException(\"No injector for \" + target.getClass().getName());\n"
+                + "        }\n"
+                + "    }\n"
+                + "\n"
+                + "    private Integer find(Class<?> type) {\n"
+                + "        return injectors.get(type);\n"
+                + "    }\n"
+                + "}");
+
+        JavaFileObject expectedAppInjector = JavaFileObjects.forSourceString("test.RondelTestApp", "package test;\n"
+                + "\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.Injector;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "public class RondelTestApp {\n"
+                + "    \n"
+                + "    public static RondelTestAppComponent inject(TestApp injectie) {\n"
+                + "        Injector.setRegistry(new RondelTestAppRegistry());\n"
+                + "        RondelTestAppComponent component = DaggerRondelTestAppComponent.builder()\n"
+                + "                .build();\n"
+                + "        component.inject(injectie);\n"
+                + "        return component;\n"
+                + "    }\n"
+                + "\n"
+                + "}");
+
+        JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.RondelTestActivity", "package test.ui;\n"
+                + "\n"
+                + "import javax.annotation.Generated;\n"
+                + "import test.RondelTestAppComponent;\n"
+                + "import test.TestApp;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "public class RondelTestActivity {\n"
+                + "    \n"
+                + "    public static RondelTestActivityComponent inject(TestActivity injectie) {\n"
+                + "        TestApp parent = (TestApp) injectie.getApplicationContext();\n"
+                + "        RondelTestAppComponent baseComponent = (RondelTestAppComponent) parent.getComponent();\n"
+                + "        RondelTestActivityComponent component = baseComponent.rondelTestActivityComponentBuilder()\n"
+                + "                .build();\n"
+                + "        component.inject(injectie);\n"
+                + "        return component;\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, activityFile))
+                .withCompilerOptions("-Arondel.registry=exact")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedRegistry, expectedAppInjector, expectedInjector);
+
+    }
+
+    @Test
+    public void testSuperclassRegistry() throws Exception {
+
+        JavaFileObject expectedRegistry = JavaFileObjects.forSourceString("test.RondelTestAppRegistry", "package test;\n"
+                + "\n"
+                + "import java.lang.Class;\n"
+                + "import java.lang.IllegalArgumentException;\n"
+                + "import java.lang.Integer;\n"
+                + "import java.lang.Object;\n"
+                + "import java.lang.Override;\n"
+                + "import java.util.Map;\n"
+                + "import java.util.concurrent.ConcurrentHashMap;\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.InjectorRegistry;\n"
+                + "import solar.blaz.rondel.RondelComponent;\n"
+                + "import test.ui.RondelTestActivity;\n"
+                + "import test.ui.TestActivity;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "public final class RondelTestAppRegistry implements InjectorRegistry {\n"
+                + "    private final Map<Class<?>, Integer> injectors = new ConcurrentHashMap<Class<?>, Integer>(4);\n"
+                + "\n"
+                + "    public RondelTestAppRegistry() {\n"
+                + "        injectors.put(TestApp.class, 0);\n"
+                + "        injectors.put(TestActivity.class, 1);\n"
+                + "    }\n"
+                + "\n"
+                + "    @Override\n"
+                + "    public RondelComponent inject(Object target) {\n"
+                + "        Integer injector = find(target.getClass());\n"
+                + "        if (injector == null) {\n"
+                + "            throw new IllegalArgumentException(\"No injector for \" + target.getClass().getName());\n"
+                + "        }\n"
+                + "        switch (injector) {\n"
+                + "            case 0:\n"
+                + "                return RondelTestApp.inject((TestApp) target);\n"
+                + "            case 1:\n"
+                + "                return RondelTestActivity.inject((TestActivity) target);\n"
+                + "            default:\n"
+                + "                throw new IllegalArgumentException(\"No injector for \" + target.getClass().getName());\n"
+                + "        }\n"
+                + "    }\n"
+                + "\n"
+                + "    private Integer find(Class<?> type) {\n"
+                + "        Integer injector = injectors.get(type);\n"
+                + "        if (injector == null) {\n"
+                + "            injector = -1;\n"
+                + "            for (Class<?> superType = type.getSuperclass(); superType != null; superType = superType.getSuperclass()) {\n"
+                + "                Integer found = injectors.get(superType);\n"
+                + "                if (found != null) {\n"
+                + "                    injector = found;\n"
+                + "                    break;\n"
+                + "                }\n"
+                + "            }\n"
+                + "            injectors.put(type, injector);\n"
+                + "        }\n"
+                + "        return injector == -1 ? null : injector;\n"
+                + "    }\n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, activityFile))
+                .withCompilerOptions("-Arondel.registry=superclass")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedRegistry);
+
+    }
+
+    @Test
+    public void testNotPublic() throws Exception {
+
+        JavaFileObject activityFile = JavaFileObjects.forSourceString("test.ui.TestActivity", "package test.ui;\n"
+                + "\n"
+                + "import android.app.Activity;\n"
+                + "import solar.blaz.rondel.Rondel;\n"
+                + "\n"
+                + "@Rondel\n"
+                + "class TestActivity extends Activity {\n"
+                + "    \n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, activityFile))
+                .withCompilerOptions("-Arondel.registry=exact")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .failsToCompile()
+                .withErrorContaining("Injected type has to be public when rondel.registry is enabled.");
+
+    }
+
+    @Test
+    public void testUnknownMode() throws Exception {
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, activityFile))
+                .withCompilerOptions("-Arondel.registry=nearest")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .failsToCompile()
+                .withErrorContaining("Unknown rondel.registry value \"nearest\". Use exact or superclass.");
+
+    }
+
+}
@@ -114,6 +114,7 @@ public class ServiceInjectorTest {
         JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.service.RondelTestService", "package test.service;\n"
                 + "\n"
                 + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
                 + "\n"
                 + "import test.RondelTestAppComponent;\n"
                 + "import test.TestApp;\n"
@@ -124,7 +125,7 @@ public class ServiceInjectorTest {
                 + ")\n"
                 + "class RondelTestService {\n"
                 + "    \n"
-                + "    private static TestModule testModule;\n"
+                + "    private static final TestModule TEST_MODULE = new TestModule();\n"
                 + "\n"
                 + "    public static RondelTestServiceComponent inject(TestService injectie) {\n"
                 + "        TestApp parent = (TestApp) injectie.getApplicationContext();\n"
@@ -136,16 +137,14 @@ public class ServiceInjectorTest {
                 + "        return component;\n"
                 + "    }\n"
                 + "    \n"
-                + "    public static void setTestModule(TestModule module) {\n"
-                + "        testModule = module;\n"
-                + "    }\n"
-                + "    \n"
                 + "    private static TestModule getTestModule(TestService injectie) {\n"
-                + "        if (testModule != null) {\n"
-                + "            return testModule;\n"
-                + "        } else {\n"
-                + "            return new TestModule();\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestModule override = ModuleOverrides.get(injectie.getApplicationContext(), TestModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
+                + "        return TEST_MODULE;\n"
                 + "    }\n"
                 + "    \n"
                 + "}");
@@ -0,0 +1,286 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.compiler;
+
+import com.google.common.collect.ImmutableList;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+
+import dagger.internal.codegen.ComponentProcessor;
+
+import static com.google.common.truth.Truth.assertAbout;
+import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
+
+public class SharedViewTest {
+
+    private final JavaFileObject appFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
+            + "\n"
+            + "import android.app.Application;\n"
+            + "import solar.blaz.rondel.App;\n"
+            + "import solar.blaz.rondel.ComponentProvider;\n"
+            + "\n"
+            + "@App\n"
+            + "public class TestApp extends Application implements ComponentProvider {\n"
+            + "    public RondelTestAppComponent getComponent() {\n"
+            + "        return null;\n"
+            + "    }\n"
+            + "}");
+
+    private final JavaFileObject activityFile = JavaFileObjects.forSourceString("test.ui.TestActivity", "package test.ui;\n"
+            + "\n"
+            + "import android.app.Activity;\n"
+            + "import solar.blaz.rondel.ComponentProvider;\n"
+            + "import solar.blaz.rondel.Rondel;\n"
+            + "import solar.blaz.rondel.RondelComponent;\n"
+            + "\n"
+            + "@Rondel\n"
+            + "public class TestActivity extends Activity implements ComponentProvider {\n"
+            + "    public RondelComponent getComponent() {\n"
+            + "        return null;\n"
+            + "    }\n"
+            + "}");
+
+    private final JavaFileObject moduleFile = JavaFileObjects.forSourceString("test.ui.ItemModule", "package test.ui;\n"
+            + "\n"
+            + "import dagger.Module;\n"
+            + "\n"
+            + "@Module\n"
+            + "public class ItemModule {\n"
+            + "}");
+
+    @Test
+    public void testShared() throws Exception {
+
+        JavaFileObject viewFile = JavaFileObjects.forSourceString("test.ui.ItemView", "package test.ui;\n"
+                + "\n"
+                + "import android.content.Context;\n"
+                + "import android.view.View;\n"
+                + "import solar.blaz.rondel.Rondel;\n"
+                + "\n"
+                + "@Rondel(parent = TestActivity.class, modules = ItemModule.class, shared = true)\n"
+                + "public class ItemView extends View {\n"
+                + "    public ItemView(Context context) {\n"
+                + "        super(context);\n"
+                + "    }\n"
+                + "}");
+
+        JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.RondelItemView", "package test.ui;\n"
+                + "\n"
+                + "import java.lang.ref.WeakReference;\n"
+                + "import java.util.Map;\n"
+                + "import java.util.WeakHashMap;\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "class RondelItemView {\n"
+                + "    private static final Map<RondelTestActivityComponent, WeakReference<RondelItemViewComponent>> sharedComponents = new WeakHashMap<RondelTestActivityComponent, WeakReference<RondelItemViewComponent>>();\n"
+                + "\n"
+                + "    private static final ItemModule ITEM_MODULE = new ItemModule();\n"
+                + "\n"
+                + "    private static synchronized RondelItemViewComponent getSharedComponent(RondelTestActivityComponent baseComponent, ItemView injectie) {\n"
+                + "        WeakReference<RondelItemViewComponent> reference = sharedComponents.get(baseComponent);\n"
+                + "        RondelItemViewComponent component = reference != null ? reference.get() : null;\n"
+                + "        if (component == null) {\n"
+                + "            component = baseComponent.rondelItemViewComponentBuilder()\n"
+                + "                    .itemModule(getItemModule(injectie))\n"
+                + "                    .build();\n"
+                + "            sharedComponents.put(baseComponent, new WeakReference<RondelItemViewComponent>(component));\n"
+                + "        }\n"
+                + "        return component;\n"
+                + "    }\n"
+                + "\n"
+                + "    public static RondelItemViewComponent inject(ItemView injectie) {\n"
+                + "        TestActivity parent = (TestActivity) injectie.getContext();\n"
+                + "        RondelTestActivityComponent baseComponent = (RondelTestActivityComponent) parent.getComponent();\n"
+                + "        RondelItemViewComponent component = getSharedComponent(baseComponent, injectie);\n"
+                + "        component.inject(injectie);\n"
+                + "        return component;\n"
+                + "    }\n"
+                + "\n"
+                + "    private static ItemModule getItemModule(ItemView injectie) {\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            ItemModule override = ModuleOverrides.get(injectie.getContext().getApplicationContext(), ItemModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
+                + "        }\n"
+                + "        return ITEM_MODULE;\n"
+                + "    }\n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, activityFile, moduleFile, viewFile))
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedInjector);
+
+    }
+
+    @Test
+    public void testSharedTracing() throws Exception {
+
+        JavaFileObject viewFile = JavaFileObjects.forSourceString("test.ui.ItemView", "package test.ui;\n"
+                + "\n"
+                + "import android.content.Context;\n"
+                + "import android.view.View;\n"
+                + "import solar.blaz.rondel.Rondel;\n"
+                + "\n"
+                + "@Rondel(parent = TestActivity.class, modules = ItemModule.class, shared = true)\n"
+                + "public class ItemView extends View {\n"
+                + "    public ItemView(Context context) {\n"
+                + "        super(context);\n"
+                + "    }\n"
+                + "}");
+
+        JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.RondelItemView", "package test.ui;\n"
+                + "\n"
+                + "import java.lang.ref.WeakReference;\n"
+                + "import java.util.Map;\n"
+                + "import java.util.WeakHashMap;\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ComponentTracker;\n"
+                + "import solar.blaz.rondel.InjectionStats;\n"
+                + "import solar.blaz.rondel.InjectionTracer;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
+                + "import solar.blaz.rondel.Tracing;\n"
+                + "import solar.blaz.rondel.ViewScope;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "class RondelItemView {\n"
+                + "    private static final Map<RondelTestActivityComponent, WeakReference<RondelItemViewComponent>> sharedComponents = new WeakHashMap<RondelTestActivityComponent, WeakReference<RondelItemViewComponent>>();\n"
+                + "\n"
+                + "    private static final InjectionStats.Slot STATS = InjectionStats.register(ItemView.class);\n"
+                + "\n"
+                + "    private static final ItemModule ITEM_MODULE = new ItemModule();\n"
+                + "\n"
+                + "    private static synchronized RondelItemViewComponent getSharedComponent(RondelTestActivityComponent baseComponent, ItemView injectie) {\n"
+                + "        WeakReference<RondelItemViewComponent> reference = sharedComponents.get(baseComponent);\n"
+                + "        RondelItemViewComponent component = reference != null ? reference.get() : null;\n"
+                + "        if (component == null) {\n"
+                + "            InjectionTracer tracer = Tracing.getTracer();\n"
+                + "            tracer.beginBuild(ItemView.class, ViewScope.class);\n"
+                + "            component = baseComponent.rondelItemViewComponentBuilder()\n"
+                + "                    .itemModule(getItemModule(injectie))\n"
+                + "                    .build();\n"
+                + "            STATS.built();\n"
+                + "            tracer.endBuild(ItemView.class, ViewScope.class);\n"
+                + "            ComponentTracker.track(component, baseComponent, ViewScope.class);\n"
+                + "            sharedComponents.put(baseComponent, new WeakReference<RondelItemViewComponent>(component));\n"
+                + "        }\n"
+                + "        return component;\n"
+                + "    }\n"
+                + "\n"
+                + "    public static RondelItemViewComponent inject(ItemView injectie) {\n"
+                + "        long start = STATS.start();\n"
+                + "        InjectionTracer tracer = Tracing.getTracer();\n"
+                + "        TestActivity parent = (TestActivity) injectie.getContext();\n"
+                + "        RondelTestActivityComponent baseComponent = (RondelTestActivityComponent) parent.getComponent();\n"
+                + "        RondelItemViewComponent component = getSharedComponent(baseComponent, injectie);\n"
+                + "        tracer.beginInject(ItemView.class, ViewScope.class);\n"
+                + "        component.inject(injectie);\n"
+                + "        tracer.endInject(ItemView.class, ViewScope.class);\n"
+                + "        STATS.injected(start);\n"
+                + "        return component;\n"
+                + "    }\n"
+                + "\n"
+                + "    private static ItemModule getItemModule(ItemView injectie) {\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            ItemModule override = ModuleOverrides.get(injectie.getContext().getApplicationContext(), ItemModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
+                + "        }\n"
+                + "        return ITEM_MODULE;\n"
+                + "    }\n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, activityFile, moduleFile, viewFile))
+                .withCompilerOptions("-Arondel.trace=true", "-Arondel.stats=true", "-Arondel.track=true")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedInjector);
+
+    }
+
+    @Test
+    public void testSharedActivity() throws Exception {
+
+        JavaFileObject sharedActivityFile = JavaFileObjects.forSourceString("test.ui.SharedActivity", "package test.ui;\n"
+                + "\n"
+                + "import android.app.Activity;\n"
+                + "import solar.blaz.rondel.Rondel;\n"
+                + "\n"
+                + "@Rondel(shared = true)\n"
+                + "public class SharedActivity extends Activity {\n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, sharedActivityFile))
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .failsToCompile()
+                .withErrorContaining("Only views can be shared.");
+
+    }
+
+    @Test
+    public void testModuleTakesView() throws Exception {
+
+        JavaFileObject viewModuleFile = JavaFileObjects.forSourceString("test.ui.ItemViewModule", "package test.ui;\n"
+                + "\n"
+                + "import dagger.Module;\n"
+                + "\n"
+                + "@Module\n"
+                + "public class ItemViewModule {\n"
+                + "    public ItemViewModule(ItemView view) {\n"
+                + "    }\n"
+                + "}");
+
+        JavaFileObject viewFile = JavaFileObjects.forSourceString("test.ui.ItemView", "package test.ui;\n"
+                + "\n"
+                + "import android.content.Context;\n"
+                + "import android.view.View;\n"
+                + "import solar.blaz.rondel.Rondel;\n"
+                + "\n"
+                + "@Rondel(parent = TestActivity.class, modules = ItemViewModule.class, shared = true)\n"
+                + "public class ItemView extends View {\n"
+                + "    public ItemView(Context context) {\n"
+                + "        super(context);\n"
+                + "    }\n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, activityFile, viewModuleFile, viewFile))
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .failsToCompile()
+                .withErrorContaining("Modules of shared view can not take the view in constructor.");
+
+    }
+
+}
@@ -309,6 +309,7 @@ public class SingletonInjectorTest {
         JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.RondelApp", "package test;\n"
                 + "\n"
                 + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
                 + "\n"
                 + "@Generated(\n"
                 + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
@@ -316,7 +317,6 @@ public class SingletonInjectorTest {
                 + ")\n"
                 + "public class RondelApp {\n"
                 + "    \n"
-                + "    private static AppModule appModule;\n"
                 + "    \n"
                 + "    public static RondelAppComponent inject(App injectie) {\n"
                 + "        RondelAppComponent component = DaggerRondelAppComponent.builder()\n"
@@ -326,16 +326,14 @@ public class SingletonInjectorTest {
                 + "        return component;\n"
                 + "    }\n"
                 + "\n"
-                + "    public static void setAppModule(AppModule module) {\n"
-                + "        appModule = module;\n"
-                + "    }\n"
-                + "    \n"
                 + "    private static AppModule getAppModule(App injectie) {\n"
-                + "        if (appModule != null) {\n"
-                + "            return appModule;\n"
-                + "        } else {\n"
-                + "            return new AppModule(injectie);\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            AppModule override = ModuleOverrides.get(injectie, AppModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
+                + "        return new AppModule(injectie);\n"
                 + "    }\n"
                 + "}");
 
@@ -405,6 +403,7 @@ public class SingletonInjectorTest {
         JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.RondelTestApp", "package test;\n"
                 + "\n"
                 + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
                 + "\n"
                 + "@Generated(\n"
                 + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
@@ -412,7 +411,6 @@ public class SingletonInjectorTest {
                 + ")\n"
                 + "public class RondelTestApp {\n"
                 + "    \n"
-                + "    private static TestAppModule testAppModule;\n"
                 + "    \n"
                 + "    public static RondelTestAppComponent inject(TestApp injectie) {\n"
                 + "        RondelTestAppComponent component = DaggerRondelTestAppComponent.builder()\n"
@@ -422,16 +420,14 @@ public class SingletonInjectorTest {
                 + "        return component;\n"
                 + "    }\n"
                 + "    \n"
-                + "    public static void setTestAppModule(TestAppModule module) {\n"
-                + "        testAppModule = module;\n"
-                + "    }\n"
-                + "    \n"
                 + "    private static TestAppModule getTestAppModule(TestApp injectie) {\n"
-                + "        if (testAppModule != null) {\n"
-                + "            return testAppModule;\n"
-                + "        } else {\n"
-                + "            return new TestAppModule(injectie);\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestAppModule override = ModuleOverrides.get(injectie, TestAppModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
+                + "        return new TestAppModule(injectie);\n"
                 + "    }\n"
                 + "    \n"
                 + "}");
@@ -498,6 +494,7 @@ public class SingletonInjectorTest {
         JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.RondelTestApp", "package test;\n"
                 + "\n"
                 + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
                 + "\n"
                 + "@Generated(\n"
                 + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
@@ -506,7 +503,7 @@ public class SingletonInjectorTest {
                 + "\n"
                 + "public class RondelTestApp {\n"
                 + "    \n"
-                + "    private static TestAppModule testAppModule;\n"
+                + "    private static final TestAppModule TEST_APP_MODULE = new TestAppModule();\n"
                 + "    \n"
                 + "    public static RondelTestAppComponent inject(TestApp injectie) {\n"
                 + "        RondelTestAppComponent component = DaggerRondelTestAppComponent.builder()\n"
@@ -516,16 +513,14 @@ public class SingletonInjectorTest {
                 + "        return component;\n"
                 + "    }\n"
                 + "    \n"
-                + "    public static void setTestAppModule(TestAppModule module) {\n"
-                + "        testAppModule = module;\n"
-                + "    }\n"
-                + "    \n"
                 + "    private static TestAppModule getTestAppModule(TestApp injectie) {\n"
-                + "        if (testAppModule != null) {\n"
-                + "            return testAppModule;\n"
-                + "        } else {\n"
-                + "            return new TestAppModule();\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestAppModule override = ModuleOverrides.get(injectie, TestAppModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
+                + "        return TEST_APP_MODULE;\n"
                 + "    }\n"
                 + "    \n"
                 + "}");
@@ -639,6 +634,7 @@ public class SingletonInjectorTest {
         JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.RondelTestApp", "package test;\n"
                 + "\n"
                 + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
                 + "\n"
                 + "@Generated(\n"
                 + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
@@ -646,7 +642,6 @@ public class SingletonInjectorTest {
                 + ")\n"
                 + "public class RondelTestApp {\n"
                 + "    \n"
-                + "    private static TestAppModule testAppModule;\n"
                 + "    \n"
                 + "    public static RondelTestAppComponent inject(TestApp injectie) {\n"
                 + "        RondelTestAppComponent component = DaggerRondelTestAppComponent.builder()\n"
@@ -656,16 +651,14 @@ public class SingletonInjectorTest {
                 + "        return component;\n"
                 + "    }\n"
                 + "    \n"
-                + "    public static void setTestAppModule(TestAppModule module) {\n"
-                + "        testAppModule = module;\n"
-                + "    }\n"
-                + "    \n"
                 + "    private static TestAppModule getTestAppModule(TestApp injectie) {\n"
-                + "        if (testAppModule != null) {\n"
-                + "            return testAppModule;\n"
-                + "        } else {\n"
-                + "            return new TestAppModule(injectie);\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestAppModule override = ModuleOverrides.get(injectie, TestAppModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
+                + "        return new TestAppModule(injectie);\n"
                 + "    }\n"
                 + "}");
 
@@ -798,6 +791,7 @@ public class SingletonInjectorTest {
         JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.RondelTestApp", "package test;\n"
                 + "\n"
                 + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
                 + "\n"
                 + "@Generated(\n"
                 + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
@@ -805,8 +799,6 @@ public class SingletonInjectorTest {
                 + ")\n"
                 + "public class RondelTestApp {\n"
                 + "    \n"
-                + "    private static TestAppModule testAppModule;\n"
-                + "    private static TestAppModule2 testAppModule2;\n"
                 + "    \n"
                 + "    public static RondelTestAppComponent inject(TestApp injectie) {\n"
                 + "        RondelTestAppComponent component = DaggerRondelTestAppComponent.builder()\n"
@@ -817,28 +809,24 @@ public class SingletonInjectorTest {
                 + "        return component;\n"
                 + "    }\n"
                 + "    \n"
-                + "    public static void setTestAppModule(TestAppModule module) {\n"
-                + "        testAppModule = module;\n"
-                + "    }\n"
-                + "    \n"
                 + "    private static TestAppModule getTestAppModule(TestApp injectie) {\n"
-                + "        if (testAppModule != null) {\n"
-                + "            return testAppModule;\n"
-                + "        } else {\n"
-                + "            return new TestAppModule(injectie);\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestAppModule override = ModuleOverrides.get(injectie, TestAppModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
-                + "    }\n"
-                + "    \n"
-                + "    public static void setTestAppModule2(TestAppModule2 module) {\n"
-                + "        testAppModule2 = module;\n"
+                + "        return new TestAppModule(injectie);\n"
                 + "    }\n"
                 + "    \n"
                 + "    private static TestAppModule2 getTestAppModule2(TestApp injectie) {\n"
-                + "        if (testAppModule2 != null) {\n"
-                + "            return testAppModule2;\n"
-                + "        } else {\n"
-                + "            return new TestAppModule2(injectie);    \n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestAppModule2 override = ModuleOverrides.get(injectie, TestAppModule2.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
+                + "        return new TestAppModule2(injectie);\n"
                 + "    }\n"
                 + "}");
 
@@ -911,6 +899,7 @@ public class SingletonInjectorTest {
         JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.RondelTest3App", "package test;\n"
                 + "\n"
                 + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
                 + "\n"
                 + "@Generated(\n"
                 + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
@@ -918,7 +907,6 @@ public class SingletonInjectorTest {
                 + ")\n"
                 + "public class RondelTest3App {\n"
                 + "    \n"
-                + "    private static Test1AppModule test1AppModule;\n"
                 + "    \n"
                 + "    public static RondelTest3AppComponent inject(Test3App injectie) {\n"
                 + "        RondelTest3AppComponent component = DaggerRondelTest3AppComponent.builder()\n"
@@ -928,16 +916,14 @@ public class SingletonInjectorTest {
                 + "        return component;\n"
                 + "    }\n"
                 + "    \n"
-                + "    public static void setTest1AppModule(Test1AppModule module) {\n"
-                + "        test1AppModule = module;\n"
-                + "    }\n"
-                + "    \n"
                 + "    private static Test1AppModule getTest1AppModule(Test3App injectie) {\n"
-                + "        if (test1AppModule != null) {\n"
-                + "            return test1AppModule;\n"
-                + "        } else {\n"
-                + "            return new Test1AppModule(injectie);\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            Test1AppModule override = ModuleOverrides.get(injectie, Test1AppModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
+                + "        return new Test1AppModule(injectie);\n"
                 + "    }\n"
                 + "    \n"
                 + "}");
@@ -1007,6 +993,7 @@ public class SingletonInjectorTest {
         JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.app.RondelApp", "package test.app;\n"
                 + "\n"
                 + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
                 + "\n"
                 + "import test.module.AppModule;\n"
                 + "\n"
@@ -1016,26 +1003,23 @@ public class SingletonInjectorTest {
                 + ")\n"
                 + "public class RondelApp {\n"
                 + "    \n"
-                + "    private static AppModule appModule;\n"
                 + "    \n"
                 + "    public static RondelAppComponent inject(App injectie) {\n"
                 + "        RondelAppComponent component = DaggerRondelAppComponent.builder()\n"
-                + "                .appModule(getAppModule(injectie))\n"
+                + "                .appModule(getTestModuleAppModule(injectie))\n"
                 + "                .build();\n"
                 + "        component.inject(injectie);\n"
                 + "        return component;\n"
                 + "    }\n"
                 + "    \n"
-                + "    public static void setAppModule(AppModule module) {\n"
-                + "        appModule = module;\n"
-                + "    }\n"
-                + "    \n"
-                + "    private static AppModule getAppModule(App injectie) {\n"
-                + "        if (appModule != null) {\n"
-                + "            return appModule;\n"
-                + "        } else {\n"
-                + "            return new AppModule(injectie);\n"
+                + "    private static AppModule getTestModuleAppModule(App injectie) {\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            AppModule override = ModuleOverrides.get(injectie, AppModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
+                + "        return new AppModule(injectie);\n"
                 + "    }\n"
                 + "}");
 
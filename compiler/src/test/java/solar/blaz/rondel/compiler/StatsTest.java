@@ -0,0 +1,127 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.compiler;
+
+import com.google.common.collect.ImmutableList;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+
+import dagger.internal.codegen.ComponentProcessor;
+
+import static com.google.common.truth.Truth.assertAbout;
+import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
+
+public class StatsTest {
+
+    private final JavaFileObject appFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
+            + "\n"
+            + "import android.app.Application;\n"
+            + "import solar.blaz.rondel.App;\n"
+            + "import solar.blaz.rondel.ComponentProvider;\n"
+            + "\n"
+            + "@App\n"
+            + "public class TestApp extends Application implements ComponentProvider {\n"
+            + "    public RondelTestAppComponent getComponent() {\n"
+            + "        return null;\n"
+            + "    }\n"
+            + "}");
+
+    private final JavaFileObject viewFile = JavaFileObjects.forSourceString("test.ui.TestView", "package test.ui;\n"
+            + "\n"
+            + "import android.content.Context;\n"
+            + "import android.util.AttributeSet;\n"
+            + "import android.view.View;\n"
+            + "import solar.blaz.rondel.Rondel;\n"
+            + "\n"
+            + "@Rondel\n"
+            + "public class TestView extends View {\n"
+            + "    public TestView(Context context, AttributeSet attrs) {\n"
+            + "        super(context, attrs);\n"
+            + "    }\n"
+            + "}");
+
+    @Test
+    public void testStats() throws Exception {
+
+        JavaFileObject expectedAppInjector = JavaFileObjects.forSourceString("test.RondelTestApp", "package test;\n"
+                + "\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.InjectionStats;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "public class RondelTestApp {\n"
+                + "    \n"
+                + "    private static final InjectionStats.Slot STATS = InjectionStats.register(TestApp.class);\n"
+                + "    \n"
+                + "    public static RondelTestAppComponent inject(TestApp injectie) {\n"
+                + "        long start = STATS.start();\n"
+                + "        RondelTestAppComponent component = DaggerRondelTestAppComponent.builder()\n"
+                + "                .build();\n"
+                + "        STATS.built();\n"
+                + "        component.inject(injectie);\n"
+                + "        STATS.injected(start);\n"
+                + "        return component;\n"
+                + "    }\n"
+                + "\n"
+                + "}");
+
+        JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.RondelTestView", "package test.ui;\n"
+                + "\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.InjectionStats;\n"
+                + "import test.RondelTestAppComponent;\n"
+                + "import test.TestApp;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "class RondelTestView {\n"
+                + "    \n"
+                + "    private static final InjectionStats.Slot STATS = InjectionStats.register(TestView.class);\n"
+                + "    \n"
+                + "    public static RondelTestViewComponent inject(TestView injectie) {\n"
+                + "        long start = STATS.start();\n"
+                + "        TestApp parent = (TestApp) injectie.getContext().getApplicationContext();\n"
+                + "        RondelTestAppComponent baseComponent = (RondelTestAppComponent) parent.getComponent();\n"
+                + "        RondelTestViewComponent component = baseComponent.rondelTestViewComponentBuilder()\n"
+                + "                .build();\n"
+                + "        STATS.built();\n"
+                + "        component.inject(injectie);\n"
+                + "        STATS.injected(start);\n"
+                + "        return component;\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, viewFile))
+                .withCompilerOptions("-Arondel.stats=true")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedAppInjector, expectedInjector);
+
+    }
+
+}
@@ -144,6 +144,7 @@ public class ViewInjectorTest {
         JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.view.RondelTestView", "package test.ui.view;\n"
                 + "\n"
                 + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
                 + "\n"
                 + "import test.RondelTestAppComponent;\n"
                 + "import test.TestApp;\n"
@@ -154,7 +155,7 @@ public class ViewInjectorTest {
                 + ")\n"
                 + "class RondelTestView {\n"
                 + "    \n"
-                + "    private static TestViewModule testViewModule;\n"
+                + "    private static final TestViewModule TEST_VIEW_MODULE = new TestViewModule();\n"
                 + "    \n"
                 + "    public static RondelTestViewComponent inject(TestView injectie) {\n"
                 + "        TestApp parent = (TestApp) injectie.getContext().getApplicationContext();\n"
@@ -166,16 +167,14 @@ public class ViewInjectorTest {
                 + "        return component;\n"
                 + "    }\n"
                 + "    \n"
-                + "    public static void setTestViewModule(TestViewModule module) {\n"
-                + "        testViewModule = module;\n"
-                + "    }\n"
-                + "    \n"
                 + "    private static TestViewModule getTestViewModule(TestView injectie) {\n"
-                + "        if (testViewModule != null) {\n"
-                + "            return testViewModule;\n"
-                + "        } else {\n"
-                + "            return new TestViewModule();\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestViewModule override = ModuleOverrides.get(injectie.getContext().getApplicationContext(), TestViewModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
+                + "        return TEST_VIEW_MODULE;\n"
                 + "    }\n"
                 + "    \n"
                 + "}");
@@ -453,6 +452,7 @@ public class ViewInjectorTest {
         JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.view.RondelTestView", "package test.ui.view;\n"
                 + "\n"
                 + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
                 + "\n"
                 + "import test.ui.RondelTestActivityComponent;\n"
                 + "import test.ui.TestActivity;\n"
@@ -463,7 +463,7 @@ public class ViewInjectorTest {
                 + ")\n"
                 + "class RondelTestView {\n"
                 + "    \n"
-                + "    private static TestViewModule testViewModule;\n"
+                + "    private static final TestViewModule TEST_VIEW_MODULE = new TestViewModule();\n"
                 + "    \n"
                 + "    public static RondelTestViewComponent inject(TestView injectie) {\n"
                 + "        TestActivity parent = (TestActivity) injectie.getContext();\n"
@@ -475,16 +475,14 @@ public class ViewInjectorTest {
                 + "        return component;\n"
                 + "    }\n"
                 + "    \n"
-                + "    public static void setTestViewModule(TestViewModule module) {\n"
-                + "        testViewModule = module;\n"
-                + "    }\n"
-                + "    \n"
                 + "    private static TestViewModule getTestViewModule(TestView injectie) {\n"
-                + "        if (testViewModule != null) {\n"
-                + "            return testViewModule;\n"
-                + "        } else {\n"
-                + "            return new TestViewModule();\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestViewModule override = ModuleOverrides.get(injectie.getContext().getApplicationContext(), TestViewModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
+                + "        return TEST_VIEW_MODULE;\n"
                 + "    }\n"
                 + "    \n"
                 + "}");
@@ -582,6 +580,7 @@ public class ViewInjectorTest {
         JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.view.RondelTestView", "package test.ui.view;\n"
                 + "\n"
                 + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
                 + "\n"
                 + "import test.RondelTestAppComponent;\n"
                 + "import test.TestApp;\n"
@@ -592,7 +591,7 @@ public class ViewInjectorTest {
                 + ")\n"
                 + "class RondelTestView {\n"
                 + "    \n"
-                + "    private static TestViewModule testViewModule;\n"
+                + "    private static final TestViewModule TEST_VIEW_MODULE = new TestViewModule();\n"
                 + "    \n"
                 + "    public static RondelTestViewComponent inject(TestView injectie) {\n"
                 + "        TestApp parent = (TestApp) injectie.getContext().getApplicationContext();\n"
@@ -604,16 +603,14 @@ public class ViewInjectorTest {
                 + "        return component;\n"
                 + "    }\n"
                 + "    \n"
-                + "    public static void setTestViewModule(TestViewModule module) {\n"
-                + "        testViewModule = module;\n"
-                + "    }\n"
-                + "    \n"
                 + "    private static TestViewModule getTestViewModule(TestView injectie) {\n"
-                + "        if (testViewModule != null) {\n"
-                + "            return testViewModule;\n"
-                + "        } else {\n"
-                + "            return new TestViewModule();\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestViewModule override = ModuleOverrides.get(injectie.getContext().getApplicationContext(), TestViewModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
                 + "        }\n"
+                + "        return TEST_VIEW_MODULE;\n"
                 + "    }\n"
                 + "    \n"
                 + "}");
@@ -722,11 +719,93 @@ public class ViewInjectorTest {
                 "    }\n" +
                 "}");
 
+        JavaFileObject expectedFragmentInjector = JavaFileObjects.forSourceString("test.ui.fragment.RondelTestFragment", "package test.ui.fragment;\n"
+                + "\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ViewComponents;\n"
+                + "import test.RondelTestAppComponent;\n"
+                + "import test.TestApp;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "class RondelTestFragment {\n"
+                + "    \n"
+                + "    public static RondelTestFragmentComponent inject(TestFragment injectie) {\n"
+                + "        TestApp parent = (TestApp) injectie.getActivity().getApplicationContext();\n"
+                + "        RondelTestAppComponent baseComponent = (RondelTestAppComponent) parent.getComponent();\n"
+                + "        RondelTestFragmentComponent component = baseComponent.rondelTestFragmentComponentBuilder()\n"
+                + "                .build();\n"
+                + "        component.inject(injectie);\n"
+                + "        return component;\n"
+                + "    }\n"
+                + "    \n"
+                + "    public static void publish(TestFragment fragment) {\n"
+                + "        ViewComponents.publish(fragment.getView(), fragment.getComponent());\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        JavaFileObject expectedInjector = JavaFileObjects.forSourceString("test.ui.view.RondelTestView", "package test.ui.view;\n"
+                + "\n"
+                + "import android.view.View;\n"
+                + "import android.view.ViewParent;\n"
+                + "import java.lang.IllegalStateException;\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
+                + "import solar.blaz.rondel.RondelComponent;\n"
+                + "import solar.blaz.rondel.ViewComponents;\n"
+                + "import test.ui.fragment.RondelTestFragmentComponent;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "class RondelTestView {\n"
+                + "    \n"
+                + "    private static final TestViewModule TEST_VIEW_MODULE = new TestViewModule();\n"
+                + "    \n"
+                + "    private static RondelTestFragmentComponent findComponent(View view) {\n"
+                + "        RondelComponent component = ViewComponents.get(view);\n"
+                + "        ViewParent parent = view.getParent();\n"
+                + "        while (!(component instanceof RondelTestFragmentComponent) && parent != null) {\n"
+                + "            component = ViewComponents.get(parent);\n"
+                + "            parent = parent.getParent();\n"
+                + "        }\n"
+                + "        if (!(component instanceof RondelTestFragmentComponent)) {\n"
+                + "            throw new IllegalStateException(\"No TestFragment component found. Call RondelTestFragment.publish(fragment) from onViewCreated.\");\n"
+                + "        }\n"
+                + "        return (RondelTestFragmentComponent) component;\n"
+                + "    }\n"
+                + "    \n"
+                + "    public static RondelTestViewComponent inject(TestView injectie) {\n"
+                + "        RondelTestFragmentComponent baseComponent = findComponent(injectie);\n"
+                + "        RondelTestViewComponent component = baseComponent.rondelTestViewComponentBuilder()\n"
+                + "                .testViewModule(getTestViewModule(injectie))\n"
+                + "                .build();\n"
+                + "        component.inject(injectie);\n"
+                + "        return component;\n"
+                + "    }\n"
+                + "    \n"
+                + "    private static TestViewModule getTestViewModule(TestView injectie) {\n"
+                + "        if (ModuleOverrides.isActive()) {\n"
+                + "            TestViewModule override = ModuleOverrides.get(injectie.getContext().getApplicationContext(), TestViewModule.class);\n"
+                + "            if (override != null) {\n"
+                + "                return override;\n"
+                + "            }\n"
+                + "        }\n"
+                + "        return TEST_VIEW_MODULE;\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
         assertAbout(javaSources())
                 .that(ImmutableList.of(appFile, fragmentFile, viewModuleFile, viewComponentFile, viewFile))
                 .processedWith(new RondelProcessor(), new ComponentProcessor())
-                .failsToCompile()
-                .withErrorContaining("Unknown parent type");
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedFragmentInjector, expectedInjector);
 
     }
 
@@ -0,0 +1,120 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.compiler;
+
+import com.google.common.collect.ImmutableList;
+import com.google.testing.compile.JavaFileObjects;
+
+import org.junit.Test;
+
+import javax.tools.JavaFileObject;
+
+import dagger.internal.codegen.ComponentProcessor;
+
+import static com.google.common.truth.Truth.assertAbout;
+import static com.google.testing.compile.JavaSourcesSubjectFactory.javaSources;
+
+public class WarmUpTest {
+
+    @Test
+    public void testWarmUp() throws Exception {
+
+        JavaFileObject appFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
+                + "\n"
+                + "import android.app.Application;\n"
+                + "import solar.blaz.rondel.App;\n"
+                + "import solar.blaz.rondel.ComponentProvider;\n"
+                + "\n"
+                + "@App(modules = TestAppModule.class)\n"
+                + "public class TestApp extends Application implements ComponentProvider {\n"
+                + "    public RondelTestAppComponent getComponent() {\n"
+                + "        return null;\n"
+                + "    }\n"
+                + "}");
+
+        JavaFileObject moduleFile = JavaFileObjects.forSourceString("test.TestAppModule", "package test;\n"
+                + "\n"
+                + "import dagger.Lazy;\n"
+                + "import dagger.Module;\n"
+                + "import dagger.Provides;\n"
+                + "import javax.inject.Named;\n"
+                + "import javax.inject.Singleton;\n"
+                + "\n"
+                + "@Module\n"
+                + "public class TestAppModule {\n"
+                + "    @Provides @Singleton @Named(\"url\") String provideUrl() {\n"
+                + "        return \"http://blaz.solar\";\n"
+                + "    }\n"
+                + "    @Provides StringBuilder provideBuilder(@Named(\"url\") String url) {\n"
+                + "        return new StringBuilder(url);\n"
+                + "    }\n"
+                + "    @Provides @Singleton CharSequence provideClient(StringBuilder builder, Lazy<Integer> size) {\n"
+                + "        return builder;\n"
+                + "    }\n"
+                + "    @Provides @Singleton Integer provideSize() {\n"
+                + "        return 10;\n"
+                + "    }\n"
+                + "}");
+
+        JavaFileObject expectedWarmUp = JavaFileObjects.forSourceString("test.RondelTestAppWarmUp", "package test;\n"
+                + "\n"
+                + "import java.lang.Override;\n"
+                + "import java.util.concurrent.Executor;\n"
+                + "import javax.annotation.Generated;\n"
+                + "import solar.blaz.rondel.WarmUp;\n"
+                + "\n"
+                + "@Generated(\n"
+                + "        value = \"solar.blaz.rondel.compiler.RondelProcessor\",\n"
+                + "        comments = \"http://blaz.solar/rondel/\"\n"
+                + ")\n"
+                + "public final class RondelTestAppWarmUp {\n"
+                + "    private static final int[][] DEPENDENCIES = { {}, { 0 }, {} };\n"
+                + "\n"
+                + "    /**\n"
+                + "     * Creates App singletons on {@code executor}. Call it right after App is injected.\n"
+                + "     */\n"
+                + "    public static WarmUp warmUp(final RondelTestAppComponent component, Executor executor) {\n"
+                + "        return WarmUp.start(executor, DEPENDENCIES, new WarmUp.Task() {\n"
+                + "            @Override\n"
+                + "            public void run(int index) {\n"
+                + "                switch (index) {\n"
+                + "                    case 0:\n"
+                + "                        component.warmUpTestAppModuleProvideUrl();\n"
+                + "                        break;\n"
+                + "                    case 1:\n"
+                + "                        component.warmUpTestAppModuleProvideClient();\n"
+                + "                        break;\n"
+                + "                    case 2:\n"
+                + "                        component.warmUpTestAppModuleProvideSize();\n"
+                + "                        break;\n"
+                + "                }\n"
+                + "            }\n"
+                + "        });\n"
+                + "    }\n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, moduleFile))
+                .withCompilerOptions("-Arondel.warmUp=true")
+                .processedWith(new RondelProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedWarmUp);
+
+    }
+
+}
@@ -0,0 +1,55 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package android.app;
+
+import android.view.View;
+
+/**
+ * JVM stand-in for Android {@code Fragment}. Call {@link #attach(Activity, Fragment)} before injecting it
+ * and {@link #setView(View)} before injecting its views.
+ */
+public class Fragment {
+
+    private Activity activity;
+    private Fragment parentFragment;
+    private View view;
+
+    /**
+     * @param parentFragment parent fragment or null when fragment is added to activity directly
+     */
+    public void attach(Activity activity, Fragment parentFragment) {
+        this.activity = activity;
+        this.parentFragment = parentFragment;
+    }
+
+    public Activity getActivity() {
+        return activity;
+    }
+
+    public Fragment getParentFragment() {
+        return parentFragment;
+    }
+
+    public void setView(View view) {
+        this.view = view;
+    }
+
+    public View getView() {
+        return view;
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.jvm;
+
+import org.junit.After;
+import org.junit.Test;
+
+import solar.blaz.rondel.AppProcess;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AppProcessTest {
+
+    @After
+    public void tearDown() {
+        AppProcess.setName(null);
+    }
+
+    @Test
+    public void testSyncProcess() {
+        AppProcess.setName("solar.blaz.rondel.jvm:sync");
+
+        TestApp app = new TestApp();
+        app.onCreate();
+
+        assertTrue(app.getComponent() instanceof RondelTestAppSyncComponent);
+        assertFalse(app.getComponent() instanceof RondelTestAppComponent);
+        assertEquals("sync", app.name);
+
+        SyncService service = new SyncService();
+        service.attach(app);
+        service.onCreate();
+
+        assertNotNull(service.repository);
+    }
+
+    @Test
+    public void testChildOutsideProcess() {
+        AppProcess.setName("solar.blaz.rondel.jvm:sync");
+
+        TestApp app = new TestApp();
+        app.onCreate();
+
+        MainActivity activity = new MainActivity();
+        activity.attach(app);
+        try {
+            activity.onCreate();
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("MainActivity needs RondelTestAppComponent, which is not built in process "
+                    + "solar.blaz.rondel.jvm:sync. Add MainActivity to children of its @App.Process.", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testMainProcess() {
+        AppProcess.setName("solar.blaz.rondel.jvm");
+
+        TestApp app = new TestApp();
+        app.onCreate();
+
+        assertTrue(app.getComponent() instanceof RondelTestAppComponent);
+        assertEquals("rondel", app.name);
+
+        SyncService service = new SyncService();
+        service.attach(app);
+        service.onCreate();
+
+        assertNotNull(service.repository);
+    }
+
+    @Test
+    public void testReadName() {
+        AppProcess.setName(null);
+
+        assertFalse(AppProcess.getName().isEmpty());
+        assertFalse(AppProcess.is(":sync"));
+    }
+
+}
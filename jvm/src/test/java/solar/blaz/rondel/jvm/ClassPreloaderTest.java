@@ -0,0 +1,78 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.jvm;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import solar.blaz.rondel.AppProcess;
+import solar.blaz.rondel.ClassPreloader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ClassPreloaderTest {
+
+    @Test
+    public void testAllClassesFound() {
+        String[] classNames = RondelTestAppPreload.getClassNames();
+
+        assertEquals(classNames.length, ClassPreloader.preload(getClass().getClassLoader(), classNames));
+    }
+
+    @Test
+    public void testSyncProcess() {
+        AppProcess.setName("solar.blaz.rondel.jvm:sync");
+        try {
+            String[] classNames = RondelTestAppPreload.getClassNames();
+            List<String> names = Arrays.asList(classNames);
+
+            assertEquals(classNames.length, ClassPreloader.preload(getClass().getClassLoader(), classNames));
+            assertTrue(names.contains("solar.blaz.rondel.jvm.DaggerRondelTestAppSyncComponent"
+                    + "$RondelSyncServiceComponentImpl"));
+            assertFalse(names.contains("solar.blaz.rondel.jvm.DaggerRondelTestAppComponent"));
+            assertFalse(names.contains("solar.blaz.rondel.jvm.RondelMainActivity"));
+        } finally {
+            AppProcess.setName(null);
+        }
+    }
+
+    @Test
+    public void testOrder() {
+        List<String> classNames = Arrays.asList(RondelTestAppPreload.getClassNames());
+
+        assertEquals("solar.blaz.rondel.jvm.RondelTestApp", classNames.get(0));
+        assertTrue(classNames.contains("solar.blaz.rondel.jvm.DaggerRondelTestAppComponent"
+                + "$RondelMainActivityComponentImpl$RondelHeaderViewComponentImpl"));
+        assertTrue(classNames.indexOf("solar.blaz.rondel.jvm.RondelMainActivity")
+                < classNames.indexOf("solar.blaz.rondel.jvm.RondelSyncService"));
+    }
+
+    @Test
+    public void testBackgroundThread() throws InterruptedException {
+        Thread thread = ClassPreloader.start(getClass().getClassLoader(),
+                new String[] { "solar.blaz.rondel.jvm.RondelDetailFragment", "solar.blaz.rondel.jvm.Missing" });
+        thread.join();
+
+        assertTrue(thread.isDaemon());
+        assertEquals("rondel-preload", thread.getName());
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.jvm;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import solar.blaz.rondel.InjectionStats;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class InjectionStatsTest {
+
+    @Test
+    public void testCounters() {
+        TestApp app = new TestApp();
+        app.onCreate();
+
+        InjectionStats.Snapshot appBefore = find(TestApp.class);
+        InjectionStats.Snapshot serviceBefore = find(SyncService.class);
+
+        for (int i = 0; i < 3; i++) {
+            SyncService service = new SyncService();
+            service.attach(app);
+            service.onCreate();
+        }
+
+        InjectionStats.Snapshot service = find(SyncService.class);
+        long serviceBuilds = serviceBefore == null ? 0 : serviceBefore.getBuilds();
+        long serviceInjects = serviceBefore == null ? 0 : serviceBefore.getInjects();
+        assertEquals(serviceBuilds + 3, service.getBuilds());
+        assertEquals(serviceInjects + 3, service.getInjects());
+        assertTrue(sum(service) <= service.getInjects());
+
+        InjectionStats.Snapshot appAfter = find(TestApp.class);
+        assertEquals(appBefore.getBuilds(), appAfter.getBuilds());
+        assertEquals(appBefore.getInjects(), appAfter.getInjects());
+    }
+
+    @Test
+    public void testConcurrentInjects() throws InterruptedException {
+        final TestApp app = new TestApp();
+        app.onCreate();
+
+        InjectionStats.Snapshot before = find(SyncService.class);
+        long builds = before == null ? 0 : before.getBuilds();
+
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+                @Override public void run() {
+                    for (int j = 0; j < 500; j++) {
+                        SyncService service = new SyncService();
+                        service.attach(app);
+                        service.onCreate();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        InjectionStats.Snapshot after = find(SyncService.class);
+        assertEquals(builds + 2000, after.getBuilds());
+        assertTrue(sum(after) <= after.getInjects());
+    }
+
+    @Test
+    public void testSampling() {
+        TestApp app = new TestApp();
+        app.onCreate();
+
+        InjectionStats.Snapshot before = find(SyncService.class);
+        long timed = before == null ? 0 : sum(before);
+
+        // one thread updates one stripe, so any run of SAMPLE_INTERVAL injects times exactly one
+        for (int i = 0; i < 2 * InjectionStats.SAMPLE_INTERVAL; i++) {
+            SyncService service = new SyncService();
+            service.attach(app);
+            service.onCreate();
+        }
+
+        assertEquals(timed + 2, sum(find(SyncService.class)));
+    }
+
+    @Test
+    public void testSharedBuiltOnce() {
+        TestApp app = new TestApp();
+        app.onCreate();
+        MainActivity activity = new MainActivity();
+        activity.attach(app);
+        activity.onCreate();
+        HeaderView header = new HeaderView(activity);
+        header.onAttachedToWindow();
+
+        InjectionStats.Snapshot before = find(RowView.class);
+        long builds = before == null ? 0 : before.getBuilds();
+        long injects = before == null ? 0 : before.getInjects();
+
+        for (int i = 0; i < 3; i++) {
+            RowView row = new RowView(activity);
+            header.addView(row);
+            row.onAttachedToWindow();
+        }
+
+        InjectionStats.Snapshot after = find(RowView.class);
+        assertEquals(builds + 1, after.getBuilds());
+        assertEquals(injects + 3, after.getInjects());
+    }
+
+    @Test
+    public void testBuckets() {
+        assertEquals(10000L, InjectionStats.getBucketBound(0));
+        assertEquals(100000000L, InjectionStats.getBucketBound(InjectionStats.BUCKETS - 2));
+        assertEquals(Long.MAX_VALUE, InjectionStats.getBucketBound(InjectionStats.BUCKETS - 1));
+
+        new TestApp().onCreate();
+
+        assertTrue(find(TestApp.class).toString().startsWith("solar.blaz.rondel.jvm.TestApp builds="));
+    }
+
+    private static long sum(InjectionStats.Snapshot snapshot) {
+        long sum = 0;
+        for (int i = 0; i < InjectionStats.BUCKETS; i++) {
+            sum += snapshot.getCount(i);
+        }
+        return sum;
+    }
+
+    private static InjectionStats.Snapshot find(Class<?> target) {
+        List<InjectionStats.Snapshot> snapshots = InjectionStats.snapshot();
+        for (InjectionStats.Snapshot snapshot : snapshots) {
+            if (snapshot.getTarget() == target) {
+                return snapshot;
+            }
+        }
+        return null;
+    }
+
+}
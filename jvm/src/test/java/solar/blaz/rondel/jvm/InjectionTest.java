@@ -0,0 +1,289 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.jvm;
+
+import android.app.Fragment;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+
+import solar.blaz.rondel.ModuleOverrides;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+public class InjectionTest {
+
+    private TestApp app;
+    private MainActivity activity;
+
+    @Before
+    public void setUp() {
+        app = new TestApp();
+        app.onCreate();
+
+        activity = new MainActivity();
+        activity.attach(app);
+        activity.onCreate();
+    }
+
+    @After
+    public void tearDown() {
+        ModuleOverrides.clear(app);
+    }
+
+    @Test
+    public void testApp() {
+        assertNotNull(app.repository);
+        assertEquals("rondel", app.name);
+    }
+
+    @Test
+    public void testActivity() {
+        assertSame(app.repository, activity.repository);
+        assertEquals("MainActivity", activity.session.getOwner());
+    }
+
+    @Test
+    public void testActivityScope() {
+        MainActivity other = new MainActivity();
+        other.attach(app);
+        other.onCreate();
+
+        assertNotSame(activity.session, other.session);
+    }
+
+    @Test
+    public void testAbstractBase() {
+        FeedActivity feed = new FeedActivity();
+        feed.attach(app);
+        feed.onCreate();
+
+        SearchActivity search = new SearchActivity();
+        search.attach(app);
+        search.onCreate();
+
+        assertSame(app.repository, feed.repository);
+        assertSame(app.repository, search.repository);
+        assertSame(feed.getComponent().getClass(), search.getComponent().getClass());
+    }
+
+    @Test
+    public void testService() {
+        SyncService service = new SyncService();
+        service.attach(app);
+        service.onCreate();
+
+        assertSame(app.repository, service.repository);
+    }
+
+    @Test
+    public void testFragment() {
+        DetailFragment fragment = new DetailFragment();
+        fragment.attach(activity, null);
+        fragment.onAttach();
+
+        assertSame(activity.session, fragment.session);
+    }
+
+    @Test
+    public void testNestedFragment() {
+        DetailFragment detail = new DetailFragment();
+        detail.attach(activity, null);
+        detail.onAttach();
+
+        ChildFragment child = new ChildFragment();
+        child.attach(activity, detail);
+        child.onAttach();
+
+        assertSame(activity.session, child.session);
+    }
+
+    @Test
+    public void testFragmentWithoutParentAfterCachedHostCollected() {
+        DetailFragment detail = new DetailFragment();
+        detail.attach(activity, null);
+        detail.onAttach();
+
+        // parent lookup is cached for the middle fragment, which is then collected
+        Fragment middle = new Fragment();
+        middle.attach(activity, detail);
+        ChildFragment child = new ChildFragment();
+        child.attach(activity, middle);
+        child.onAttach();
+
+        WeakReference<Fragment> collected = new WeakReference<Fragment>(middle);
+        middle = null;
+        child = null;
+        for (int i = 0; i < 10 && collected.get() != null; i++) {
+            System.gc();
+        }
+        assumeTrue(collected.get() == null);
+
+        ChildFragment orphan = new ChildFragment();
+        orphan.attach(activity, null);
+        try {
+            orphan.onAttach();
+            fail("Orphan fragment got a parent");
+        } catch (IllegalStateException e) {
+            assertEquals("Parent DetailFragment not found", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testView() {
+        HeaderView header = new HeaderView(activity);
+        header.onAttachedToWindow();
+
+        TitleView title = new TitleView(activity);
+        header.addView(title);
+        title.onAttachedToWindow();
+
+        assertSame(activity.session, header.session);
+        assertSame(activity.session, title.session);
+    }
+
+    @Test
+    public void testSharedView() {
+        HeaderView header = new HeaderView(activity);
+        header.onAttachedToWindow();
+
+        RowView first = new RowView(activity);
+        header.addView(first);
+        first.onAttachedToWindow();
+
+        RowView second = new RowView(activity);
+        header.addView(second);
+        second.onAttachedToWindow();
+
+        assertSame(first.component, second.component);
+        assertSame(activity.session, second.session);
+
+        HeaderView otherHeader = new HeaderView(activity);
+        otherHeader.onAttachedToWindow();
+
+        RowView other = new RowView(activity);
+        otherHeader.addView(other);
+        other.onAttachedToWindow();
+
+        assertNotSame(first.component, other.component);
+    }
+
+    @Test
+    public void testViewInFragment() {
+        DetailFragment fragment = new DetailFragment();
+        fragment.attach(activity, null);
+        fragment.onAttach();
+
+        HeaderView root = new HeaderView(activity);
+        fragment.setView(root);
+        fragment.onViewCreated();
+
+        ItemView item = new ItemView(activity);
+        root.addView(item);
+        item.onAttachedToWindow();
+
+        assertSame(activity.session, item.session);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testViewInFragmentNotPublished() {
+        ItemView item = new ItemView(activity);
+        item.onAttachedToWindow();
+    }
+
+    @Test
+    public void testRelease() {
+        activity.onDestroy();
+
+        assertTrue(activity.session.isClosed());
+    }
+
+    @Test
+    public void testModuleOverride() {
+        final Session session = new Session("override");
+        ModuleOverrides.set(app, MainActivityModule.class, new MainActivityModule(activity) {
+            @Override Session provideSession() {
+                return session;
+            }
+        });
+
+        MainActivity other = new MainActivity();
+        other.attach(app);
+        other.onCreate();
+
+        assertSame(session, other.session);
+    }
+
+    @Test
+    public void testModuleOverrideReachesChild() {
+        DetailFragment fragment = new DetailFragment();
+        fragment.attach(activity, null);
+        fragment.onAttach();
+
+        final Session session = new Session("override");
+        ModuleOverrides.set(app, MainActivityModule.class, new MainActivityModule(activity) {
+            @Override Session provideSession() {
+                return session;
+            }
+        });
+
+        // what TestApp.reInjectSingle(activity) does, new component is not stored on the activity
+        RondelMainActivity.inject(activity);
+        fragment.onAttach();
+
+        assertSame(session, activity.session);
+        assertNotSame(session, fragment.session);
+
+        activity.onCreate();
+        fragment.onAttach();
+
+        assertSame(session, fragment.session);
+    }
+
+    @Test
+    public void testModuleOverrideOtherApp() {
+        TestApp otherApp = new TestApp();
+        otherApp.onCreate();
+        ModuleOverrides.set(otherApp, MainActivityModule.class, new MainActivityModule(activity) {
+            @Override Session provideSession() {
+                return new Session("override");
+            }
+        });
+
+        try {
+            MainActivity other = new MainActivity();
+            other.attach(app);
+            other.onCreate();
+
+            assertEquals("MainActivity", other.session.getOwner());
+            assertFalse(other.session.isClosed());
+        } finally {
+            ModuleOverrides.clear(otherApp);
+        }
+    }
+
+}
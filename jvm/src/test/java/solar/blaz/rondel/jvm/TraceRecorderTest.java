@@ -0,0 +1,143 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.jvm;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import solar.blaz.rondel.TraceRecorder;
+import solar.blaz.rondel.Tracing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TraceRecorderTest {
+
+    private TraceRecorder recorder;
+
+    @Before
+    public void setUp() {
+        recorder = new TraceRecorder(64);
+        Tracing.setTracer(recorder);
+    }
+
+    @After
+    public void tearDown() {
+        Tracing.setTracer(null);
+    }
+
+    @Test
+    public void testColdStart() throws IOException {
+        TestApp app = new TestApp();
+        app.onCreate();
+
+        MainActivity activity = new MainActivity();
+        activity.attach(app);
+        activity.onCreate();
+
+        DetailFragment fragment = new DetailFragment();
+        fragment.attach(activity, null);
+        fragment.onAttach();
+
+        HeaderView view = new HeaderView(activity);
+        view.onAttachedToWindow();
+
+        SyncService service = new SyncService();
+        service.attach(app);
+        service.onCreate();
+
+        assertEquals(20, recorder.size());
+
+        String trace = write();
+        assertTrue(trace.startsWith("{\"traceEvents\":[{\"name\":\"thread_name\",\"ph\":\"M\""));
+        assertTrue(trace.contains("{\"name\":\"solar.blaz.rondel.jvm.TestApp build\",\"cat\":\"rondel.build\",\"ph\":\"B\""));
+        assertTrue(trace.contains("\"args\":{\"scope\":\"Singleton\"}"));
+        assertTrue(trace.contains("\"args\":{\"scope\":\"ActivityScope\"}"));
+        assertOrder(trace, "TestApp build", "TestApp inject", "MainActivity build", "MainActivity inject",
+                "DetailFragment build", "HeaderView build", "SyncService inject");
+        assertTrue(trace.endsWith("],\"displayTimeUnit\":\"ms\",\"otherData\":{\"dropped\":0}}"));
+    }
+
+    @Test
+    public void testRingBuffer() throws IOException {
+        recorder = new TraceRecorder(4);
+        Tracing.setTracer(recorder);
+
+        TestApp app = new TestApp();
+        app.onCreate();
+
+        SyncService service = new SyncService();
+        service.attach(app);
+        service.onCreate();
+
+        assertEquals(4, recorder.size());
+        assertEquals(4, recorder.getDropped());
+
+        String trace = write();
+        assertFalse(trace.contains("TestApp"));
+        assertTrue(trace.contains("SyncService build"));
+        assertTrue(trace.endsWith("\"otherData\":{\"dropped\":4}}"));
+    }
+
+    @Test
+    public void testClear() throws IOException {
+        new TestApp().onCreate();
+        recorder.clear();
+
+        assertEquals(0, recorder.size());
+        assertEquals("{\"traceEvents\":[],\"displayTimeUnit\":\"ms\",\"otherData\":{\"dropped\":0}}", write());
+    }
+
+    @Test
+    public void testProfile() throws IOException {
+        TestApp app = new TestApp();
+        app.onCreate();
+
+        for (int i = 0; i < 2; i++) {
+            MainActivity activity = new MainActivity();
+            activity.attach(app);
+            activity.onCreate();
+        }
+
+        StringWriter writer = new StringWriter();
+        recorder.writeProfileTo(writer);
+
+        assertEquals("solar.blaz.rondel.jvm.TestApp\n"
+                + "solar.blaz.rondel.jvm.MainActivity\n", writer.toString());
+    }
+
+    private String write() throws IOException {
+        StringWriter writer = new StringWriter();
+        recorder.writeTo(writer);
+        return writer.toString();
+    }
+
+    private static void assertOrder(String trace, String... names) {
+        int index = 0;
+        for (String name : names) {
+            int next = trace.indexOf(name, index);
+            assertTrue(name + " not found after " + index, next >= 0);
+            index = next;
+        }
+    }
+
+}
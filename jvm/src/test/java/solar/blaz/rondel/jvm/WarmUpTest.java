@@ -0,0 +1,86 @@
+/*
+ *    Copyright 2016 Blaž Šolar
+ *
+ *    Licensed under the Apache License, Version 2.0 (the "License");
+ *    you may not use this file except in compliance with the License.
+ *    You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ */
+
+package solar.blaz.rondel.jvm;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import solar.blaz.rondel.WarmUp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class WarmUpTest {
+
+    @Test
+    public void testSingletons() throws InterruptedException {
+        TestApp app = new TestApp();
+        app.onCreate();
+
+        RondelTestAppComponent component = (RondelTestAppComponent) app.getComponent();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            WarmUp warmUp = RondelTestAppWarmUp.warmUp(component, executor);
+
+            assertTrue(warmUp.await(5, TimeUnit.SECONDS));
+            assertNull(warmUp.getFailure());
+        } finally {
+            executor.shutdown();
+        }
+
+        Settings settings = component.warmUpAppModuleProvideSettings();
+        assertEquals("release", settings.getBuild());
+        assertSame(settings, component.warmUpAppModuleProvideSettings());
+    }
+
+    @Test
+    public void testOrder() throws InterruptedException {
+        final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            WarmUp warmUp = WarmUp.start(executor, new int[][] { { 1, 2 }, {}, { 1 } }, new WarmUp.Task() {
+                @Override public void run(int index) {
+                    order.add(index);
+                    if (index == 1) {
+                        throw new IllegalStateException();
+                    }
+                }
+            });
+
+            assertTrue(warmUp.await(5, TimeUnit.SECONDS));
+            assertTrue(warmUp.getFailure() instanceof IllegalStateException);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(3, order.size());
+        assertEquals(Integer.valueOf(1), order.get(0));
+        assertEquals(Integer.valueOf(2), order.get(1));
+        assertEquals(Integer.valueOf(0), order.get(2));
+    }
+
+}
@@ -22,43 +22,30 @@ import android.support.test.runner.AndroidJUnitRunner;
 import android.view.View;
 import android.view.ViewParent;
 
-import java.lang.reflect.Field;
-
 /**
- * Created by blaz on 08/06/16.
+ * Runner that starts tests with {@code Test<App>} generated by rondel-test-compiler. Use generated
+ * {@code Test<App>Runner} as instrumentation runner, it passes {@code Test<App>} class to this runner.
  */
 public class RondelTestRunner extends AndroidJUnitRunner {
 
-    private String mockClassName;
+    private final Class<? extends Application> testApp;
 
     public RondelTestRunner() {
-        super();
-
-        try {
-            Class<?> aClass = Class.forName("solar.blaz.rondel.Rondel");
-            Field field = aClass.getField("MOCK_CLASS_NAME");
-            mockClassName = (String) field.get(null);
-        } catch (ClassNotFoundException e) {
-            mockClassName = null;
-        } catch (NoSuchFieldException e) {
-            mockClassName = null;
-        } catch (IllegalAccessException e) {
-            mockClassName = null;
-        }
+        this(null);
+    }
 
+    protected RondelTestRunner(Class<? extends Application> testApp) {
+        super();
+        this.testApp = testApp;
     }
 
     @Override public Application newApplication(ClassLoader cl, String className,
             Context context) throws InstantiationException, IllegalAccessException, ClassNotFoundException {
-        return super.newApplication(cl, getClassName(className), context);
-    }
-
-    private String getClassName(String originalName) {
-        if (mockClassName != null) {
-            return mockClassName;
-        } else {
-            return originalName;
+        if (testApp == null) {
+            throw new IllegalStateException("No test App for " + className + ". Add rondel-test-compiler to "
+                    + "androidTest annotation processors and use generated Test<App>Runner as instrumentation runner.");
         }
+        return newApplication(testApp, context);
     }
 
     private static View getParrent(View view) {
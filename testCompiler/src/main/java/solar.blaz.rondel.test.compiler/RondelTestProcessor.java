@@ -20,6 +20,8 @@ import com.google.common.collect.ImmutableSet;
 import com.squareup.javapoet.*;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Set;
 
 import javax.annotation.processing.AbstractProcessor;
@@ -27,17 +29,25 @@ import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.RoundEnvironment;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
 import javax.tools.Diagnostic.Kind;
 
 import solar.blaz.rondel.App;
+import solar.blaz.rondel.ModuleOverrides;
+import solar.blaz.rondel.Rondel;
+import solar.blaz.rondel.RondelComponent;
 
 /**
  * Created by blaz on 09/06/16.
  */
 public class RondelTestProcessor extends AbstractProcessor {
 
+    private static final String FORWARDER = "TestRondelInjectors";
+    private static final ClassName RUNNER = ClassName.get("solar.blaz.rondel.mock", "RondelTestRunner");
+    private static final String DISPATCHER = "rondel.dispatcher";
+
     @Override public synchronized void init(ProcessingEnvironment processingEnv) {
         super.init(processingEnv);
 
@@ -55,8 +65,11 @@ public class RondelTestProcessor extends AbstractProcessor {
             for (Element app : apps) {
 
                 String packageName = processingEnv.getElementUtils().getPackageOf(app).getQualifiedName().toString();
-                ClassName rondelApp = ClassName.get(packageName, "Rondel" + app.getSimpleName());
-                ClassName appComponent = ClassName.get(packageName, "Rondel" + app.getSimpleName() + "Component");
+                ClassName rondelApp = getInjector(packageName, app);
+                // with processes inject returns component of the process it runs in
+                TypeName appComponent = app.getAnnotation(App.class).processes().length > 0
+                        ? ClassName.get(RondelComponent.class)
+                        : ClassName.get(packageName, "Rondel" + app.getSimpleName() + "Component");
                 TypeSpec.Builder builder = TypeSpec.classBuilder("Test" + app.getSimpleName())
                         .superclass(TypeName.get(app.asType()))
                         .addModifiers(Modifier.PUBLIC)
@@ -77,8 +90,24 @@ public class RondelTestProcessor extends AbstractProcessor {
                                         .add("  return super.getComponent();\n")
                                         .add("}")
                                         .build())
+                                .build())
+                        .addMethod(MethodSpec.methodBuilder("overrideModule")
+                                .addJavadoc("Injectors started from this App will use {@code module} instead of creating one.\n")
+                                .addModifiers(Modifier.PUBLIC)
+                                .addTypeVariable(TypeVariableName.get("T"))
+                                .addParameter(ParameterizedTypeName.get(ClassName.get(Class.class),
+                                        TypeVariableName.get("T")), "type")
+                                .addParameter(TypeVariableName.get("T"), "module")
+                                .addStatement("$T.set(this, type, module)", ModuleOverrides.class)
+                                .build())
+                        .addMethod(MethodSpec.methodBuilder("resetModules")
+                                .addJavadoc("Removes all module overrides and drops component created by {@link #reInject()}.\n")
+                                .addModifiers(Modifier.PUBLIC)
+                                .addStatement("$T.clear(this)", ModuleOverrides.class)
+                                .addStatement("component = null")
                                 .build());
 
+                addSubtreeInjectors(builder, roundEnv.getElementsAnnotatedWith(Rondel.class));
 
                 try {
                     JavaFile.builder(packageName, builder.build())
@@ -89,6 +118,8 @@ public class RondelTestProcessor extends AbstractProcessor {
                     e.printStackTrace();
                 }
 
+                writeRunner(packageName, ClassName.get(packageName, "Test" + app.getSimpleName()));
+
             }
 
         } else if (apps.size() == 0) {
@@ -100,11 +131,138 @@ public class RondelTestProcessor extends AbstractProcessor {
         return false;
     }
 
+    /**
+     * Writes {@code Test<App>Runner} that hands {@code Test<App>} class to {@code RondelTestRunner}, so the runner
+     * does not look it up by name. Skipped when rondel-test is not on the classpath.
+     */
+    private void writeRunner(String packageName, ClassName testApp) {
+
+        if (processingEnv.getElementUtils().getTypeElement(RUNNER.toString()) == null) {
+            return;
+        }
+
+        TypeSpec runner = TypeSpec.classBuilder(testApp.simpleName() + "Runner")
+                .addModifiers(Modifier.PUBLIC)
+                .superclass(RUNNER)
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PUBLIC)
+                        .addStatement("super($T.class)", testApp)
+                        .build())
+                .build();
+
+        try {
+            JavaFile.builder(packageName, runner)
+                    .indent("    ")
+                    .build()
+                    .writeTo(processingEnv.getFiler());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+    }
+
+    /**
+     * Adds {@code reInjectSingle} for every {@code @Rondel} view. It builds and injects component of that view only,
+     * App component and components of its parents are reused. New component is returned and not stored on the view,
+     * views below it keep the component they were injected with. Injectors are package private, so each package gets
+     * public {@code TestRondelInjectors} that forwards to them. Views that are not public are skipped.
+     */
+    private void addSubtreeInjectors(TypeSpec.Builder testApp, Set<? extends Element> views) {
+
+        Map<String, TypeSpec.Builder> forwarders = new LinkedHashMap<>();
+
+        for (Element view : views) {
+
+            if (view.getKind() != ElementKind.CLASS) {
+                continue;
+            }
+
+            if (!isPublic(view)) {
+                // TestApp and forwarder name the view directly, which would not compile outside its package
+                processingEnv.getMessager().printMessage(Kind.NOTE,
+                        "No reInjectSingle for " + view + ", it is not public.", view);
+                continue;
+            }
+
+            String packageName = processingEnv.getElementUtils().getPackageOf(view).getQualifiedName().toString();
+            String name = view.getSimpleName().toString();
+            ClassName injector = getInjector(packageName, view);
+            ClassName component = ClassName.get(packageName, "Rondel" + name + "Component");
+            ClassName forwarderName = ClassName.get(packageName, FORWARDER);
+
+            TypeSpec.Builder forwarder = forwarders.get(packageName);
+            if (forwarder == null) {
+                forwarder = TypeSpec.classBuilder(forwarderName)
+                        .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                        .addMethod(MethodSpec.constructorBuilder()
+                                .addModifiers(Modifier.PRIVATE)
+                                .build());
+                forwarders.put(packageName, forwarder);
+            }
+
+            forwarder.addMethod(MethodSpec.methodBuilder("reInjectSingle")
+                    .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                    .returns(component)
+                    .addParameter(TypeName.get(view.asType()), "injectie")
+                    .addStatement("return $T.inject(injectie)", injector)
+                    .build());
+
+            testApp.addMethod(MethodSpec.methodBuilder("reInjectSingle")
+                    .addJavadoc("Builds new component for {@code injectie} and injects it. App component and\n"
+                            + "components of its parents are reused.\n"
+                            + "\n"
+                            + "<p>Only {@code injectie} is injected. Returned component is not stored on it, so views\n"
+                            + "below it still use the old one. Hand the component to {@code injectie} before\n"
+                            + "injecting them again.\n")
+                    .addModifiers(Modifier.PUBLIC)
+                    .returns(component)
+                    .addParameter(TypeName.get(view.asType()), "injectie")
+                    .addStatement("return $T.reInjectSingle(injectie)", forwarderName)
+                    .build());
+        }
+
+        for (Map.Entry<String, TypeSpec.Builder> forwarder : forwarders.entrySet()) {
+            try {
+                JavaFile.builder(forwarder.getKey(), forwarder.getValue().build())
+                        .indent("    ")
+                        .build()
+                        .writeTo(processingEnv.getFiler());
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+    }
+
+    private static boolean isPublic(Element element) {
+        for (Element e = element; e.getKind().isClass() || e.getKind().isInterface(); e = e.getEnclosingElement()) {
+            if (!e.getModifiers().contains(Modifier.PUBLIC)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Per class injectors are not generated when Rondel processor runs with {@code rondel.dispatcher=minimal}.
+     */
+    private ClassName getInjector(String packageName, Element element) {
+        if ("minimal".equals(processingEnv.getOptions().get(DISPATCHER))) {
+            return ClassName.get(packageName, "RondelInjectors");
+        } else {
+            return ClassName.get(packageName, "Rondel" + element.getSimpleName());
+        }
+    }
+
+    @Override public Set<String> getSupportedOptions() {
+        return ImmutableSet.of(DISPATCHER);
+    }
+
     @Override public SourceVersion getSupportedSourceVersion() {
         return SourceVersion.latest();
     }
 
     @Override public Set<String> getSupportedAnnotationTypes() {
-        return ImmutableSet.of(App.class.getName());
+        return ImmutableSet.of(App.class.getName(), Rondel.class.getName());
     }
 }
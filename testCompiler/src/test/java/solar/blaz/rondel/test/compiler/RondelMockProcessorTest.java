@@ -60,7 +60,9 @@ public class RondelMockProcessorTest {
 
         JavaFileObject componentFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
                 + "\n"
+                + "import java.lang.Class;\n"
                 + "import java.lang.Override;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
                 + "\n"
                 + "public class TestApp extends App {\n"
                 + "    \n"
@@ -79,6 +81,21 @@ public class RondelMockProcessorTest {
                 + "        }\n"
                 + "    }\n"
                 + "    \n"
+                + "    /**\n"
+                + "     * Injectors started from this App will use {@code module} instead of creating one.\n"
+                + "     */\n"
+                + "    public <T> void overrideModule(Class<T> type, T module) {\n"
+                + "        ModuleOverrides.set(this, type, module);\n"
+                + "    }\n"
+                + "    \n"
+                + "    /**\n"
+                + "     * Removes all module overrides and drops component created by {@link #reInject()}.\n"
+                + "     */\n"
+                + "    public void resetModules() {\n"
+                + "        ModuleOverrides.clear(this);\n"
+                + "        component = null;\n"
+                + "    }\n"
+                + "    \n"
                 + "}");
 
         assertAbout(javaSources())
@@ -90,4 +107,416 @@ public class RondelMockProcessorTest {
 
 
     }
+
+    @Test
+    public void testProcesses() throws Exception {
+
+        JavaFileObject moduleFile = JavaFileObjects.forSourceString("test.SyncModule", "package test;\n" +
+                "\n" +
+                "import dagger.Module;\n" +
+                "\n" +
+                "@Module\n" +
+                "public class SyncModule {\n" +
+                "    \n" +
+                "}");
+
+        JavaFileObject serviceFile = JavaFileObjects.forSourceString("test.SyncService", "package test;\n"
+                + "\n"
+                + "import android.app.Service;\n"
+                + "import solar.blaz.rondel.Rondel;\n"
+                + "\n"
+                + "@Rondel\n"
+                + "public abstract class SyncService extends Service {\n"
+                + "    \n"
+                + "}");
+
+        JavaFileObject appFile = JavaFileObjects.forSourceString("test.App", "package test;\n"
+                + "\n"
+                + "import android.app.Application;\n"
+                + "import solar.blaz.rondel.ComponentProvider;\n"
+                + "import solar.blaz.rondel.RondelComponent;\n"
+                + "\n"
+                + "@solar.blaz.rondel.App(\n"
+                + "        processes = @solar.blaz.rondel.App.Process(name = \":sync\", modules = SyncModule.class,\n"
+                + "                children = SyncService.class)\n"
+                + ")\n"
+                + "public class App extends Application implements ComponentProvider {\n"
+                + "    \n"
+                + "    public RondelComponent getComponent() {\n"
+                + "        return null;\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        JavaFileObject testAppFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
+                + "\n"
+                + "import java.lang.Class;\n"
+                + "import java.lang.Override;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
+                + "import solar.blaz.rondel.RondelComponent;\n"
+                + "\n"
+                + "public class TestApp extends App {\n"
+                + "    \n"
+                + "    private RondelComponent component;\n"
+                + "    \n"
+                + "    public void reInject() {\n"
+                + "        component = RondelApp.inject(this);\n"
+                + "    }\n"
+                + "    \n"
+                + "    @Override\n"
+                + "    public RondelComponent getComponent() {\n"
+                + "        if (component != null) {\n"
+                + "            return component;\n"
+                + "        } else {\n"
+                + "            return super.getComponent();\n"
+                + "        }\n"
+                + "    }\n"
+                + "    \n"
+                + "    public <T> void overrideModule(Class<T> type, T module) {\n"
+                + "        ModuleOverrides.set(this, type, module);\n"
+                + "    }\n"
+                + "    \n"
+                + "    public void resetModules() {\n"
+                + "        ModuleOverrides.clear(this);\n"
+                + "        component = null;\n"
+                + "    }\n"
+                + "    \n"
+                + "    public RondelSyncServiceComponent reInjectSingle(SyncService injectie) {\n"
+                + "        return TestRondelInjectors.reInjectSingle(injectie);\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, moduleFile, serviceFile))
+                .processedWith(new RondelProcessor(), new RondelTestProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(testAppFile);
+
+    }
+
+    @Test
+    public void testSingleReInject() throws Exception {
+
+        JavaFileObject moduleFile = JavaFileObjects.forSourceString("test.AppModule", "package test;\n" +
+                "\n" +
+                "import dagger.Module;\n" +
+                "\n" +
+                "@Module\n" +
+                "public class AppModule {\n" +
+                "    \n" +
+                "}");
+
+        JavaFileObject appFile = JavaFileObjects.forSourceString("test.App", "package test;\n"
+                + "\n"
+                + "import android.app.Application;\n"
+                + "import solar.blaz.rondel.ComponentProvider;\n"
+                + "\n"
+                + "@solar.blaz.rondel.App(\n"
+                + "        modules = test.AppModule.class\n"
+                + ")\n"
+                + "public class App extends Application implements ComponentProvider {\n"
+                + "    \n"
+                + "    public RondelAppComponent getComponent() {\n"
+                + "        return null;\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        JavaFileObject activityFile = JavaFileObjects.forSourceString("test.ui.TestActivity", "package test.ui;\n"
+                + "\n"
+                + "import android.app.Activity;\n"
+                + "import solar.blaz.rondel.Rondel;\n"
+                + "\n"
+                + "@Rondel\n"
+                + "public class TestActivity extends Activity {\n"
+                + "    \n"
+                + "}");
+
+        JavaFileObject forwarderFile = JavaFileObjects.forSourceString("test.ui.TestRondelInjectors", "package test.ui;\n"
+                + "\n"
+                + "public final class TestRondelInjectors {\n"
+                + "    \n"
+                + "    private TestRondelInjectors() {\n"
+                + "    }\n"
+                + "    \n"
+                + "    public static RondelTestActivityComponent reInjectSingle(TestActivity injectie) {\n"
+                + "        return RondelTestActivity.inject(injectie);\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        JavaFileObject testAppFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
+                + "\n"
+                + "import java.lang.Class;\n"
+                + "import java.lang.Override;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
+                + "import test.ui.RondelTestActivityComponent;\n"
+                + "import test.ui.TestActivity;\n"
+                + "import test.ui.TestRondelInjectors;\n"
+                + "\n"
+                + "public class TestApp extends App {\n"
+                + "    \n"
+                + "    private RondelAppComponent component;\n"
+                + "    \n"
+                + "    public void reInject() {\n"
+                + "        component = RondelApp.inject(this);\n"
+                + "    }\n"
+                + "    \n"
+                + "    @Override\n"
+                + "    public RondelAppComponent getComponent() {\n"
+                + "        if (component != null) {\n"
+                + "            return component;\n"
+                + "        } else {\n"
+                + "            return super.getComponent();\n"
+                + "        }\n"
+                + "    }\n"
+                + "    \n"
+                + "    public <T> void overrideModule(Class<T> type, T module) {\n"
+                + "        ModuleOverrides.set(this, type, module);\n"
+                + "    }\n"
+                + "    \n"
+                + "    public void resetModules() {\n"
+                + "        ModuleOverrides.clear(this);\n"
+                + "        component = null;\n"
+                + "    }\n"
+                + "    \n"
+                + "    public RondelTestActivityComponent reInjectSingle(TestActivity injectie) {\n"
+                + "        return TestRondelInjectors.reInjectSingle(injectie);\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, moduleFile, activityFile))
+                .processedWith(new RondelProcessor(), new RondelTestProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(forwarderFile, testAppFile);
+
+    }
+
+    @Test
+    public void testSingleReInjectSkipsNonPublic() throws Exception {
+
+        JavaFileObject moduleFile = JavaFileObjects.forSourceString("test.AppModule", "package test;\n" +
+                "\n" +
+                "import dagger.Module;\n" +
+                "\n" +
+                "@Module\n" +
+                "public class AppModule {\n" +
+                "    \n" +
+                "}");
+
+        JavaFileObject appFile = JavaFileObjects.forSourceString("test.App", "package test;\n"
+                + "\n"
+                + "import android.app.Application;\n"
+                + "import solar.blaz.rondel.ComponentProvider;\n"
+                + "\n"
+                + "@solar.blaz.rondel.App(\n"
+                + "        modules = test.AppModule.class\n"
+                + ")\n"
+                + "public class App extends Application implements ComponentProvider {\n"
+                + "    \n"
+                + "    public RondelAppComponent getComponent() {\n"
+                + "        return null;\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        JavaFileObject activityFile = JavaFileObjects.forSourceString("test.ui.TestActivity", "package test.ui;\n"
+                + "\n"
+                + "import android.app.Activity;\n"
+                + "import solar.blaz.rondel.Rondel;\n"
+                + "\n"
+                + "@Rondel\n"
+                + "public class TestActivity extends Activity {\n"
+                + "    \n"
+                + "}");
+
+        JavaFileObject hiddenActivityFile = JavaFileObjects.forSourceString("test.HiddenActivity", "package test;\n"
+                + "\n"
+                + "import android.app.Activity;\n"
+                + "import solar.blaz.rondel.Rondel;\n"
+                + "\n"
+                + "@Rondel\n"
+                + "class HiddenActivity extends Activity {\n"
+                + "    \n"
+                + "}");
+
+        JavaFileObject forwarderFile = JavaFileObjects.forSourceString("test.ui.TestRondelInjectors", "package test.ui;\n"
+                + "\n"
+                + "public final class TestRondelInjectors {\n"
+                + "    \n"
+                + "    private TestRondelInjectors() {\n"
+                + "    }\n"
+                + "    \n"
+                + "    public static RondelTestActivityComponent reInjectSingle(TestActivity injectie) {\n"
+                + "        return RondelTestActivity.inject(injectie);\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        JavaFileObject testAppFile = JavaFileObjects.forSourceString("test.TestApp", "package test;\n"
+                + "\n"
+                + "import java.lang.Class;\n"
+                + "import java.lang.Override;\n"
+                + "import solar.blaz.rondel.ModuleOverrides;\n"
+                + "import test.ui.RondelTestActivityComponent;\n"
+                + "import test.ui.TestActivity;\n"
+                + "import test.ui.TestRondelInjectors;\n"
+                + "\n"
+                + "public class TestApp extends App {\n"
+                + "    \n"
+                + "    private RondelAppComponent component;\n"
+                + "    \n"
+                + "    public void reInject() {\n"
+                + "        component = RondelApp.inject(this);\n"
+                + "    }\n"
+                + "    \n"
+                + "    @Override\n"
+                + "    public RondelAppComponent getComponent() {\n"
+                + "        if (component != null) {\n"
+                + "            return component;\n"
+                + "        } else {\n"
+                + "            return super.getComponent();\n"
+                + "        }\n"
+                + "    }\n"
+                + "    \n"
+                + "    public <T> void overrideModule(Class<T> type, T module) {\n"
+                + "        ModuleOverrides.set(this, type, module);\n"
+                + "    }\n"
+                + "    \n"
+                + "    public void resetModules() {\n"
+                + "        ModuleOverrides.clear(this);\n"
+                + "        component = null;\n"
+                + "    }\n"
+                + "    \n"
+                + "    public RondelTestActivityComponent reInjectSingle(TestActivity injectie) {\n"
+                + "        return TestRondelInjectors.reInjectSingle(injectie);\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, moduleFile, activityFile, hiddenActivityFile))
+                .processedWith(new RondelProcessor(), new RondelTestProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(forwarderFile, testAppFile);
+
+    }
+
+    @Test
+    public void testMinimalDispatcher() throws Exception {
+
+        JavaFileObject appFile = JavaFileObjects.forSourceString("test.App", "package test;\n"
+                + "\n"
+                + "import android.app.Application;\n"
+                + "import solar.blaz.rondel.ComponentProvider;\n"
+                + "\n"
+                + "@solar.blaz.rondel.App\n"
+                + "public class App extends Application implements ComponentProvider {\n"
+                + "    \n"
+                + "    public RondelAppComponent getComponent() {\n"
+                + "        return null;\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        JavaFileObject activityFile = JavaFileObjects.forSourceString("test.ui.TestActivity", "package test.ui;\n"
+                + "\n"
+                + "import android.app.Activity;\n"
+                + "import solar.blaz.rondel.Rondel;\n"
+                + "\n"
+                + "@Rondel\n"
+                + "public class TestActivity extends Activity {\n"
+                + "    \n"
+                + "}");
+
+        JavaFileObject forwarderFile = JavaFileObjects.forSourceString("test.ui.TestRondelInjectors", "package test.ui;\n"
+                + "\n"
+                + "public final class TestRondelInjectors {\n"
+                + "    \n"
+                + "    private TestRondelInjectors() {\n"
+                + "    }\n"
+                + "    \n"
+                + "    public static RondelTestActivityComponent reInjectSingle(TestActivity injectie) {\n"
+                + "        return RondelInjectors.inject(injectie);\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(appFile, activityFile))
+                .withCompilerOptions("-Arondel.dispatcher=minimal")
+                .processedWith(new RondelProcessor(), new RondelTestProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(forwarderFile);
+
+    }
+
+    @Test
+    public void testRunner() throws Exception {
+
+        JavaFileObject runnerFile = JavaFileObjects.forSourceString("solar.blaz.rondel.mock.RondelTestRunner",
+                "package solar.blaz.rondel.mock;\n"
+                + "\n"
+                + "import android.app.Application;\n"
+                + "\n"
+                + "public class RondelTestRunner {\n"
+                + "    \n"
+                + "    protected RondelTestRunner(Class<? extends Application> testApp) {\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        JavaFileObject moduleFile = JavaFileObjects.forSourceString("test.AppModule", "package test;\n" +
+                "\n" +
+                "import dagger.Module;\n" +
+                "\n" +
+                "@Module\n" +
+                "public class AppModule {\n" +
+                "    \n" +
+                "}");
+
+        JavaFileObject appFile = JavaFileObjects.forSourceString("test.App", "package test;\n"
+                + "\n"
+                + "import android.app.Application;\n"
+                + "import solar.blaz.rondel.ComponentProvider;\n"
+                + "\n"
+                + "@solar.blaz.rondel.App(\n"
+                + "        modules = test.AppModule.class\n"
+                + ")\n"
+                + "public class App extends Application implements ComponentProvider {\n"
+                + "    \n"
+                + "    public RondelAppComponent getComponent() {\n"
+                + "        return null;\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        JavaFileObject expectedRunner = JavaFileObjects.forSourceString("test.TestAppRunner", "package test;\n"
+                + "\n"
+                + "import solar.blaz.rondel.mock.RondelTestRunner;\n"
+                + "\n"
+                + "public class TestAppRunner extends RondelTestRunner {\n"
+                + "    \n"
+                + "    public TestAppRunner() {\n"
+                + "        super(TestApp.class);\n"
+                + "    }\n"
+                + "    \n"
+                + "}");
+
+        assertAbout(javaSources())
+                .that(ImmutableList.of(runnerFile, appFile, moduleFile))
+                .processedWith(new RondelProcessor(), new RondelTestProcessor(), new ComponentProcessor())
+                .compilesWithoutError()
+                .and()
+                .generatesSources(expectedRunner);
+
+    }
+
 }